@@ -0,0 +1,21 @@
+package com.fooddelivery.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entry point of benchmarks.jar. Passes its arguments straight to JMH and, unless the caller
+ * picked a result format, writes results as JSON to jmh-result.json so runs can be compared
+ * between commits.
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {}
+
+    public static void main(String[] args) throws Exception {
+        List<String> argv = new ArrayList<>(List.of(args));
+        if (!argv.contains("-rf")) argv.addAll(List.of("-rf", "json"));
+        if (!argv.contains("-rff")) argv.addAll(List.of("-rff", "jmh-result.json"));
+        org.openjdk.jmh.Main.main(argv.toArray(String[]::new));
+    }
+}
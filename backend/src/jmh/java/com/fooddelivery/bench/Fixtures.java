@@ -0,0 +1,118 @@
+package com.fooddelivery.bench;
+
+import com.fooddelivery.dto.RestaurantDto;
+import com.fooddelivery.entity.*;
+import com.fooddelivery.enums.OrderStatus;
+import com.fooddelivery.enums.Role;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Deterministic sample data shared by the benchmarks
+public final class Fixtures {
+
+    private static final String[] CUISINES = {"Indian", "Italian", "Chinese", "American", "Mexican", "Thai", "Japanese"};
+    private static final String[] NAME_WORDS = {"Spice", "Garden", "Pizza", "Paradise", "Dragon", "Wok", "Burger", "Barn",
+            "Taco", "Fiesta", "Curry", "House", "Noodle", "Bar", "Sushi", "Corner", "Grill", "Kitchen", "Bistro", "Palace"};
+    private static final String[] DISHES = {"biryani", "margherita", "dumplings", "burgers", "tacos", "green curry",
+            "ramen", "paneer tikka", "lasagne", "fried rice", "nachos", "sushi rolls", "tandoori", "pad thai"};
+
+    private Fixtures() {}
+
+    public static User user(long id, Role role) {
+        return User.builder()
+                .id(id)
+                .name("User " + id)
+                .email("user" + id + "@food.com")
+                .password("$2a$10$abcdefghijklmnopqrstuv")
+                .role(role)
+                .phone("9999999999")
+                .address(id + " Main St, City")
+                .build();
+    }
+
+    public static Restaurant restaurant(long id) {
+        return Restaurant.builder()
+                .id(id)
+                .name(NAME_WORDS[(int) (id % NAME_WORDS.length)] + " " + NAME_WORDS[(int) ((id * 7 + 3) % NAME_WORDS.length)])
+                .description("Fresh " + DISHES[(int) (id % DISHES.length)] + " and more, cooked to order")
+                .address(id + " Food Street, Mumbai")
+                .phone("022-12345678")
+                .cuisine(CUISINES[(int) (id % CUISINES.length)])
+                .openingHours("10:00 AM - 11:00 PM")
+                .latitude(19.0 + (id % 100) * 0.003)
+                .longitude(72.8 + (id % 97) * 0.003)
+                .rating(3.5 + (id % 15) / 10.0)
+                .reviewCount(120)
+                .owner(user(1000 + id, Role.RESTAURANT_OWNER))
+                .build();
+    }
+
+    public static MenuItem menuItem(long id, Restaurant restaurant) {
+        return MenuItem.builder()
+                .id(id)
+                .name(DISHES[(int) (id % DISHES.length)])
+                .description("House special " + DISHES[(int) (id % DISHES.length)])
+                .price(120 + (id % 20) * 15)
+                .category(id % 3 == 0 ? "Starters" : "Mains")
+                .vegetarian(id % 2 == 0)
+                .restaurant(restaurant)
+                .build();
+    }
+
+    public static Order order(long id, int items) {
+        Restaurant restaurant = restaurant(id % 50);
+        Order order = Order.builder()
+                .id(id)
+                .customer(user(id % 500, Role.CUSTOMER))
+                .restaurant(restaurant)
+                .status(OrderStatus.values()[(int) (id % 4)])
+                .deliveryAddress("Flat " + id + ", Sunshine Apartments, Mumbai")
+                .paymentMethod("CASH")
+                .deliveryFee(restaurant.getDeliveryFee())
+                .createdAt(LocalDateTime.of(2024, 1, 1, 12, 0).plusMinutes(id))
+                .updatedAt(LocalDateTime.of(2024, 1, 1, 12, 5).plusMinutes(id))
+                .build();
+        List<OrderItem> lines = new ArrayList<>();
+        double subtotal = 0;
+        for (int i = 0; i < items; i++) {
+            MenuItem menuItem = menuItem(id * 10 + i, restaurant);
+            lines.add(OrderItem.builder()
+                    .id(id * 10 + i)
+                    .order(order)
+                    .menuItem(menuItem)
+                    .quantity(1 + i % 3)
+                    .price(menuItem.getPrice())
+                    .subtotal(menuItem.getPrice() * (1 + i % 3))
+                    .build());
+            subtotal += menuItem.getPrice() * (1 + i % 3);
+        }
+        order.setOrderItems(lines);
+        order.setSubtotal(subtotal);
+        order.setTotalAmount(subtotal + order.getDeliveryFee());
+        return order;
+    }
+
+    // Restaurant responses as the search and geo indexes hold them
+    public static List<RestaurantDto.Response> restaurantResponses(int count) {
+        Random random = new Random(42);
+        List<RestaurantDto.Response> list = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            RestaurantDto.Response r = new RestaurantDto.Response();
+            r.setId(id);
+            r.setName(NAME_WORDS[random.nextInt(NAME_WORDS.length)] + " " + NAME_WORDS[random.nextInt(NAME_WORDS.length)]);
+            r.setCuisine(CUISINES[random.nextInt(CUISINES.length)]);
+            r.setDescription("Fresh " + DISHES[random.nextInt(DISHES.length)] + " and " + DISHES[random.nextInt(DISHES.length)]);
+            r.setRating(Math.round(random.nextDouble() * 50) / 10.0);
+            r.setOpen(random.nextInt(5) > 0);
+            r.setDeliveryTime(30);
+            r.setDeliveryRadiusKm(2 + random.nextDouble() * 8);
+            r.setLatitude(19.0 + random.nextDouble() * 0.3);
+            r.setLongitude(72.8 + random.nextDouble() * 0.3);
+            list.add(r);
+        }
+        return list;
+    }
+}
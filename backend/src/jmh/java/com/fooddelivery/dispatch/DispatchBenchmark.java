@@ -0,0 +1,44 @@
+package com.fooddelivery.dispatch;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Nearest idle agent lookup with the agent handed straight back, so the pool stays the same size
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchBenchmark {
+
+    @Param({"1000", "10000"})
+    public int agents;
+
+    // Spread of the city the agents roam, in degrees (0.3 is roughly 33 km across)
+    @Param({"0.3"})
+    public double spread;
+
+    private AgentLocationIndex index;
+    private SplittableRandom random;
+
+    @Setup
+    public void setup() {
+        index = new AgentLocationIndex();
+        random = new SplittableRandom(7);
+        for (long id = 1; id <= agents; id++) {
+            index.update(id, 19.0 + random.nextDouble() * spread, 72.8 + random.nextDouble() * spread, true);
+        }
+    }
+
+    @Benchmark
+    public Optional<AgentLocationIndex.Match> claimNearest() {
+        Optional<AgentLocationIndex.Match> match =
+                index.claimNearest(19.0 + random.nextDouble() * spread, 72.8 + random.nextDouble() * spread, 10);
+        match.ifPresent(m -> index.markIdle(m.agentId()));
+        return match;
+    }
+}
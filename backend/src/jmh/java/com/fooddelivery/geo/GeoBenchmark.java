@@ -0,0 +1,42 @@
+package com.fooddelivery.geo;
+
+import com.fooddelivery.bench.Fixtures;
+import com.fooddelivery.dto.RestaurantDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Nearby restaurant lookup through the geohash index
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeoBenchmark {
+
+    @Param({"1000", "10000"})
+    public int restaurants;
+
+    private RestaurantGeoIndex index;
+    private SplittableRandom random;
+
+    @Setup
+    public void setup() {
+        index = new RestaurantGeoIndex();
+        index.rebuild(Fixtures.restaurantResponses(restaurants));
+        random = new SplittableRandom(11);
+    }
+
+    @Benchmark
+    public List<RestaurantDto.Response> nearby() {
+        return index.nearby(19.0 + random.nextDouble() * 0.3, 72.8 + random.nextDouble() * 0.3);
+    }
+
+    @Benchmark
+    public String geohash() {
+        return Geohash.encode(19.0 + random.nextDouble() * 0.3, 72.8 + random.nextDouble() * 0.3, 5);
+    }
+}
@@ -0,0 +1,37 @@
+package com.fooddelivery.search;
+
+import com.fooddelivery.bench.Fixtures;
+import com.fooddelivery.dto.RestaurantDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Restaurant search over the trigram index: exact words, a typo, multi-word and a short prefix
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchBenchmark {
+
+    @Param({"1000", "10000"})
+    public int restaurants;
+
+    @Param({"pizza", "dragn", "spice garden", "th"})
+    public String query;
+
+    private RestaurantSearchIndex index;
+
+    @Setup
+    public void setup() {
+        index = new RestaurantSearchIndex(50);
+        index.rebuild(Fixtures.restaurantResponses(restaurants));
+    }
+
+    @Benchmark
+    public List<RestaurantDto.Response> search() {
+        return index.search(query);
+    }
+}
@@ -0,0 +1,58 @@
+package com.fooddelivery.security;
+
+import com.fooddelivery.bench.Fixtures;
+import com.fooddelivery.entity.User;
+import com.fooddelivery.enums.Role;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+// Token work done on every login (generate) and every authenticated request (parse/validate)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private User user;
+    private AuthUser principal;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtil = new JwtUtil();
+        set("secret", "fooddeliverysecretkeythatisverylongandsecure2024");
+        set("expiration", 86_400_000L);
+        jwtUtil.init();
+
+        user = Fixtures.user(2, Role.CUSTOMER);
+        principal = new AuthUser(user.getId(), user.getEmail(), user.getRole());
+        token = jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtUtil.extractUsername(token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtil.validateToken(token, principal);
+    }
+
+    private void set(String name, Object value) {
+        Field field = ReflectionUtils.findField(JwtUtil.class, name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, jwtUtil, value);
+    }
+}
@@ -0,0 +1,68 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.bench.Fixtures;
+import com.fooddelivery.dto.MenuItemDto;
+import com.fooddelivery.dto.OrderDto;
+import com.fooddelivery.dto.RestaurantDto;
+import com.fooddelivery.entity.MenuItem;
+import com.fooddelivery.entity.Order;
+import com.fooddelivery.entity.Restaurant;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Entity to DTO mapping for one page of orders, the restaurant catalog and a menu
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private OrderService orderService;
+    private RestaurantService restaurantService;
+    private MenuItemService menuItemService;
+
+    private List<Order> orders;
+    private List<Restaurant> restaurants;
+    private List<MenuItem> menu;
+
+    @Setup
+    public void setup() {
+        orderService = MappingServices.orderService();
+        restaurantService = MappingServices.restaurantService();
+        menuItemService = MappingServices.menuItemService();
+
+        orders = new ArrayList<>();
+        for (long id = 1; id <= 20; id++) orders.add(Fixtures.order(id, 3));
+        restaurants = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) restaurants.add(Fixtures.restaurant(id));
+        Restaurant restaurant = restaurants.get(0);
+        menu = new ArrayList<>();
+        for (long id = 1; id <= 30; id++) menu.add(Fixtures.menuItem(id, restaurant));
+    }
+
+    @Benchmark
+    public List<OrderDto.Response> orderPage() {
+        List<OrderDto.Response> out = new ArrayList<>(orders.size());
+        for (Order order : orders) out.add(orderService.toResponse(order));
+        return out;
+    }
+
+    @Benchmark
+    public List<RestaurantDto.Response> restaurantCatalog() {
+        List<RestaurantDto.Response> out = new ArrayList<>(restaurants.size());
+        for (Restaurant restaurant : restaurants) out.add(restaurantService.toResponse(restaurant));
+        return out;
+    }
+
+    @Benchmark
+    public List<MenuItemDto.Response> menu() {
+        List<MenuItemDto.Response> out = new ArrayList<>(menu.size());
+        for (MenuItem item : menu) out.add(menuItemService.toResponse(item));
+        return out;
+    }
+}
@@ -0,0 +1,49 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.eta.KitchenLoadTracker;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Services for benchmarks that only exercise the entity to DTO mappers. Collaborators are matched to
+ * constructor parameters by type and everything else is left null, so adding a dependency to a service
+ * does not break the benchmarks that never touch it.
+ */
+final class MappingServices {
+
+    private MappingServices() {}
+
+    static OrderService orderService() {
+        // Order responses carry a delivery estimate
+        return build(OrderService.class, new KitchenLoadTracker(60));
+    }
+
+    static RestaurantService restaurantService() {
+        return build(RestaurantService.class);
+    }
+
+    static MenuItemService menuItemService() {
+        return build(MenuItemService.class);
+    }
+
+    private static <T> T build(Class<T> type, Object... collaborators) {
+        // Services have exactly one constructor, generated from their final fields
+        Constructor<?> constructor = type.getConstructors()[0];
+        Class<?>[] parameters = constructor.getParameterTypes();
+        Object[] args = new Object[parameters.length];
+        for (Object collaborator : collaborators) {
+            int i = 0;
+            while (i < parameters.length && !parameters[i].isInstance(collaborator)) i++;
+            if (i == parameters.length) {
+                throw new IllegalArgumentException(type.getSimpleName() + " takes no " + collaborator.getClass().getSimpleName());
+            }
+            args[i] = collaborator;
+        }
+        try {
+            return type.cast(constructor.newInstance(args));
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Cannot build " + type.getSimpleName(), e);
+        }
+    }
+}
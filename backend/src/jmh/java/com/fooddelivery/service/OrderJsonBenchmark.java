@@ -0,0 +1,44 @@
+package com.fooddelivery.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fooddelivery.bench.Fixtures;
+import com.fooddelivery.dto.OrderDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Jackson serialization of order lists, configured the way Spring Boot sets up its ObjectMapper
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderJsonBenchmark {
+
+    @Param({"20", "100"})
+    public int orders;
+
+    private ObjectMapper mapper;
+    private List<OrderDto.Response> page;
+
+    @Setup
+    public void setup() {
+        mapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        OrderService orderService = MappingServices.orderService();
+        page = new ArrayList<>(orders);
+        for (long id = 1; id <= orders; id++) page.add(orderService.toResponse(Fixtures.order(id, 3)));
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return mapper.writeValueAsBytes(page);
+    }
+}
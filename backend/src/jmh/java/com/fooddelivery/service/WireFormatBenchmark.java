@@ -0,0 +1,77 @@
+package com.fooddelivery.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fooddelivery.bench.Fixtures;
+import com.fooddelivery.entity.Restaurant;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Bytes and serialization CPU of the order and menu responses in each negotiable encoding, with and without
+// the gzip Tomcat applies (default deflate level). Sizes are printed once per trial, before the measurements.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    @Param({"orders20", "orders100", "menu30"})
+    public String payload;
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    private ObjectMapper mapper;
+    private Object body;
+
+    @Setup
+    public void setup() throws IOException {
+        mapper = switch (format) {
+            case "json" -> JsonMapper.builder().findAndAddModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+            case "cbor" -> CBORMapper.builder().findAndAddModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+            case "smile" -> SmileMapper.builder().findAndAddModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+            default -> throw new IllegalArgumentException(format);
+        };
+
+        if (payload.startsWith("orders")) {
+            OrderService orderService = MappingServices.orderService();
+            int count = Integer.parseInt(payload.substring("orders".length()));
+            List<Object> page = new ArrayList<>(count);
+            for (long id = 1; id <= count; id++) page.add(orderService.toResponse(Fixtures.order(id, 3)));
+            body = page;
+        } else {
+            MenuItemService menuItemService = MappingServices.menuItemService();
+            Restaurant restaurant = Fixtures.restaurant(1);
+            List<Object> menu = new ArrayList<>(30);
+            for (long id = 1; id <= 30; id++) menu.add(menuItemService.toResponse(Fixtures.menuItem(id, restaurant)));
+            body = menu;
+        }
+
+        System.out.printf("%n%s as %s: %d bytes, %d gzipped%n", payload, format, serialize().length, serializeGzip().length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return mapper.writeValueAsBytes(body);
+    }
+
+    @Benchmark
+    public byte[] serializeGzip() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            mapper.writeValue(gzip, body);
+        }
+        return out.toByteArray();
+    }
+}
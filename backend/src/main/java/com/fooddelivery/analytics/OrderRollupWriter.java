@@ -0,0 +1,200 @@
+package com.fooddelivery.analytics;
+
+import com.fooddelivery.entity.Order;
+import com.fooddelivery.entity.OrderRollup;
+import com.fooddelivery.enums.OrderStatus;
+import com.fooddelivery.enums.RollupGranularity;
+import com.fooddelivery.repository.OrderRepository;
+import com.fooddelivery.repository.OrderRollupRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps order_rollups current. Each committed placement, delivery or cancellation is folded into
+ * per-bucket deltas in memory, and a single scheduled flush applies them in one transaction. A busy
+ * restaurant therefore costs one row update per bucket per flush rather than one per order, and order
+ * transactions never wait on rollup rows. Every order is counted in the buckets of its placement time,
+ * so a delivery the next morning still lands on the evening it was ordered.
+ *
+ * Deltas still buffered when the process stops are lost; {@link #backfill} recomputes whole days
+ * from the orders table and is run nightly for the previous day.
+ */
+@Slf4j
+@Component
+public class OrderRollupWriter {
+
+    private record Key(RollupGranularity granularity, LocalDateTime bucketStart, Long restaurantId) {}
+
+    private record Delta(long orders, long delivered, long cancelled, double basketAmount, double revenue) {
+        Delta plus(Delta other) {
+            return new Delta(orders + other.orders, delivered + other.delivered, cancelled + other.cancelled,
+                    basketAmount + other.basketAmount, revenue + other.revenue);
+        }
+    }
+
+    private final OrderRollupRepository rollupRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Writers merge under the read lock; the flush swaps the map under the write lock
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private Map<Key, Delta> pending = new ConcurrentHashMap<>();
+    // Serializes flush and backfill. Not a monitor: both hold it across JDBC calls and the wait for a
+    // pooled connection, and on virtual threads a park inside synchronized pins the carrier
+    // (it showed up in the pinned-thread trace of loadtest/compare-thread-modes.sh)
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public OrderRollupWriter(OrderRollupRepository rollupRepository,
+                             OrderRepository orderRepository,
+                             PlatformTransactionManager transactionManager) {
+        this.rollupRepository = rollupRepository;
+        this.orderRepository = orderRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /** Counts the order's new status once the surrounding transaction commits. */
+    public void record(Order order) {
+        Delta delta = switch (order.getStatus()) {
+            case PENDING -> new Delta(1, 0, 0, order.getSubtotal(), 0);
+            case DELIVERED -> new Delta(0, 1, 0, 0, order.getTotalAmount());
+            case CANCELLED -> new Delta(0, 0, 1, 0, 0);
+            default -> null;
+        };
+        if (delta == null) return;
+
+        Long restaurantId = order.getRestaurant().getId();
+        LocalDateTime createdAt = order.getCreatedAt();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(restaurantId, createdAt, delta);
+                }
+            });
+        } else {
+            add(restaurantId, createdAt, delta);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.analytics.flush-ms:1000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            Map<Key, Delta> batch;
+            swapLock.writeLock().lock();
+            try {
+                if (pending.isEmpty()) return;
+                batch = pending;
+                pending = new ConcurrentHashMap<>();
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> apply(batch));
+            } catch (RuntimeException e) {
+                // Keep the deltas for the next flush rather than dropping them
+                log.warn("Order rollup flush of {} buckets failed, retrying next time", batch.size(), e);
+                batch.forEach(this::merge);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Recomputes the rollups of every day in [from, to) from the orders table, one transaction per day.
+     * Buffered deltas are flushed first. Orders committed while a day is being recomputed can be counted
+     * twice or not at all for that day, so prefer closed days while the system is live.
+     */
+    public int backfill(LocalDate from, LocalDate to) {
+        flushLock.lock();
+        try {
+            flush();
+            int rows = 0;
+            for (LocalDate day = from; day.isBefore(to); day = day.plusDays(1)) {
+                LocalDateTime start = day.atStartOfDay();
+                LocalDateTime end = start.plusDays(1);
+                Integer written = transactionTemplate.execute(status -> {
+                    rollupRepository.deleteRange(start, end);
+                    Map<Key, Delta> buckets = new HashMap<>();
+                    for (OrderRepository.RollupSource o : orderRepository.findRollupSources(start, end)) {
+                        Delta delta = new Delta(1,
+                                o.getStatus() == OrderStatus.DELIVERED ? 1 : 0,
+                                o.getStatus() == OrderStatus.CANCELLED ? 1 : 0,
+                                o.getSubtotal(),
+                                o.getStatus() == OrderStatus.DELIVERED ? o.getTotalAmount() : 0);
+                        for (RollupGranularity granularity : RollupGranularity.values()) {
+                            buckets.merge(new Key(granularity, granularity.bucketOf(o.getCreatedAt()), o.getRestaurantId()),
+                                    delta, Delta::plus);
+                        }
+                    }
+                    insert(buckets);
+                    return buckets.size();
+                });
+                rows += written == null ? 0 : written;
+            }
+            return rows;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void add(Long restaurantId, LocalDateTime createdAt, Delta delta) {
+        swapLock.readLock().lock();
+        try {
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                merge(new Key(granularity, granularity.bucketOf(createdAt), restaurantId), delta);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private void merge(Key key, Delta delta) {
+        pending.merge(key, delta, Delta::plus);
+    }
+
+    // Only this writer creates rollup rows, so update-else-insert cannot race with itself
+    private void apply(Map<Key, Delta> batch) {
+        Map<Key, Delta> missing = new HashMap<>();
+        batch.forEach((key, d) -> {
+            int updated = rollupRepository.increment(key.granularity(), key.bucketStart(), key.restaurantId(),
+                    d.orders(), d.delivered(), d.cancelled(), d.basketAmount(), d.revenue());
+            if (updated == 0) missing.put(key, d);
+        });
+        // Inserted last so the bulk updates above do not each force a flush of pending inserts
+        insert(missing);
+    }
+
+    private void insert(Map<Key, Delta> buckets) {
+        List<OrderRollup> rows = new ArrayList<>(buckets.size());
+        buckets.forEach((key, d) -> rows.add(OrderRollup.builder()
+                .granularity(key.granularity())
+                .bucketStart(key.bucketStart())
+                .restaurantId(key.restaurantId())
+                .orderCount(d.orders())
+                .deliveredCount(d.delivered())
+                .cancelledCount(d.cancelled())
+                .basketAmount(d.basketAmount())
+                .revenue(d.revenue())
+                .build()));
+        rollupRepository.saveAll(rows);
+    }
+}
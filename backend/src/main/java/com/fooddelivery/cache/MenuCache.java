@@ -0,0 +1,123 @@
+package com.fooddelivery.cache;
+
+import com.fooddelivery.dto.CacheDto;
+import com.fooddelivery.dto.MenuItemDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+@Component
+public class MenuCache {
+
+    public record Menu(String etag, List<MenuItemDto.Response> items) {}
+
+    private final int maxEntries;
+
+    // Distinguishes ETags handed out by this process from ones issued before a restart
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+    // Bumped by flush, so every menu gets a new tag, including ones never invalidated on their own
+    private volatile long generation;
+    private final LinkedHashMap<Long, Menu> menus;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public MenuCache(@Value("${app.cache.menus.max-entries:2000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.menus = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Menu> eldest) {
+                if (size() > MenuCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public String etag(Long restaurantId) {
+        return etagFor(restaurantId, generation, versions.getOrDefault(restaurantId, 0L));
+    }
+
+    public Menu get(Long restaurantId, Function<Long, List<MenuItemDto.Response>> loader) {
+        synchronized (menus) {
+            Menu cached = menus.get(restaurantId);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+        }
+        misses.increment();
+        long seenGeneration = generation;
+        long seen = versions.getOrDefault(restaurantId, 0L);
+        Menu loaded = new Menu(etagFor(restaurantId, seenGeneration, seen), List.copyOf(loader.apply(restaurantId)));
+        synchronized (menus) {
+            if (generation == seenGeneration && versions.getOrDefault(restaurantId, 0L) == seen) {
+                menus.put(restaurantId, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    // Bumps the menu version once the surrounding transaction (if any) has committed,
+    // so a concurrent reader can't cache pre-commit rows under the new version
+    public void invalidate(Long restaurantId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(restaurantId);
+                }
+            });
+        } else {
+            bump(restaurantId);
+        }
+    }
+
+    public void flush() {
+        synchronized (menus) {
+            generation++;
+            menus.clear();
+        }
+    }
+
+    public CacheDto.Stats stats() {
+        CacheDto.Stats stats = new CacheDto.Stats();
+        stats.setName("menus");
+        synchronized (menus) {
+            stats.setVersion(generation + versions.values().stream().mapToLong(Long::longValue).sum());
+            stats.setEntries(menus.size());
+        }
+        stats.setMaxEntries(maxEntries);
+        stats.setHits(hits.sum());
+        stats.setMisses(misses.sum());
+        stats.setEvictions(evictions.sum());
+        long lookups = stats.getHits() + stats.getMisses();
+        stats.setHitRatio(lookups == 0 ? 0 : (double) stats.getHits() / lookups);
+        return stats;
+    }
+
+    private void bump(Long restaurantId) {
+        synchronized (menus) {
+            versions.merge(restaurantId, 1L, Long::sum);
+            menus.remove(restaurantId);
+        }
+    }
+
+    // Weak: the tag names the menu version, which is served as JSON, CBOR or Smile and gzipped or not
+    private String etagFor(Long restaurantId, long generation, long version) {
+        return "W/\"menu-" + restaurantId + "-" + epoch + "-" + generation + "." + version + "\"";
+    }
+}
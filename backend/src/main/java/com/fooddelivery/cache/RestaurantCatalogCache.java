@@ -0,0 +1,151 @@
+package com.fooddelivery.cache;
+
+import com.fooddelivery.dto.CacheDto;
+import com.fooddelivery.dto.RestaurantDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+@Component
+public class RestaurantCatalogCache {
+
+    private final int maxEntries;
+
+    // Bumped on every invalidation; a load only installs its result if no write happened while it ran
+    private final AtomicLong version = new AtomicLong();
+
+    private final LinkedHashMap<Long, RestaurantDto.Response> byId;
+    private volatile List<RestaurantDto.Response> all;
+    private volatile List<RestaurantDto.Response> open;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public RestaurantCatalogCache(@Value("${app.cache.restaurants.max-entries:10000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.byId = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, RestaurantDto.Response> eldest) {
+                if (size() > RestaurantCatalogCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public RestaurantDto.Response getById(Long id, Function<Long, RestaurantDto.Response> loader) {
+        synchronized (byId) {
+            RestaurantDto.Response cached = byId.get(id);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+        }
+        misses.increment();
+        // The loader runs outside the monitor, so a slow query never holds (or, on virtual threads, pins) it
+        long seen = version.get();
+        RestaurantDto.Response loaded = loader.apply(id);
+        synchronized (byId) {
+            if (version.get() == seen) {
+                byId.put(id, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    public List<RestaurantDto.Response> getAll(Supplier<List<RestaurantDto.Response>> loader) {
+        List<RestaurantDto.Response> cached = all;
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        long seen = version.get();
+        List<RestaurantDto.Response> loaded = List.copyOf(loader.get());
+        synchronized (byId) {
+            if (version.get() == seen && loaded.size() <= maxEntries) {
+                all = loaded;
+            }
+        }
+        return loaded;
+    }
+
+    public List<RestaurantDto.Response> getOpen(Supplier<List<RestaurantDto.Response>> loader) {
+        List<RestaurantDto.Response> cached = open;
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        long seen = version.get();
+        List<RestaurantDto.Response> loaded = List.copyOf(loader.get());
+        synchronized (byId) {
+            if (version.get() == seen && loaded.size() <= maxEntries) {
+                open = loaded;
+            }
+        }
+        return loaded;
+    }
+
+    // A restaurant changed: drop its entry and the list views that may contain it, once the
+    // surrounding transaction (if any) has committed
+    public void invalidate(Long restaurantId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(restaurantId);
+                }
+            });
+        } else {
+            evict(restaurantId);
+        }
+    }
+
+    public void flush() {
+        synchronized (byId) {
+            version.incrementAndGet();
+            byId.clear();
+            all = null;
+            open = null;
+        }
+    }
+
+    public CacheDto.Stats stats() {
+        CacheDto.Stats stats = new CacheDto.Stats();
+        stats.setName("restaurants");
+        synchronized (byId) {
+            stats.setVersion(version.get());
+            stats.setEntries(byId.size());
+        }
+        stats.setMaxEntries(maxEntries);
+        stats.setListsCached((all != null ? 1 : 0) + (open != null ? 1 : 0));
+        stats.setHits(hits.sum());
+        stats.setMisses(misses.sum());
+        stats.setEvictions(evictions.sum());
+        long lookups = stats.getHits() + stats.getMisses();
+        stats.setHitRatio(lookups == 0 ? 0 : (double) stats.getHits() / lookups);
+        return stats;
+    }
+
+    private void evict(Long restaurantId) {
+        synchronized (byId) {
+            version.incrementAndGet();
+            byId.remove(restaurantId);
+            all = null;
+            open = null;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.fooddelivery.config;
 
+import com.fooddelivery.datasource.ReplicaRoutingDataSource;
 import com.fooddelivery.entity.MenuItem;
 import com.fooddelivery.entity.Restaurant;
 import com.fooddelivery.entity.User;
@@ -9,10 +10,12 @@ import com.fooddelivery.repository.RestaurantRepository;
 import com.fooddelivery.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
 @Component
+@Order(1)
 @RequiredArgsConstructor
 public class DataInitializer implements CommandLineRunner {
 
@@ -23,7 +26,8 @@ public class DataInitializer implements CommandLineRunner {
 
     @Override
     public void run(String... args) {
-        if (userRepository.count() > 0) return;
+        // The primary decides; an empty answer from a lagging replica would seed a second time
+        if (ReplicaRoutingDataSource.onPrimary(userRepository::count) > 0) return;
 
         // Create admin
         User admin = userRepository.save(User.builder()
@@ -60,6 +64,8 @@ public class DataInitializer implements CommandLineRunner {
                 .password(passwordEncoder.encode("agent123"))
                 .role(Role.DELIVERY_AGENT)
                 .phone("6666666666")
+                .latitude(19.0728)
+                .longitude(72.8826)
                 .build());
 
         // Create restaurants
@@ -67,12 +73,15 @@ public class DataInitializer implements CommandLineRunner {
                 .name("Spice Garden")
                 .description("Authentic Indian cuisine with rich flavors and traditional recipes")
                 .address("42 Curry Lane, Mumbai")
+                .latitude(19.076)
+                .longitude(72.8777)
                 .phone("022-12345678")
                 .imageUrl("https://images.unsplash.com/photo-1585937421612-70a008356fbe?w=800")
                 .cuisine("Indian")
                 .openingHours("10:00 AM - 10:00 PM")
                 .rating(4.5)
                 .reviewCount(120)
+                .ratingSum(540)
                 .deliveryTime(35)
                 .deliveryFee(25.0)
                 .minOrderAmount(150.0)
@@ -83,12 +92,15 @@ public class DataInitializer implements CommandLineRunner {
                 .name("Pizza Paradise")
                 .description("Wood-fired pizzas with fresh ingredients imported from Italy")
                 .address("88 Napoli Road, Pune")
+                .latitude(18.5204)
+                .longitude(73.8567)
                 .phone("020-87654321")
                 .imageUrl("https://images.unsplash.com/photo-1565299624946-b28f40a0ae38?w=800")
                 .cuisine("Italian")
                 .openingHours("11:00 AM - 11:00 PM")
                 .rating(4.3)
                 .reviewCount(89)
+                .ratingSum(383)
                 .deliveryTime(25)
                 .deliveryFee(30.0)
                 .minOrderAmount(200.0)
@@ -99,12 +111,15 @@ public class DataInitializer implements CommandLineRunner {
                 .name("Dragon Wok")
                 .description("Authentic Chinese and Asian fusion dishes")
                 .address("55 Dragon Street, Delhi")
+                .latitude(28.6139)
+                .longitude(77.209)
                 .phone("011-11223344")
                 .imageUrl("https://images.unsplash.com/photo-1563245372-f21724e3856d?w=800")
                 .cuisine("Chinese")
                 .openingHours("12:00 PM - 11:00 PM")
                 .rating(4.1)
                 .reviewCount(67)
+                .ratingSum(275)
                 .deliveryTime(40)
                 .deliveryFee(20.0)
                 .minOrderAmount(120.0)
@@ -115,12 +130,15 @@ public class DataInitializer implements CommandLineRunner {
                 .name("Burger Barn")
                 .description("Juicy gourmet burgers with handmade patties")
                 .address("12 Fast Food Ave, Bangalore")
+                .latitude(12.9716)
+                .longitude(77.5946)
                 .phone("080-55667788")
                 .imageUrl("https://images.unsplash.com/photo-1568901346375-23c9450c58cd?w=800")
                 .cuisine("American")
                 .openingHours("10:00 AM - 12:00 AM")
                 .rating(4.6)
                 .reviewCount(200)
+                .ratingSum(920)
                 .deliveryTime(20)
                 .deliveryFee(15.0)
                 .minOrderAmount(100.0)
@@ -0,0 +1,69 @@
+package com.fooddelivery.config;
+
+import com.fooddelivery.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Only active when app.datasource.replica-urls lists at least one replica; otherwise Boot's single pool is used
+@Configuration
+@ConditionalOnExpression("'${app.datasource.replica-urls:}'.trim() != ''")
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource routingDataSource(HikariDataSource primaryDataSource,
+                                                      MeterRegistry registry,
+                                                      @Value("${app.datasource.replica-urls}") String replicaUrls,
+                                                      @Value("${app.datasource.replica-username:${spring.datasource.username:}}") String username,
+                                                      @Value("${app.datasource.replica-password:${spring.datasource.password:}}") String password,
+                                                      @Value("${app.datasource.replica-pool-size:10}") int poolSize,
+                                                      @Value("${app.datasource.sticky-window:5s}") Duration stickyWindow) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : StringUtils.commaDelimitedListToStringArray(replicaUrls)) {
+            // Same driver and timeouts as the primary, but its own pool per replica
+            HikariConfig config = new HikariConfig();
+            primaryDataSource.copyStateTo(config);
+            config.setPoolName("replica-" + (replicas.size() + 1));
+            config.setJdbcUrl(url.trim());
+            config.setUsername(username);
+            config.setPassword(password);
+            config.setMaximumPoolSize(poolSize);
+            config.setReadOnly(true);
+            config.setMetricsTrackerFactory(null);
+            config.setMetricRegistry(registry);
+            // A replica that is down at startup must not stop the application; the health check skips it
+            config.setInitializationFailTimeout(-1);
+            replicas.add(new HikariDataSource(config));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, stickyWindow, registry);
+    }
+
+    // Connections are only fetched on the first statement, by which point the transaction's read-only flag is known
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
@@ -0,0 +1,135 @@
+package com.fooddelivery.controller;
+
+import com.fooddelivery.cache.MenuCache;
+import com.fooddelivery.cache.RestaurantCatalogCache;
+import com.fooddelivery.dto.AgentDto;
+import com.fooddelivery.dto.AnalyticsDto;
+import com.fooddelivery.dto.CacheDto;
+import com.fooddelivery.dto.RestaurantDto;
+import com.fooddelivery.enums.ExportFormat;
+import com.fooddelivery.enums.Role;
+import com.fooddelivery.enums.RollupGranularity;
+import com.fooddelivery.service.AnalyticsService;
+import com.fooddelivery.service.DispatchService;
+import com.fooddelivery.service.OrderExportService;
+import com.fooddelivery.service.RestaurantService;
+import com.fooddelivery.service.ReviewService;
+import com.fooddelivery.service.UserService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminController {
+
+    private final RestaurantCatalogCache restaurantCatalogCache;
+    private final MenuCache menuCache;
+    private final ReviewService reviewService;
+    private final DispatchService dispatchService;
+    private final RestaurantService restaurantService;
+    private final AnalyticsService analyticsService;
+    private final OrderExportService orderExportService;
+    private final UserService userService;
+
+    @GetMapping("/cache/restaurants")
+    public ResponseEntity<CacheDto.Stats> getRestaurantCache() {
+        return ResponseEntity.ok(restaurantCatalogCache.stats());
+    }
+
+    @DeleteMapping("/cache/restaurants")
+    public ResponseEntity<Void> flushRestaurantCache() {
+        restaurantCatalogCache.flush();
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/cache/menus")
+    public ResponseEntity<CacheDto.Stats> getMenuCache() {
+        return ResponseEntity.ok(menuCache.stats());
+    }
+
+    @DeleteMapping("/cache/menus")
+    public ResponseEntity<Void> flushMenuCache() {
+        menuCache.flush();
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/ratings/rebuild")
+    public ResponseEntity<Integer> rebuildRatings() {
+        return ResponseEntity.ok(reviewService.rebuildRatingAggregates());
+    }
+
+    @PatchMapping("/users/{id}/active")
+    public ResponseEntity<Void> setUserActive(@PathVariable Long id, @RequestParam boolean active) {
+        userService.setActive(id, active);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PatchMapping("/users/{id}/role")
+    public ResponseEntity<Void> changeUserRole(@PathVariable Long id, @RequestParam Role role) {
+        userService.changeRole(id, role);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/dispatch")
+    public ResponseEntity<AgentDto.DispatchStats> getDispatchStats() {
+        return ResponseEntity.ok(dispatchService.stats());
+    }
+
+    @GetMapping("/kitchens")
+    public ResponseEntity<List<RestaurantDto.KitchenLoad>> getKitchenLoads() {
+        return ResponseEntity.ok(restaurantService.getKitchenLoads());
+    }
+
+    @GetMapping("/analytics")
+    public ResponseEntity<AnalyticsDto.Series> getAnalytics(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) RollupGranularity granularity,
+            @RequestParam(required = false) Long restaurantId) {
+        return ResponseEntity.ok(analyticsService.getSeries(from, to, granularity, restaurantId));
+    }
+
+    @GetMapping("/analytics/restaurants")
+    public ResponseEntity<List<AnalyticsDto.RestaurantTotals>> getTopRestaurants(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(analyticsService.getTopRestaurants(from, to, limit));
+    }
+
+    @PostMapping("/analytics/backfill")
+    public ResponseEntity<AnalyticsDto.BackfillResult> backfillAnalytics(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(analyticsService.backfill(from, to));
+    }
+
+    // Streams the orders placed in [from, to) to the response as they are read; defaults to everything so far
+    @GetMapping("/orders/export")
+    public void exportOrders(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            HttpServletResponse response) throws IOException {
+        if (to == null) to = LocalDateTime.now();
+        if (from == null) from = orderExportService.firstOrderTime();
+
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"orders." + format.getExtension() + "\"");
+        orderExportService.export(from, to, format, response.getOutputStream());
+    }
+}
@@ -0,0 +1,27 @@
+package com.fooddelivery.controller;
+
+import com.fooddelivery.dto.AgentDto;
+import com.fooddelivery.security.AuthUser;
+import com.fooddelivery.security.CurrentUser;
+import com.fooddelivery.service.DispatchService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/agents")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('DELIVERY_AGENT')")
+public class AgentController {
+
+    private final DispatchService dispatchService;
+
+    @PutMapping("/me/location")
+    public ResponseEntity<Void> updateLocation(@Valid @RequestBody AgentDto.LocationUpdate request,
+                                               @CurrentUser AuthUser user) {
+        dispatchService.updateLocation(user.getId(), request);
+        return ResponseEntity.ok().build();
+    }
+}
@@ -2,12 +2,12 @@ package com.fooddelivery.controller;
 
 import com.fooddelivery.dto.AuthDto;
 import com.fooddelivery.entity.User;
+import com.fooddelivery.security.AuthUser;
+import com.fooddelivery.security.CurrentUser;
 import com.fooddelivery.service.AuthService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -28,8 +28,8 @@ public class AuthController {
     }
 
     @GetMapping("/me")
-    public ResponseEntity<User> getCurrentUser(@AuthenticationPrincipal UserDetails userDetails) {
-        User user = authService.getCurrentUser(userDetails.getUsername());
+    public ResponseEntity<User> getCurrentUser(@CurrentUser AuthUser authUser) {
+        User user = authService.getCurrentUser(authUser.getId());
         user.setPassword(null); // don't expose password
         return ResponseEntity.ok(user);
     }
@@ -1,15 +1,18 @@
 package com.fooddelivery.controller;
 
+import com.fooddelivery.cache.MenuCache;
 import com.fooddelivery.dto.MenuItemDto;
-import com.fooddelivery.entity.User;
-import com.fooddelivery.service.AuthService;
+import com.fooddelivery.security.AuthUser;
+import com.fooddelivery.security.CurrentUser;
 import com.fooddelivery.service.MenuItemService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -19,19 +22,26 @@ import java.util.List;
 public class MenuItemController {
 
     private final MenuItemService menuItemService;
-    private final AuthService authService;
 
     @GetMapping("/restaurant/{restaurantId}")
-    public ResponseEntity<List<MenuItemDto.Response>> getMenuByRestaurant(@PathVariable Long restaurantId) {
-        return ResponseEntity.ok(menuItemService.getMenuByRestaurant(restaurantId));
+    public ResponseEntity<List<MenuItemDto.Response>> getMenuByRestaurant(@PathVariable Long restaurantId,
+                                                                          WebRequest webRequest) {
+        // Revalidation is answered from the menu version alone, without touching the menu or the database
+        String etag = menuItemService.getMenuEtag(restaurantId);
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.ACCEPT).build();
+        }
+        MenuCache.Menu menu = menuItemService.getMenu(restaurantId);
+        return ResponseEntity.ok().eTag(menu.etag()).cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT).body(menu.items());
     }
 
     @PostMapping("/restaurant/{restaurantId}")
     @PreAuthorize("hasRole('RESTAURANT_OWNER') or hasRole('ADMIN')")
     public ResponseEntity<MenuItemDto.Response> addMenuItem(@PathVariable Long restaurantId,
                                                             @RequestBody MenuItemDto.CreateRequest request,
-                                                            @AuthenticationPrincipal UserDetails userDetails) {
-        User user = authService.getCurrentUser(userDetails.getUsername());
+                                                            @CurrentUser AuthUser user) {
         return ResponseEntity.ok(menuItemService.addMenuItem(restaurantId, request, user.getId()));
     }
 
@@ -39,16 +49,14 @@ public class MenuItemController {
     @PreAuthorize("hasRole('RESTAURANT_OWNER') or hasRole('ADMIN')")
     public ResponseEntity<MenuItemDto.Response> updateMenuItem(@PathVariable Long itemId,
                                                                @RequestBody MenuItemDto.CreateRequest request,
-                                                               @AuthenticationPrincipal UserDetails userDetails) {
-        User user = authService.getCurrentUser(userDetails.getUsername());
+                                                               @CurrentUser AuthUser user) {
         return ResponseEntity.ok(menuItemService.updateMenuItem(itemId, request, user.getId()));
     }
 
     @PatchMapping("/{itemId}/toggle")
     @PreAuthorize("hasRole('RESTAURANT_OWNER') or hasRole('ADMIN')")
     public ResponseEntity<Void> toggleAvailability(@PathVariable Long itemId,
-                                                   @AuthenticationPrincipal UserDetails userDetails) {
-        User user = authService.getCurrentUser(userDetails.getUsername());
+                                                   @CurrentUser AuthUser user) {
         menuItemService.toggleAvailability(itemId, user.getId());
         return ResponseEntity.ok().build();
     }
@@ -56,8 +64,7 @@ public class MenuItemController {
     @DeleteMapping("/{itemId}")
     @PreAuthorize("hasRole('RESTAURANT_OWNER') or hasRole('ADMIN')")
     public ResponseEntity<Void> deleteMenuItem(@PathVariable Long itemId,
-                                               @AuthenticationPrincipal UserDetails userDetails) {
-        User user = authService.getCurrentUser(userDetails.getUsername());
+                                               @CurrentUser AuthUser user) {
         menuItemService.deleteMenuItem(itemId, user.getId());
         return ResponseEntity.noContent().build();
     }
@@ -1,18 +1,18 @@
 package com.fooddelivery.controller;
 
 import com.fooddelivery.dto.OrderDto;
-import com.fooddelivery.entity.User;
-import com.fooddelivery.service.AuthService;
+import com.fooddelivery.exception.OrderStateConflictException;
+import com.fooddelivery.security.AuthUser;
+import com.fooddelivery.security.CurrentUser;
 import com.fooddelivery.service.OrderService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -20,21 +20,28 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
-    private final AuthService authService;
+
+    private static final int MAX_PAGE_SIZE = 100;
 
     @PostMapping
     @PreAuthorize("hasRole('CUSTOMER')")
     public ResponseEntity<OrderDto.Response> placeOrder(@Valid @RequestBody OrderDto.CreateRequest request,
-                                                        @AuthenticationPrincipal UserDetails userDetails) {
-        User user = authService.getCurrentUser(userDetails.getUsername());
-        return ResponseEntity.ok(orderService.placeOrder(request, user));
+                                                        @CurrentUser AuthUser user) {
+        return ResponseEntity.ok(orderService.placeOrder(request, user.getId()));
     }
 
     @GetMapping("/my")
     @PreAuthorize("hasRole('CUSTOMER')")
-    public ResponseEntity<List<OrderDto.Response>> getMyOrders(@AuthenticationPrincipal UserDetails userDetails) {
-        User user = authService.getCurrentUser(userDetails.getUsername());
-        return ResponseEntity.ok(orderService.getMyOrders(user.getId()));
+    public ResponseEntity<OrderDto.PageResponse> getMyOrders(@RequestParam(required = false) String cursor,
+                                                             @RequestParam(defaultValue = "20") int size,
+                                                             @CurrentUser AuthUser user) {
+        return ResponseEntity.ok(orderService.getMyOrders(user.getId(), cursor, clampPageSize(size)));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrderEvents(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                        @CurrentUser AuthUser user) {
+        return orderService.streamOrderEvents(user.getId(), user.getRole(), lastEventId);
     }
 
     @GetMapping("/{id}")
@@ -44,39 +51,55 @@ public class OrderController {
 
     @GetMapping("/restaurant/{restaurantId}")
     @PreAuthorize("hasRole('RESTAURANT_OWNER') or hasRole('ADMIN')")
-    public ResponseEntity<List<OrderDto.Response>> getRestaurantOrders(@PathVariable Long restaurantId,
-                                                                       @AuthenticationPrincipal UserDetails userDetails) {
-        User user = authService.getCurrentUser(userDetails.getUsername());
-        return ResponseEntity.ok(orderService.getRestaurantOrders(restaurantId, user.getId()));
+    public ResponseEntity<OrderDto.PageResponse> getRestaurantOrders(@PathVariable Long restaurantId,
+                                                                     @RequestParam(required = false) String cursor,
+                                                                     @RequestParam(defaultValue = "20") int size,
+                                                                     @CurrentUser AuthUser user) {
+        return ResponseEntity.ok(orderService.getRestaurantOrders(restaurantId, user.getId(), cursor, clampPageSize(size)));
     }
 
     @GetMapping("/all")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<OrderDto.Response>> getAllOrders() {
-        return ResponseEntity.ok(orderService.getAllOrders());
+    public ResponseEntity<OrderDto.PageResponse> getAllOrders(@RequestParam(required = false) String cursor,
+                                                              @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(orderService.getAllOrders(cursor, clampPageSize(size)));
     }
 
     @GetMapping("/agent")
     @PreAuthorize("hasRole('DELIVERY_AGENT')")
-    public ResponseEntity<List<OrderDto.Response>> getAgentOrders(@AuthenticationPrincipal UserDetails userDetails) {
-        User user = authService.getCurrentUser(userDetails.getUsername());
-        return ResponseEntity.ok(orderService.getAgentOrders(user.getId()));
+    public ResponseEntity<OrderDto.PageResponse> getAgentOrders(@RequestParam(required = false) String cursor,
+                                                                @RequestParam(defaultValue = "20") int size,
+                                                                @CurrentUser AuthUser user) {
+        return ResponseEntity.ok(orderService.getAgentOrders(user.getId(), cursor, clampPageSize(size)));
     }
 
     @PatchMapping("/{id}/status")
     @PreAuthorize("hasRole('RESTAURANT_OWNER') or hasRole('ADMIN') or hasRole('DELIVERY_AGENT')")
     public ResponseEntity<OrderDto.Response> updateStatus(@PathVariable Long id,
                                                           @RequestParam String status,
-                                                          @AuthenticationPrincipal UserDetails userDetails) {
-        User user = authService.getCurrentUser(userDetails.getUsername());
-        return ResponseEntity.ok(orderService.updateOrderStatus(id, status, user.getId()));
+                                                          @CurrentUser AuthUser user) {
+        return ResponseEntity.ok(orderService.updateOrderStatus(id, status, user.getId(), user.getRole()));
     }
 
     @PatchMapping("/{id}/cancel")
     @PreAuthorize("hasRole('CUSTOMER')")
     public ResponseEntity<OrderDto.Response> cancelOrder(@PathVariable Long id,
-                                                         @AuthenticationPrincipal UserDetails userDetails) {
-        User user = authService.getCurrentUser(userDetails.getUsername());
+                                                         @CurrentUser AuthUser user) {
         return ResponseEntity.ok(orderService.cancelOrder(id, user.getId()));
     }
+
+    private int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    @ExceptionHandler(OrderStateConflictException.class)
+    public ResponseEntity<OrderDto.ConflictResponse> handleConflict(OrderStateConflictException e) {
+        OrderDto.ConflictResponse body = new OrderDto.ConflictResponse();
+        body.setOrderId(e.getOrderId());
+        body.setCurrentStatus(e.getCurrentStatus());
+        body.setRequestedStatus(e.getRequestedStatus());
+        body.setReason(e.getReason().name());
+        body.setMessage(e.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+    }
 }
@@ -1,14 +1,13 @@
 package com.fooddelivery.controller;
 
 import com.fooddelivery.dto.RestaurantDto;
-import com.fooddelivery.entity.User;
-import com.fooddelivery.service.AuthService;
+import com.fooddelivery.security.AuthUser;
+import com.fooddelivery.security.CurrentUser;
 import com.fooddelivery.service.RestaurantService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -19,7 +18,6 @@ import java.util.List;
 public class RestaurantController {
 
     private final RestaurantService restaurantService;
-    private final AuthService authService;
 
     @GetMapping
     public ResponseEntity<List<RestaurantDto.Response>> getAll(@RequestParam(required = false) String search) {
@@ -29,6 +27,15 @@ public class RestaurantController {
         return ResponseEntity.ok(restaurantService.getAllRestaurants());
     }
 
+    @GetMapping("/nearby")
+    public ResponseEntity<List<RestaurantDto.Response>> getNearby(@RequestParam double lat,
+                                                                  @RequestParam double lng) {
+        if (lat < -90 || lat > 90 || lng < -180 || lng > 180) {
+            throw new RuntimeException("Invalid coordinates");
+        }
+        return ResponseEntity.ok(restaurantService.getNearbyRestaurants(lat, lng));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<RestaurantDto.Response> getById(@PathVariable Long id) {
         return ResponseEntity.ok(restaurantService.getRestaurantById(id));
@@ -36,33 +43,29 @@ public class RestaurantController {
 
     @GetMapping("/my")
     @PreAuthorize("hasRole('RESTAURANT_OWNER') or hasRole('ADMIN')")
-    public ResponseEntity<List<RestaurantDto.Response>> getMyRestaurants(@AuthenticationPrincipal UserDetails userDetails) {
-        User user = authService.getCurrentUser(userDetails.getUsername());
+    public ResponseEntity<List<RestaurantDto.Response>> getMyRestaurants(@CurrentUser AuthUser user) {
         return ResponseEntity.ok(restaurantService.getMyRestaurants(user.getId()));
     }
 
     @PostMapping
     @PreAuthorize("hasRole('RESTAURANT_OWNER') or hasRole('ADMIN')")
-    public ResponseEntity<RestaurantDto.Response> create(@RequestBody RestaurantDto.CreateRequest request,
-                                                         @AuthenticationPrincipal UserDetails userDetails) {
-        User user = authService.getCurrentUser(userDetails.getUsername());
-        return ResponseEntity.ok(restaurantService.createRestaurant(request, user));
+    public ResponseEntity<RestaurantDto.Response> create(@Valid @RequestBody RestaurantDto.CreateRequest request,
+                                                         @CurrentUser AuthUser user) {
+        return ResponseEntity.ok(restaurantService.createRestaurant(request, user.getId()));
     }
 
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('RESTAURANT_OWNER') or hasRole('ADMIN')")
     public ResponseEntity<RestaurantDto.Response> update(@PathVariable Long id,
-                                                         @RequestBody RestaurantDto.CreateRequest request,
-                                                         @AuthenticationPrincipal UserDetails userDetails) {
-        User user = authService.getCurrentUser(userDetails.getUsername());
+                                                         @Valid @RequestBody RestaurantDto.CreateRequest request,
+                                                         @CurrentUser AuthUser user) {
         return ResponseEntity.ok(restaurantService.updateRestaurant(id, request, user.getId()));
     }
 
     @PatchMapping("/{id}/toggle")
     @PreAuthorize("hasRole('RESTAURANT_OWNER') or hasRole('ADMIN')")
     public ResponseEntity<Void> toggleStatus(@PathVariable Long id,
-                                             @AuthenticationPrincipal UserDetails userDetails) {
-        User user = authService.getCurrentUser(userDetails.getUsername());
+                                             @CurrentUser AuthUser user) {
         restaurantService.toggleRestaurantStatus(id, user.getId());
         return ResponseEntity.ok().build();
     }
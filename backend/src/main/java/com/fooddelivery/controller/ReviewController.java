@@ -1,14 +1,12 @@
 package com.fooddelivery.controller;
 
 import com.fooddelivery.dto.ReviewDto;
-import com.fooddelivery.entity.User;
-import com.fooddelivery.service.AuthService;
+import com.fooddelivery.security.AuthUser;
+import com.fooddelivery.security.CurrentUser;
 import com.fooddelivery.service.ReviewService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -19,14 +17,12 @@ import java.util.List;
 public class ReviewController {
 
     private final ReviewService reviewService;
-    private final AuthService authService;
 
     @PostMapping
     @PreAuthorize("hasRole('CUSTOMER')")
     public ResponseEntity<ReviewDto.Response> addReview(@RequestBody ReviewDto.CreateRequest request,
-                                                        @AuthenticationPrincipal UserDetails userDetails) {
-        User user = authService.getCurrentUser(userDetails.getUsername());
-        return ResponseEntity.ok(reviewService.addReview(request, user));
+                                                        @CurrentUser AuthUser user) {
+        return ResponseEntity.ok(reviewService.addReview(request, user.getId()));
     }
 
     @GetMapping("/restaurant/{restaurantId}")
@@ -0,0 +1,544 @@
+package com.fooddelivery.dataset;
+
+import com.fooddelivery.cache.RestaurantCatalogCache;
+import com.fooddelivery.enums.OrderStatus;
+import com.fooddelivery.enums.Role;
+import com.fooddelivery.repository.RestaurantRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk-loads a synthetic dataset at production-like cardinalities when the "dataset" profile is active.
+ * Rows are written with plain JDBC batches and precomputed ids, one transaction per batch, in parallel.
+ * Every row is derived from app.dataset.seed and its own index, so a configuration always yields the same data.
+ * Orders are Zipf-skewed twice: a minority of customers place most orders, and within each city a few
+ * restaurants take most of the demand. Orders run oldest to newest by id across the configured history,
+ * with lunch and dinner peaks; only the last ninety minutes hold in-flight orders.
+ */
+@Slf4j
+@Component
+@Profile("dataset")
+@Order(2)
+public class DatasetGenerator implements CommandLineRunner {
+
+    private static final int MAX_LINES = 5;
+    private static final long SEQUENCE_HEADROOM = 51;
+
+    private static final long SALT_USER = 0x5eed0001L;
+    private static final long SALT_RESTAURANT = 0x5eed0002L;
+    private static final long SALT_MENU = 0x5eed0003L;
+    private static final long SALT_ORDER = 0x5eed0004L;
+    private static final long SALT_CITY = 0x5eed0005L;
+
+    private record City(String name, double lat, double lng, double weight) {}
+
+    private record Cuisine(String name, String imageUrl, String[] dishes, String[] categories) {}
+
+    private static final City[] CITIES = {
+            new City("Mumbai", 19.0760, 72.8777, 0.22),
+            new City("Delhi", 28.6139, 77.2090, 0.20),
+            new City("Bangalore", 12.9716, 77.5946, 0.16),
+            new City("Hyderabad", 17.3850, 78.4867, 0.10),
+            new City("Chennai", 13.0827, 80.2707, 0.09),
+            new City("Pune", 18.5204, 73.8567, 0.08),
+            new City("Kolkata", 22.5726, 88.3639, 0.07),
+            new City("Ahmedabad", 23.0225, 72.5714, 0.04),
+            new City("Jaipur", 26.9124, 75.7873, 0.02),
+            new City("Lucknow", 26.8467, 80.9462, 0.02),
+    };
+
+    private static final Cuisine[] CUISINES = {
+            new Cuisine("Indian", "https://images.unsplash.com/photo-1585937421612-70a008356fbe?w=800",
+                    new String[]{"Butter Chicken", "Paneer Tikka Masala", "Garlic Naan", "Dal Makhani", "Chicken Biryani",
+                            "Chole Bhature", "Palak Paneer", "Tandoori Chicken", "Jeera Rice", "Gulab Jamun"},
+                    new String[]{"Main Course", "Main Course", "Bread", "Main Course", "Rice",
+                            "Main Course", "Main Course", "Starters", "Rice", "Desserts"}),
+            new Cuisine("Italian", "https://images.unsplash.com/photo-1565299624946-b28f40a0ae38?w=800",
+                    new String[]{"Margherita Pizza", "Pepperoni Pizza", "Penne Arrabbiata", "Lasagna", "Garlic Bread",
+                            "Risotto", "Bruschetta", "Tiramisu"},
+                    new String[]{"Pizza", "Pizza", "Pasta", "Pasta", "Sides", "Mains", "Starters", "Desserts"}),
+            new Cuisine("Chinese", "https://images.unsplash.com/photo-1563245372-f21724e3856d?w=800",
+                    new String[]{"Hakka Noodles", "Veg Manchurian", "Chilli Chicken", "Fried Rice", "Spring Rolls",
+                            "Dim Sum", "Hot and Sour Soup", "Kung Pao Chicken"},
+                    new String[]{"Noodles", "Starters", "Starters", "Rice", "Starters", "Starters", "Soups", "Mains"}),
+            new Cuisine("American", "https://images.unsplash.com/photo-1568901346375-23c9450c58cd?w=800",
+                    new String[]{"Classic Burger", "Cheese Burger", "French Fries", "Chicken Wings", "Hot Dog",
+                            "Onion Rings", "Milkshake", "Brownie"},
+                    new String[]{"Burgers", "Burgers", "Sides", "Starters", "Mains", "Sides", "Beverages", "Desserts"}),
+            new Cuisine("South Indian", "https://images.unsplash.com/photo-1630383249896-424e482df921?w=800",
+                    new String[]{"Masala Dosa", "Idli Sambar", "Medu Vada", "Uttapam", "Lemon Rice", "Filter Coffee"},
+                    new String[]{"Dosa", "Breakfast", "Breakfast", "Dosa", "Rice", "Beverages"}),
+    };
+
+    private static final String[] VARIANTS = {"", "Special ", "Classic ", "Spicy ", "Jumbo "};
+    private static final String[] NAME_PREFIXES = {"Golden", "Royal", "Spice", "Urban", "Green", "Little",
+            "Lucky", "Happy", "Blue", "Tasty", "Fresh", "Grand"};
+    private static final String[] NAME_SUFFIXES = {"Kitchen", "Bistro", "House", "Corner", "Table", "Garden",
+            "Express", "Diner", "Palace", "Cafe"};
+    private static final String[] FIRST_NAMES = {"Aarav", "Vivaan", "Aditya", "Ananya", "Diya", "Isha", "Kabir",
+            "Meera", "Rohan", "Sara", "Arjun", "Priya", "Neha", "Rahul", "Zoya", "Vikram"};
+    private static final String[] LAST_NAMES = {"Sharma", "Verma", "Iyer", "Reddy", "Khan", "Patel", "Gupta",
+            "Nair", "Das", "Singh", "Mehta", "Joshi"};
+    private static final String[] STREETS = {"MG Road", "Station Road", "Park Street", "Lake View", "Ring Road",
+            "Church Street", "Market Lane", "Hill Road"};
+    private static final String[] INSTRUCTIONS = {"Less spicy please", "Ring the bell twice",
+            "Leave at the door", "No cutlery needed", "Extra napkins"};
+    private static final String[] REVIEW_COMMENTS = {"Cold and late", "Not great", "Okay food",
+            "Tasty, will order again", "Excellent, loved it"};
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transactionTemplate;
+    private final RestaurantRepository restaurantRepository;
+    private final RestaurantCatalogCache catalogCache;
+    private final PasswordEncoder passwordEncoder;
+
+    private final long seed;
+    private final int userCount;
+    private final int restaurantCount;
+    private final int menuItemsPerRestaurant;
+    private final long orderCount;
+    private final int days;
+    private final double reviewRate;
+    private final double restaurantSkew;
+    private final double customerSkew;
+    private final int batchSize;
+    private final int threads;
+
+    public DatasetGenerator(JdbcTemplate jdbc,
+                            PlatformTransactionManager transactionManager,
+                            RestaurantRepository restaurantRepository,
+                            RestaurantCatalogCache catalogCache,
+                            PasswordEncoder passwordEncoder,
+                            @Value("${app.dataset.seed:42}") long seed,
+                            @Value("${app.dataset.users:100000}") int userCount,
+                            @Value("${app.dataset.restaurants:5000}") int restaurantCount,
+                            @Value("${app.dataset.menu-items-per-restaurant:40}") int menuItemsPerRestaurant,
+                            @Value("${app.dataset.orders:300000}") long orderCount,
+                            @Value("${app.dataset.days:90}") int days,
+                            @Value("${app.dataset.review-rate:0.05}") double reviewRate,
+                            @Value("${app.dataset.restaurant-skew:1.0}") double restaurantSkew,
+                            @Value("${app.dataset.customer-skew:0.6}") double customerSkew,
+                            @Value("${app.dataset.batch-size:1000}") int batchSize,
+                            @Value("${app.dataset.threads:4}") int threads) {
+        this.jdbc = jdbc;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.restaurantRepository = restaurantRepository;
+        this.catalogCache = catalogCache;
+        this.passwordEncoder = passwordEncoder;
+        this.seed = seed;
+        this.userCount = userCount;
+        this.restaurantCount = restaurantCount;
+        this.menuItemsPerRestaurant = menuItemsPerRestaurant;
+        this.orderCount = orderCount;
+        this.days = Math.max(1, days);
+        this.reviewRate = reviewRate;
+        this.restaurantSkew = restaurantSkew;
+        this.customerSkew = customerSkew;
+        this.batchSize = Math.max(1, batchSize);
+        this.threads = Math.max(1, threads);
+    }
+
+    @Override
+    public void run(String... args) {
+        Plan plan = new Plan();
+        log.info("Generating dataset: {} users ({} customers, {} owners, {} agents), {} restaurants, {} menu items, {} orders",
+                userCount, plan.customers, plan.owners, plan.agents, restaurantCount,
+                (long) restaurantCount * menuItemsPerRestaurant, orderCount);
+        long started = System.nanoTime();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            load(pool, "users", userCount, (from, to) -> insertUsers(plan, from, to));
+            load(pool, "restaurants", restaurantCount, (from, to) -> insertRestaurants(plan, from, to));
+            load(pool, "menu items", (long) restaurantCount * menuItemsPerRestaurant, (from, to) -> insertMenuItems(plan, from, to));
+            load(pool, "orders", orderCount, (from, to) -> insertOrders(plan, from, to));
+        } finally {
+            pool.shutdownNow();
+        }
+
+        transactionTemplate.executeWithoutResult(status -> restaurantRepository.rebuildRatings());
+        resetIdGenerators(plan);
+        // The web server is already up, so a request may have cached the catalog before these rows existed
+        catalogCache.flush();
+        log.info("Dataset generated in {} s", (System.nanoTime() - started) / 1_000_000_000);
+    }
+
+    /** Id ranges, city membership and samplers, fixed up front so every batch can be generated independently. */
+    private final class Plan {
+        final long userBase = nextId("users");
+        final long restaurantBase = nextId("restaurants");
+        final long menuBase = nextId("menu_items");
+        final long orderBase = nextId("orders");
+        final long orderItemBase = nextId("order_items");
+        final long reviewBase = nextId("reviews");
+
+        final int agents = Math.max(1, userCount / 100);
+        final int owners = Math.max(1, Math.min(restaurantCount / 2, userCount / 10));
+        final int customers = userCount - agents - owners;
+        final long customerStride = coprimeStride(customers);
+
+        final String passwordHash = passwordEncoder.encode("password123");
+        final LocalDateTime now = LocalDateTime.now();
+        final LocalDate firstDay = now.toLocalDate().minusDays(days - 1);
+
+        final int[][] restaurantsByCity = new int[CITIES.length][];
+        final int[][] agentsByCity = new int[CITIES.length][];
+        final ZipfSampler[] restaurantDemand = new ZipfSampler[CITIES.length];
+        final ZipfSampler customerDemand;
+        final ZipfSampler dishDemand;
+
+        Plan() {
+            if (customers <= 0) throw new IllegalStateException("app.dataset.users is too small for the restaurant count");
+            if (restaurantCount <= 0 || menuItemsPerRestaurant <= 0) {
+                throw new IllegalStateException("app.dataset needs at least one restaurant and one menu item each");
+            }
+            for (int c = 0; c < CITIES.length; c++) {
+                restaurantsByCity[c] = indicesInCity(restaurantCount, SALT_RESTAURANT, c);
+                agentsByCity[c] = indicesInCity(agents, SALT_USER + 1, c);
+            }
+            // Customers in a city without restaurants order from the biggest city instead
+            for (int c = 0; c < CITIES.length; c++) {
+                if (restaurantsByCity[c].length == 0) restaurantsByCity[c] = restaurantsByCity[0].length > 0
+                        ? restaurantsByCity[0] : indicesInCity(restaurantCount, SALT_RESTAURANT, -1);
+                restaurantDemand[c] = new ZipfSampler(restaurantsByCity[c].length, restaurantSkew);
+            }
+            customerDemand = new ZipfSampler(customers, customerSkew);
+            dishDemand = new ZipfSampler(menuItemsPerRestaurant, 0.8);
+        }
+
+        int[] indicesInCity(int count, long salt, int city) {
+            int[] result = new int[count];
+            int n = 0;
+            for (int i = 0; i < count; i++) {
+                if (city < 0 || cityOf(salt, i) == city) result[n++] = i;
+            }
+            return Arrays.copyOf(result, n);
+        }
+
+        // Scatters Zipf ranks over customer indices so the heaviest customers are not the first rows
+        int customerAt(int rank) {
+            return (int) ((rank * customerStride) % customers);
+        }
+
+        long customerId(int customer) {
+            return userBase + customer;
+        }
+
+        long ownerId(int owner) {
+            return userBase + customers + owner;
+        }
+
+        long agentId(int agent) {
+            return userBase + customers + owners + agent;
+        }
+    }
+
+    private void insertUsers(Plan plan, long from, long to) {
+        List<Object[]> rows = new ArrayList<>();
+        for (long i = from; i < to; i++) {
+            SplittableRandom random = random(SALT_USER, i);
+            String name = pick(FIRST_NAMES, random) + " " + pick(LAST_NAMES, random);
+            Timestamp createdAt = Timestamp.valueOf(plan.now.minusMinutes(random.nextLong(60L * 24 * (days + 365))));
+            Role role;
+            String email;
+            String address = null;
+            Double lat = null;
+            Double lng = null;
+            if (i < plan.customers) {
+                role = Role.CUSTOMER;
+                email = "customer" + i + "@example.com";
+                address = addressOf((int) i);
+            } else if (i < plan.customers + plan.owners) {
+                role = Role.RESTAURANT_OWNER;
+                email = "owner" + (i - plan.customers) + "@example.com";
+            } else {
+                int agent = (int) (i - plan.customers - plan.owners);
+                City city = CITIES[cityOf(SALT_USER + 1, agent)];
+                role = Role.DELIVERY_AGENT;
+                email = "agent" + agent + "@example.com";
+                lat = round(city.lat() + random.nextGaussian() * 0.05, 6);
+                lng = round(city.lng() + random.nextGaussian() * 0.05, 6);
+            }
+            rows.add(new Object[]{plan.userBase + i, name, email, plan.passwordHash,
+                    "9" + String.format("%09d", random.nextInt(1_000_000_000)), address, lat, lng,
+                    role.name(), true, createdAt});
+        }
+        jdbc.batchUpdate("INSERT INTO users (id, name, email, password, phone, address, latitude, longitude, role, active, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private void insertRestaurants(Plan plan, long from, long to) {
+        List<Object[]> rows = new ArrayList<>();
+        for (long i = from; i < to; i++) {
+            int r = (int) i;
+            SplittableRandom random = random(SALT_RESTAURANT, r);
+            City city = CITIES[cityOf(SALT_RESTAURANT, r)];
+            Cuisine cuisine = cuisineOf(r);
+            String name = pick(NAME_PREFIXES, random) + " " + pick(NAME_SUFFIXES, random);
+            rows.add(new Object[]{plan.restaurantBase + r, name,
+                    cuisine.name() + " food in " + city.name(),
+                    (1 + random.nextInt(300)) + " " + pick(STREETS, random) + ", " + city.name(),
+                    "8" + String.format("%09d", random.nextInt(1_000_000_000)),
+                    cuisine.imageUrl(), cuisine.name(), "11:00 AM - 11:00 PM",
+                    round(city.lat() + random.nextGaussian() * 0.08, 6),
+                    round(city.lng() + random.nextGaussian() * 0.08, 6),
+                    0.0, 0, 0L,
+                    20 + 5 * random.nextInt(7), deliveryFee(r), 100.0 + 50 * random.nextInt(4),
+                    3.0 + random.nextInt(6), random.nextDouble() < 0.9,
+                    plan.ownerId(r % plan.owners)});
+        }
+        jdbc.batchUpdate("INSERT INTO restaurants (id, name, description, address, phone, image_url, cuisine, opening_hours, " +
+                "latitude, longitude, rating, review_count, rating_sum, delivery_time, delivery_fee, min_order_amount, " +
+                "delivery_radius_km, open, owner_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private void insertMenuItems(Plan plan, long from, long to) {
+        List<Object[]> rows = new ArrayList<>();
+        for (long i = from; i < to; i++) {
+            int r = (int) (i / menuItemsPerRestaurant);
+            int dish = (int) (i % menuItemsPerRestaurant);
+            Cuisine cuisine = cuisineOf(r);
+            int d = dish % cuisine.dishes().length;
+            String variant = VARIANTS[(dish / cuisine.dishes().length) % VARIANTS.length];
+            SplittableRandom random = random(SALT_MENU, i);
+            rows.add(new Object[]{plan.menuBase + i, variant + cuisine.dishes()[d],
+                    "House " + cuisine.dishes()[d].toLowerCase(), price(r, dish), null,
+                    cuisine.categories()[d], random.nextDouble() < 0.4, random.nextDouble() < 0.95, plan.restaurantBase + r});
+        }
+        jdbc.batchUpdate("INSERT INTO menu_items (id, name, description, price, image_url, category, vegetarian, available, restaurant_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private void insertOrders(Plan plan, long from, long to) {
+        List<Object[]> orders = new ArrayList<>();
+        List<Object[]> items = new ArrayList<>();
+        List<Object[]> reviews = new ArrayList<>();
+        for (long o = from; o < to; o++) {
+            SplittableRandom random = random(SALT_ORDER, o);
+            int customer = plan.customerAt(plan.customerDemand.sample(random));
+            int city = cityOf(SALT_USER, customer);
+            int[] nearby = plan.restaurantsByCity[city];
+            int r = nearby[plan.restaurantDemand[city].sample(random)];
+
+            LocalDateTime createdAt = placedAt(plan, o, random);
+            long ageMinutes = Duration.between(createdAt, plan.now).toMinutes();
+            OrderStatus status = statusForAge(ageMinutes, random);
+
+            Long agentId = null;
+            if (status == OrderStatus.PREPARING || status == OrderStatus.OUT_FOR_DELIVERY || status == OrderStatus.DELIVERED) {
+                int[] cityAgents = plan.agentsByCity[cityOf(SALT_RESTAURANT, r)];
+                int agent = cityAgents.length > 0 ? cityAgents[random.nextInt(cityAgents.length)] : random.nextInt(plan.agents);
+                agentId = plan.agentId(agent);
+            }
+
+            long orderId = plan.orderBase + o;
+            int lines = 1;
+            while (lines < MAX_LINES && random.nextDouble() < 0.45) lines++;
+            int[] dishes = new int[lines];
+            double subtotal = 0;
+            for (int line = 0; line < lines; line++) {
+                int dish = plan.dishDemand.sample(random);
+                // A repeated pick becomes the next dish on the menu so lines stay distinct
+                while (contains(dishes, line, dish) && lines <= menuItemsPerRestaurant) dish = (dish + 1) % menuItemsPerRestaurant;
+                dishes[line] = dish;
+                int quantity = 1 + (random.nextDouble() < 0.25 ? 1 : 0) + (random.nextDouble() < 0.05 ? 1 : 0);
+                double price = price(r, dish);
+                subtotal += price * quantity;
+                items.add(new Object[]{plan.orderItemBase + o * MAX_LINES + line, orderId,
+                        plan.menuBase + (long) r * menuItemsPerRestaurant + dish, quantity, price, price * quantity});
+            }
+
+            double fee = deliveryFee(r);
+            double roll = random.nextDouble();
+            String paymentMethod = roll < 0.35 ? "CASH" : roll < 0.8 ? "UPI" : "CARD";
+            LocalDateTime updatedAt = createdAt.plusMinutes(Math.min(ageMinutes, 20 + random.nextInt(40)));
+            orders.add(new Object[]{orderId, plan.customerId(customer), plan.restaurantBase + r, status.name(),
+                    addressOf(customer), subtotal, fee, subtotal + fee, paymentMethod,
+                    status == OrderStatus.DELIVERED,
+                    random.nextDouble() < 0.05 ? pick(INSTRUCTIONS, random) : null,
+                    agentId, Timestamp.valueOf(createdAt), Timestamp.valueOf(updatedAt)});
+
+            if (status == OrderStatus.DELIVERED && random.nextDouble() < reviewRate) {
+                int rating = (int) Math.max(1, Math.min(5, Math.round(quality(r) + random.nextGaussian() * 0.9)));
+                reviews.add(new Object[]{plan.reviewBase + o, plan.customerId(customer), plan.restaurantBase + r,
+                        rating, REVIEW_COMMENTS[rating - 1], Timestamp.valueOf(updatedAt.plusHours(1))});
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO orders (id, customer_id, restaurant_id, status, delivery_address, subtotal, delivery_fee, " +
+                "total_amount, payment_method, payment_done, special_instructions, delivery_agent_id, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", orders);
+        jdbc.batchUpdate("INSERT INTO order_items (id, order_id, menu_item_id, quantity, price, subtotal) VALUES (?, ?, ?, ?, ?, ?)", items);
+        if (!reviews.isEmpty()) {
+            jdbc.batchUpdate("INSERT INTO reviews (id, customer_id, restaurant_id, rating, comment, created_at) VALUES (?, ?, ?, ?, ?, ?)", reviews);
+        }
+    }
+
+    // Order ids advance day by day across the history; within a day, orders cluster around lunch and dinner
+    private LocalDateTime placedAt(Plan plan, long o, SplittableRandom random) {
+        long day = o * days / Math.max(1, orderCount);
+        double roll = random.nextDouble();
+        double minute = roll < 0.4 ? 12.5 * 60 + random.nextGaussian() * 60
+                : roll < 0.85 ? 20.5 * 60 + random.nextGaussian() * 75
+                : random.nextDouble() * 24 * 60;
+        long minuteOfDay = Math.max(0, Math.min(24 * 60 - 1, Math.round(minute)));
+        LocalDateTime placed = plan.firstDay.plusDays(day).atStartOfDay().plusMinutes(minuteOfDay);
+        return placed.isAfter(plan.now) ? placed.minusDays(1) : placed;
+    }
+
+    private OrderStatus statusForAge(long ageMinutes, SplittableRandom random) {
+        if (ageMinutes < 10) return OrderStatus.PENDING;
+        if (ageMinutes < 20) return OrderStatus.CONFIRMED;
+        if (ageMinutes < 45) return OrderStatus.PREPARING;
+        if (ageMinutes < 90) return OrderStatus.OUT_FOR_DELIVERY;
+        return random.nextDouble() < 0.06 ? OrderStatus.CANCELLED : OrderStatus.DELIVERED;
+    }
+
+    private interface Batch {
+        void insert(long from, long to);
+    }
+
+    private void load(ExecutorService pool, String label, long count, Batch batch) {
+        long started = System.nanoTime();
+        AtomicLong done = new AtomicLong();
+        long step = Math.max(1, count / 10);
+        List<Future<?>> futures = new ArrayList<>();
+        for (long from = 0; from < count; from += batchSize) {
+            long start = from;
+            long end = Math.min(count, from + batchSize);
+            futures.add(pool.submit(() -> {
+                transactionTemplate.executeWithoutResult(status -> batch.insert(start, end));
+                long total = done.addAndGet(end - start);
+                if (total / step != (total - (end - start)) / step) {
+                    log.info("  {}: {}/{}", label, total, count);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Dataset generation interrupted", e);
+            } catch (ExecutionException e) {
+                futures.forEach(f -> f.cancel(true));
+                throw new RuntimeException("Dataset generation failed while loading " + label, e.getCause());
+            }
+        }
+        double seconds = Math.max(1e-3, (System.nanoTime() - started) / 1e9);
+        log.info("Loaded {} {} in {} s ({}/s)", count, label, Math.round(seconds), Math.round(count / seconds));
+    }
+
+    // Generated rows carry explicit ids, so identity columns and sequences must be moved past them
+    private void resetIdGenerators(Plan plan) {
+        String database = jdbc.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        if ("H2".equals(database)) {
+            for (String table : List.of("users", "restaurants", "menu_items", "reviews")) {
+                jdbc.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + nextId(table));
+            }
+            jdbc.execute("ALTER SEQUENCE orders_seq RESTART WITH " + (nextId("orders") + SEQUENCE_HEADROOM));
+            jdbc.execute("ALTER SEQUENCE order_items_seq RESTART WITH " + (nextId("order_items") + SEQUENCE_HEADROOM));
+        } else if ("MySQL".equals(database)) {
+            // AUTO_INCREMENT follows explicit ids on its own; Hibernate emulates sequences with tables
+            jdbc.update("UPDATE orders_seq SET next_val = ?", nextId("orders") + SEQUENCE_HEADROOM);
+            jdbc.update("UPDATE order_items_seq SET next_val = ?", nextId("order_items") + SEQUENCE_HEADROOM);
+        } else {
+            log.warn("Identity columns and sequences were not reset for {}; new rows may collide with generated ids", database);
+        }
+    }
+
+    private long nextId(String table) {
+        Long max = jdbc.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        return max == null ? 1 : max + 1;
+    }
+
+    private SplittableRandom random(long salt, long index) {
+        return new SplittableRandom(mix(seed ^ mix(salt) ^ mix(index + 0x9E3779B97F4A7C15L)));
+    }
+
+    private int cityOf(long salt, int index) {
+        double roll = random(SALT_CITY ^ salt, index).nextDouble();
+        for (int c = 0; c < CITIES.length; c++) {
+            roll -= CITIES[c].weight();
+            if (roll < 0) return c;
+        }
+        return 0;
+    }
+
+    private Cuisine cuisineOf(int restaurant) {
+        return CUISINES[(int) Math.floorMod(mix(seed ^ restaurant * 31L), (long) CUISINES.length)];
+    }
+
+    private double deliveryFee(int restaurant) {
+        return 20 + 10 * Math.floorMod(mix(seed ^ restaurant * 17L), 5L);
+    }
+
+    private double price(int restaurant, int dish) {
+        return 60 + 10 * Math.floorMod(mix(seed ^ ((long) restaurant << 20) ^ dish), 40L);
+    }
+
+    // Some kitchens are simply better; reviews scatter around this
+    private double quality(int restaurant) {
+        return 2.5 + Math.floorMod(mix(seed ^ restaurant * 13L), 26L) / 10.0;
+    }
+
+    private String addressOf(int customer) {
+        SplittableRandom random = random(SALT_USER + 2, customer);
+        return (1 + random.nextInt(500)) + " " + pick(STREETS, random) + ", " + CITIES[cityOf(SALT_USER, customer)].name();
+    }
+
+    private static long coprimeStride(int n) {
+        long stride = 2_654_435_761L % Math.max(1, n);
+        while (n > 1 && gcd(stride, n) != 1) stride++;
+        return Math.max(1, stride);
+    }
+
+    private static long gcd(long a, long b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) return true;
+        }
+        return false;
+    }
+
+    private static String pick(String[] values, SplittableRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static double round(double value, int places) {
+        double scale = Math.pow(10, places);
+        return Math.round(value * scale) / scale;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,38 @@
+package com.fooddelivery.dataset;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Samples ranks 0..n-1 with probability proportional to 1 / (rank + 1)^exponent.
+ * Exponent 0 is uniform; around 1 the head dominates the way the busiest restaurants
+ * and most loyal customers do in real order logs.
+ */
+final class ZipfSampler {
+
+    private final double[] cdf;
+
+    ZipfSampler(int n, double exponent) {
+        if (n <= 0) throw new IllegalArgumentException("Zipf sampler needs at least one rank");
+        cdf = new double[n];
+        double total = 0;
+        for (int k = 0; k < n; k++) {
+            total += 1.0 / Math.pow(k + 1, exponent);
+            cdf[k] = total;
+        }
+        for (int k = 0; k < n; k++) {
+            cdf[k] /= total;
+        }
+    }
+
+    int sample(SplittableRandom random) {
+        int i = Arrays.binarySearch(cdf, random.nextDouble());
+        // binarySearch returns -(insertion point) - 1 on a miss; the insertion point is the rank
+        int rank = i >= 0 ? i : -i - 1;
+        return Math.min(rank, cdf.length - 1);
+    }
+
+    int size() {
+        return cdf.length;
+    }
+}
@@ -0,0 +1,172 @@
+package com.fooddelivery.datasource;
+
+import com.fooddelivery.security.AuthUser;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Sends connections for read-only transactions to a healthy replica, round robin, and everything else to
+ * the primary. A user who has just written keeps reading from the primary for app.datasource.sticky-window,
+ * so they see their own changes despite replication lag. Must sit behind a LazyConnectionDataSourceProxy:
+ * the read-only flag of a transaction is only known once it has begun, after the transaction manager
+ * has asked for a connection.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long stickyNanos;
+    private final Map<Long, Long> stickyUntil = new ConcurrentHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final Map<String, Counter> routed = new HashMap<>();
+
+    private static final class Replica {
+        final String name;
+        final HikariDataSource dataSource;
+        volatile boolean healthy = true;
+
+        Replica(String name, HikariDataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas,
+                                    Duration stickyWindow, MeterRegistry registry) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(ds -> new Replica(ds.getPoolName(), ds)).toList();
+        this.stickyNanos = stickyWindow.toNanos();
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        this.replicas.forEach(r -> targets.put(r.name, r.dataSource));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+
+        for (String reason : List.of("write", "sticky", "pinned", "replica", "no-replica", "failover")) {
+            routed.put(reason, Counter.builder("fooddelivery.datasource.routed")
+                    .description("Connections handed out by the read/write router")
+                    .tag("reason", reason)
+                    .register(registry));
+        }
+    }
+
+    /**
+     * Runs the given reads on the primary. For loads that fill a shared cache, which would otherwise keep
+     * serving whatever a lagging replica returned long after the replica caught up.
+     */
+    public static <T> T onPrimary(Supplier<T> reads) {
+        Boolean previous = FORCE_PRIMARY.get();
+        FORCE_PRIMARY.set(Boolean.TRUE);
+        try {
+            return reads.get();
+        } finally {
+            if (previous == null) FORCE_PRIMARY.remove();
+        }
+    }
+
+    // Replicas that are down at startup are found before the first read is routed to them
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        checkReplicas();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        DataSource target = determineTargetDataSource();
+        try {
+            return target.getConnection();
+        } catch (SQLException e) {
+            Replica replica = replicas.stream().filter(r -> r.dataSource == target).findFirst().orElse(null);
+            if (replica == null) throw e;
+            // Fail the read over rather than the request; the health check brings the replica back
+            replica.healthy = false;
+            log.warn("No connection from replica {}, sending its reads to the primary: {}", replica.name, e.getMessage());
+            routed.get("failover").increment();
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Long userId = currentUserId();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (userId != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+                stickyUntil.put(userId, System.nanoTime() + stickyNanos);
+            }
+            return route("write", PRIMARY);
+        }
+        if (FORCE_PRIMARY.get() != null) return route("pinned", PRIMARY);
+        if (userId != null) {
+            Long until = stickyUntil.get(userId);
+            if (until != null && System.nanoTime() - until < 0) return route("sticky", PRIMARY);
+        }
+
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) return route("replica", replica.name);
+        }
+        return route("no-replica", PRIMARY);
+    }
+
+    // A replica that fails the check gets no reads until it passes again
+    @Scheduled(fixedDelayString = "${app.datasource.replica-check-ms:5000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                healthy = connection.isValid(2);
+            } catch (Exception e) {
+                healthy = false;
+            }
+            if (healthy != replica.healthy) {
+                if (healthy) log.info("Replica {} is healthy again, resuming reads", replica.name);
+                else log.warn("Replica {} failed its health check, sending its reads to the primary", replica.name);
+                replica.healthy = healthy;
+            }
+        }
+
+        long now = System.nanoTime();
+        stickyUntil.values().removeIf(until -> now - until >= 0);
+    }
+
+    public void close() {
+        replicas.forEach(r -> r.dataSource.close());
+    }
+
+    private String route(String reason, String key) {
+        routed.get(reason).increment();
+        return key;
+    }
+
+    private static Long currentUserId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.getPrincipal() instanceof AuthUser user ? user.getId() : null;
+    }
+}
@@ -0,0 +1,139 @@
+package com.fooddelivery.dispatch;
+
+import com.fooddelivery.geo.GeoUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * In-memory grid of delivery agent positions.
+ * The map is cut into fixed lat/lng cells and only idle agents are bucketed by cell.
+ * A nearest-agent lookup walks rings of cells outward from the pickup point and stops as soon as
+ * no unvisited ring can hold anyone closer than the best match found so far.
+ */
+@Component
+public class AgentLocationIndex {
+
+    // Roughly 1.1 km north-south per cell
+    private static final double CELL_DEG = 0.01;
+
+    private final Map<Long, Position> positions = new HashMap<>();
+    private final Map<Long, Set<Long>> idleByCell = new HashMap<>();
+    private final Set<Long> busy = new HashSet<>();
+
+    private record Position(double lat, double lng, long cell, boolean available) {}
+
+    public record Match(Long agentId, double distanceKm) {}
+
+    public synchronized void update(Long agentId, double lat, double lng, boolean available) {
+        unbucket(agentId);
+        Position position = new Position(lat, lng, cellOf(lat, lng), available);
+        positions.put(agentId, position);
+        if (available && !busy.contains(agentId)) {
+            idleByCell.computeIfAbsent(position.cell(), k -> new HashSet<>()).add(agentId);
+        }
+    }
+
+    public synchronized void remove(Long agentId) {
+        unbucket(agentId);
+        positions.remove(agentId);
+        busy.remove(agentId);
+    }
+
+    public synchronized void markBusy(Long agentId) {
+        unbucket(agentId);
+        busy.add(agentId);
+    }
+
+    public synchronized void markIdle(Long agentId) {
+        busy.remove(agentId);
+        Position position = positions.get(agentId);
+        if (position != null && position.available()) {
+            idleByCell.computeIfAbsent(position.cell(), k -> new HashSet<>()).add(agentId);
+        }
+    }
+
+    // Finds the closest idle agent within the radius and marks them busy in the same step
+    public synchronized Optional<Match> claimNearest(double lat, double lng, double maxRadiusKm) {
+        int row = (int) Math.floor(lat / CELL_DEG);
+        int col = (int) Math.floor(lng / CELL_DEG);
+        // East-west cells shrink with latitude, so that side bounds how far away a ring is guaranteed to be
+        double cellKm = CELL_DEG * GeoUtils.KM_PER_DEGREE_LAT * Math.max(0.01, Math.cos(Math.toRadians(lat)));
+        int maxRing = (int) Math.ceil(maxRadiusKm / cellKm) + 1;
+
+        Nearest nearest = new Nearest(lat, lng, maxRadiusKm);
+        for (int r = 0; r <= maxRing; r++) {
+            if (nearest.agentId != null && nearest.km <= (r - 1) * cellKm) break;
+            if (r == 0) {
+                scanCell(row, col, nearest);
+                continue;
+            }
+            for (int d = -r; d <= r; d++) {
+                scanCell(row - r, col + d, nearest);
+                scanCell(row + r, col + d, nearest);
+            }
+            for (int d = -r + 1; d < r; d++) {
+                scanCell(row + d, col - r, nearest);
+                scanCell(row + d, col + r, nearest);
+            }
+        }
+
+        if (nearest.agentId == null) return Optional.empty();
+        markBusy(nearest.agentId);
+        return Optional.of(new Match(nearest.agentId, nearest.km));
+    }
+
+    public synchronized int trackedCount() {
+        return positions.size();
+    }
+
+    public synchronized int idleCount() {
+        return idleByCell.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private static final class Nearest {
+        final double lat, lng, maxRadiusKm;
+        Long agentId;
+        double km = Double.MAX_VALUE;
+
+        Nearest(double lat, double lng, double maxRadiusKm) {
+            this.lat = lat;
+            this.lng = lng;
+            this.maxRadiusKm = maxRadiusKm;
+        }
+    }
+
+    private void scanCell(int row, int col, Nearest nearest) {
+        Set<Long> agents = idleByCell.get(key(row, col));
+        if (agents == null) return;
+        for (Long agentId : agents) {
+            Position p = positions.get(agentId);
+            double km = GeoUtils.distanceKm(nearest.lat, nearest.lng, p.lat(), p.lng());
+            if (km <= nearest.maxRadiusKm && km < nearest.km) {
+                nearest.km = km;
+                nearest.agentId = agentId;
+            }
+        }
+    }
+
+    private void unbucket(Long agentId) {
+        Position position = positions.get(agentId);
+        if (position == null) return;
+        Set<Long> agents = idleByCell.get(position.cell());
+        if (agents != null && agents.remove(agentId) && agents.isEmpty()) {
+            idleByCell.remove(position.cell());
+        }
+    }
+
+    private static long cellOf(double lat, double lng) {
+        return key((int) Math.floor(lat / CELL_DEG), (int) Math.floor(lng / CELL_DEG));
+    }
+
+    private static long key(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+}
@@ -0,0 +1,26 @@
+package com.fooddelivery.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+public class AgentDto {
+
+    @Data
+    public static class LocationUpdate {
+        @NotNull @DecimalMin("-90") @DecimalMax("90")
+        private Double latitude;
+        @NotNull @DecimalMin("-180") @DecimalMax("180")
+        private Double longitude;
+        // Agents going off shift keep reporting their position but are not dispatched to
+        private boolean available = true;
+    }
+
+    @Data
+    public static class DispatchStats {
+        private int agentsTracked;
+        private int agentsIdle;
+        private double maxRadiusKm;
+    }
+}
@@ -0,0 +1,51 @@
+package com.fooddelivery.dto;
+
+import com.fooddelivery.enums.RollupGranularity;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class AnalyticsDto {
+
+    @Data
+    public static class Bucket {
+        private LocalDateTime start;
+        private long orders;
+        private long delivered;
+        private long cancelled;
+        private double revenue;
+        private double averageBasket;
+        private double cancellationRate;
+    }
+
+    @Data
+    public static class Series {
+        private RollupGranularity granularity;
+        private LocalDateTime from;
+        private LocalDateTime to;
+        private Long restaurantId;
+        private Bucket totals;
+        private List<Bucket> buckets;
+    }
+
+    @Data
+    public static class RestaurantTotals {
+        private Long restaurantId;
+        private String restaurantName;
+        private long orders;
+        private long delivered;
+        private long cancelled;
+        private double revenue;
+        private double averageBasket;
+        private double cancellationRate;
+    }
+
+    @Data
+    public static class BackfillResult {
+        private LocalDate from;
+        private LocalDate to;
+        private int rows;
+    }
+}
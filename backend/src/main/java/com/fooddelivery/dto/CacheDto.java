@@ -0,0 +1,19 @@
+package com.fooddelivery.dto;
+
+import lombok.Data;
+
+public class CacheDto {
+
+    @Data
+    public static class Stats {
+        private String name;
+        private long version;
+        private int entries;
+        private int maxEntries;
+        private int listsCached;
+        private long hits;
+        private long misses;
+        private long evictions;
+        private double hitRatio;
+    }
+}
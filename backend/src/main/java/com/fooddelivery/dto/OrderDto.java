@@ -47,6 +47,7 @@ public class OrderDto {
         private String customerName;
         private Long restaurantId;
         private String restaurantName;
+        private Long deliveryAgentId;
         private List<OrderItemResponse> orderItems;
         private OrderStatus status;
         private String deliveryAddress;
@@ -58,5 +59,31 @@ public class OrderDto {
         private String specialInstructions;
         private LocalDateTime createdAt;
         private LocalDateTime updatedAt;
+        private LocalDateTime estimatedDeliveryAt;
+    }
+
+    @Data
+    public static class PageResponse {
+        private List<Response> orders;
+        private String nextCursor;
+    }
+
+    @Data
+    public static class StatusEvent {
+        private Long orderId;
+        private OrderStatus status;
+        private Long customerId;
+        private Long restaurantId;
+        private Long deliveryAgentId;
+        private LocalDateTime updatedAt;
+    }
+
+    @Data
+    public static class ConflictResponse {
+        private Long orderId;
+        private OrderStatus currentStatus;
+        private OrderStatus requestedStatus;
+        private String reason;
+        private String message;
     }
 }
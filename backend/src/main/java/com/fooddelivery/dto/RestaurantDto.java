@@ -1,7 +1,13 @@
 package com.fooddelivery.dto;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.With;
 
 public class RestaurantDto {
 
@@ -15,12 +21,21 @@ public class RestaurantDto {
         private String imageUrl;
         private String cuisine;
         private String openingHours;
+        // Required: nearby search, delivery radius and dispatch all start from the restaurant's location
+        @NotNull @DecimalMin("-90") @DecimalMax("90")
+        private Double latitude;
+        @NotNull @DecimalMin("-180") @DecimalMax("180")
+        private Double longitude;
         private int deliveryTime = 30;
         private double deliveryFee = 30.0;
         private double minOrderAmount = 100.0;
+        @DecimalMin("0.5") @DecimalMax("50")
+        private double deliveryRadiusKm = 5.0;
     }
 
     @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
     public static class Response {
         private Long id;
         private String name;
@@ -30,12 +45,33 @@ public class RestaurantDto {
         private String imageUrl;
         private String cuisine;
         private String openingHours;
+        private Double latitude;
+        private Double longitude;
         private double rating;
         private int reviewCount;
         private int deliveryTime;
         private double deliveryFee;
         private double minOrderAmount;
+        private double deliveryRadiusKm;
         private boolean open;
         private Long ownerId;
+        // Live estimate from kitchen load; cached responses are copied with it filled in on the way out
+        @With
+        private Integer estimatedDeliveryMinutes;
+    }
+
+    @Data
+    public static class KitchenLoad {
+        private Long restaurantId;
+        private String restaurantName;
+        private double arrivalsPerHour;
+        private int waiting;
+        private int cooking;
+        private int kitchenCapacity;
+        private int prepareSamples;
+        private int deliverySamples;
+        private double avgPrepareMinutes;
+        private double avgDeliveryMinutes;
+        private int estimatedDeliveryMinutes;
     }
 }
@@ -7,7 +7,10 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "menu_items")
+@Table(name = "menu_items", indexes = {
+        @Index(name = "idx_menu_items_restaurant_available", columnList = "restaurant_id, available"),
+        @Index(name = "idx_menu_items_restaurant_category", columnList = "restaurant_id, category")
+})
 @Data
 @Builder
 @NoArgsConstructor
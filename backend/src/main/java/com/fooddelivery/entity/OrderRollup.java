@@ -0,0 +1,48 @@
+package com.fooddelivery.entity;
+
+import com.fooddelivery.enums.RollupGranularity;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Order totals per restaurant and hour or day of placement, maintained by OrderRollupWriter
+@Entity
+@Table(name = "order_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_order_rollups_bucket",
+                columnNames = {"bucket_start", "granularity", "restaurant_id"}),
+        indexes = @Index(name = "idx_order_rollups_restaurant", columnList = "restaurant_id, granularity, bucket_start"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_rollups_seq")
+    @SequenceGenerator(name = "order_rollups_seq", sequenceName = "order_rollups_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "restaurant_id", nullable = false)
+    private Long restaurantId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private RollupGranularity granularity;
+
+    @Column(nullable = false)
+    private LocalDateTime bucketStart;
+
+    private long orderCount;
+    private long deliveredCount;
+    private long cancelledCount;
+
+    // Sum of item subtotals of the placed orders, for the average basket
+    private double basketAmount;
+
+    // Sum of order totals once delivered
+    private double revenue;
+}
@@ -9,7 +9,7 @@ import lombok.NoArgsConstructor;
 import java.util.List;
 
 @Entity
-@Table(name = "restaurants")
+@Table(name = "restaurants", indexes = @Index(name = "idx_restaurants_owner", columnList = "owner_id"))
 @Data
 @Builder
 @NoArgsConstructor
@@ -30,12 +30,24 @@ public class Restaurant {
     private String cuisine;
     private String openingHours;
 
+    private Double latitude;
+    private Double longitude;
+
+    // The rating aggregates are only written by RestaurantRepository.addRating and rebuildRatings; saving the
+    // entity must not put back values read before a concurrent review
     @Builder.Default
+    @Column(updatable = false)
     private double rating = 0.0;
 
     @Builder.Default
+    @Column(updatable = false)
     private int reviewCount = 0;
 
+    // Running total of review ratings; rating is kept as ratingSum / reviewCount rounded to one decimal
+    @Builder.Default
+    @Column(updatable = false)
+    private long ratingSum = 0;
+
     @Builder.Default
     private int deliveryTime = 30;
 
@@ -45,6 +57,9 @@ public class Restaurant {
     @Builder.Default
     private double minOrderAmount = 100.0;
 
+    @Builder.Default
+    private double deliveryRadiusKm = 5.0;
+
     @Builder.Default
     private boolean open = true;
 
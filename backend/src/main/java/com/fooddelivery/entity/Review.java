@@ -9,7 +9,10 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reviews")
+@Table(name = "reviews", indexes = {
+        @Index(name = "idx_reviews_restaurant_created", columnList = "restaurant_id, created_at"),
+        @Index(name = "idx_reviews_customer", columnList = "customer_id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -10,7 +10,7 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = @Index(name = "idx_users_role_active", columnList = "role, active"))
 @Data
 @Builder
 @NoArgsConstructor
@@ -33,6 +33,10 @@ public class User {
     private String phone;
     private String address;
 
+    // Last reported position; only kept for delivery agents
+    private Double latitude;
+    private Double longitude;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private Role role;
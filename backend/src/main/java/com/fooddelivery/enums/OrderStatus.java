@@ -1,10 +1,32 @@
 package com.fooddelivery.enums;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum OrderStatus {
     PENDING,
     CONFIRMED,
     PREPARING,
     OUT_FOR_DELIVERY,
     DELIVERED,
-    CANCELLED
+    CANCELLED;
+
+    public Set<OrderStatus> nextStatuses() {
+        return switch (this) {
+            case PENDING -> EnumSet.of(CONFIRMED, CANCELLED);
+            case CONFIRMED -> EnumSet.of(PREPARING, CANCELLED);
+            case PREPARING -> EnumSet.of(OUT_FOR_DELIVERY);
+            case OUT_FOR_DELIVERY -> EnumSet.of(DELIVERED);
+            case DELIVERED, CANCELLED -> EnumSet.noneOf(OrderStatus.class);
+        };
+    }
+
+    // The statuses an order may be in for a move to this one to be legal
+    public Set<OrderStatus> previousStatuses() {
+        Set<OrderStatus> sources = EnumSet.noneOf(OrderStatus.class);
+        for (OrderStatus s : values()) {
+            if (s.nextStatuses().contains(this)) sources.add(s);
+        }
+        return sources;
+    }
 }
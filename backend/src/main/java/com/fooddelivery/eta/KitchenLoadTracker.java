@@ -0,0 +1,239 @@
+package com.fooddelivery.eta;
+
+import com.fooddelivery.dto.RestaurantDto;
+import com.fooddelivery.enums.OrderStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rolling-window view of each restaurant's kitchen, fed by order status transitions.
+ * Tracks order arrivals, how many orders are waiting (CONFIRMED) or cooking (PREPARING),
+ * how long cooking and delivery took over the window, and how many orders the kitchen
+ * has been seen cooking at once. Delivery estimates are derived from these numbers alone.
+ */
+@Component
+public class KitchenLoadTracker {
+
+    private static final int MAX_SAMPLES = 1000;
+    // Without samples, the owner's static delivery time is split this way between kitchen and road
+    private static final double DEFAULT_PREPARE_SHARE = 0.6;
+    // The default counts as this many samples, so a handful of odd orders can't swing the estimate
+    private static final int PRIOR_SAMPLES = 5;
+
+    private final long windowMillis;
+
+    // Guarded by its own monitor. Every synchronized (k) block only does arithmetic on in-memory
+    // windows, never I/O or a lock wait, so it cannot pin a virtual thread's carrier while parked.
+    private final Map<Long, Kitchen> kitchens = new ConcurrentHashMap<>();
+    private final Map<Long, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    public KitchenLoadTracker(@Value("${app.eta.window-minutes:60}") long windowMinutes) {
+        this.windowMillis = windowMinutes * 60_000;
+    }
+
+    private record InFlight(Long restaurantId, OrderStatus status, long enteredAt) {}
+
+    private record Sample(long at, long value) {}
+
+    // Time-ordered samples with a running sum, so averages cost nothing to read
+    private static final class Window {
+        final ArrayDeque<Sample> samples = new ArrayDeque<>();
+        long sum;
+
+        void add(long at, long value) {
+            if (samples.size() == MAX_SAMPLES) sum -= samples.pollFirst().value();
+            samples.addLast(new Sample(at, value));
+            sum += value;
+        }
+
+        void prune(long cutoff) {
+            while (!samples.isEmpty() && samples.peekFirst().at() < cutoff) sum -= samples.pollFirst().value();
+        }
+
+        int size() {
+            return samples.size();
+        }
+
+        double mean(double prior) {
+            return (sum + prior * PRIOR_SAMPLES) / (samples.size() + PRIOR_SAMPLES);
+        }
+    }
+
+    private static final class Kitchen {
+        final Window arrivals = new Window();
+        final Window prepareMillis = new Window();
+        final Window deliveryMillis = new Window();
+        // Cooking levels kept in decreasing order: the head is the peak within the window
+        final ArrayDeque<Sample> cookingPeaks = new ArrayDeque<>();
+        int waiting;
+        int cooking;
+    }
+
+    // Applied once the surrounding transaction commits, so rolled-back transitions are never counted
+    public void record(Long orderId, Long restaurantId, OrderStatus status) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(orderId, restaurantId, status, System.currentTimeMillis(), true);
+                }
+            });
+        } else {
+            apply(orderId, restaurantId, status, System.currentTimeMillis(), true);
+        }
+    }
+
+    // Re-enters an order that was already in flight at startup, without counting it as a new arrival
+    public void restore(Long orderId, Long restaurantId, OrderStatus status, LocalDateTime since) {
+        apply(orderId, restaurantId, status, toMillis(since), false);
+    }
+
+    public int estimateMinutes(RestaurantDto.Response restaurant) {
+        Kitchen k = kitchens.get(restaurant.getId());
+        if (k == null) {
+            return restaurant.getDeliveryTime();
+        }
+        long now = System.currentTimeMillis();
+        synchronized (k) {
+            prune(k, now);
+            double millis = kitchenMillis(k, restaurant.getDeliveryTime()) + deliveryMillis(k, restaurant.getDeliveryTime());
+            return (int) Math.max(1, Math.round(toMinutes(millis)));
+        }
+    }
+
+    public LocalDateTime estimateDeliveredAt(Long orderId, Long restaurantId, OrderStatus status,
+                                             int defaultDeliveryMinutes, LocalDateTime lastChange) {
+        if (status == OrderStatus.DELIVERED || status == OrderStatus.CANCELLED) return null;
+
+        long now = System.currentTimeMillis();
+        InFlight order = inFlight.get(orderId);
+        long enteredAt = order != null && order.status() == status ? order.enteredAt() : toMillis(lastChange);
+        Kitchen k = kitchens.computeIfAbsent(restaurantId, id -> new Kitchen());
+
+        long eta;
+        synchronized (k) {
+            prune(k, now);
+            double prepare = prepareMillis(k, defaultDeliveryMinutes);
+            double delivery = deliveryMillis(k, defaultDeliveryMinutes);
+            eta = switch (status) {
+                case PENDING, CONFIRMED -> now + (long) (kitchenMillis(k, defaultDeliveryMinutes) + delivery);
+                case PREPARING -> Math.max(now, enteredAt + (long) prepare) + (long) delivery;
+                default -> Math.max(now, enteredAt + (long) delivery);
+            };
+        }
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(eta), ZoneId.systemDefault());
+    }
+
+    public RestaurantDto.KitchenLoad load(RestaurantDto.Response restaurant) {
+        RestaurantDto.KitchenLoad load = new RestaurantDto.KitchenLoad();
+        load.setRestaurantId(restaurant.getId());
+        load.setRestaurantName(restaurant.getName());
+        Kitchen k = kitchens.get(restaurant.getId());
+        if (k != null) {
+            long now = System.currentTimeMillis();
+            synchronized (k) {
+                prune(k, now);
+                load.setArrivalsPerHour(k.arrivals.size() * 3_600_000.0 / windowMillis);
+                load.setWaiting(k.waiting);
+                load.setCooking(k.cooking);
+                load.setKitchenCapacity(capacity(k));
+                load.setPrepareSamples(k.prepareMillis.size());
+                load.setDeliverySamples(k.deliveryMillis.size());
+                load.setAvgPrepareMinutes(toMinutes(prepareMillis(k, restaurant.getDeliveryTime())));
+                load.setAvgDeliveryMinutes(toMinutes(deliveryMillis(k, restaurant.getDeliveryTime())));
+            }
+        }
+        load.setEstimatedDeliveryMinutes(estimateMinutes(restaurant));
+        return load;
+    }
+
+    // An order never changes restaurant, so its kitchen's monitor also guards its in-flight entry:
+    // the check, the counters and the entry all change together, and a repeated transition counts once
+    private void apply(Long orderId, Long restaurantId, OrderStatus status, long at, boolean live) {
+        Kitchen k = kitchens.computeIfAbsent(restaurantId, id -> new Kitchen());
+        synchronized (k) {
+            InFlight previous = inFlight.get(orderId);
+            if (previous != null && previous.status() == status) return;
+
+            if (previous == null && status == OrderStatus.PENDING && live) {
+                k.arrivals.add(at, 1);
+            }
+            if (previous != null) {
+                leave(k, previous.status());
+                long spent = at - previous.enteredAt();
+                if (previous.status() == OrderStatus.PREPARING && status == OrderStatus.OUT_FOR_DELIVERY && live) {
+                    k.prepareMillis.add(at, spent);
+                } else if (previous.status() == OrderStatus.OUT_FOR_DELIVERY && status == OrderStatus.DELIVERED && live) {
+                    k.deliveryMillis.add(at, spent);
+                }
+            }
+            enter(k, status);
+            while (!k.cookingPeaks.isEmpty() && k.cookingPeaks.peekLast().value() <= k.cooking) k.cookingPeaks.pollLast();
+            k.cookingPeaks.addLast(new Sample(at, k.cooking));
+            prune(k, System.currentTimeMillis());
+
+            if (status == OrderStatus.DELIVERED || status == OrderStatus.CANCELLED) {
+                inFlight.remove(orderId);
+            } else {
+                inFlight.put(orderId, new InFlight(restaurantId, status, at));
+            }
+        }
+    }
+
+    private static void enter(Kitchen k, OrderStatus status) {
+        if (status == OrderStatus.CONFIRMED) k.waiting++;
+        else if (status == OrderStatus.PREPARING) k.cooking++;
+    }
+
+    private static void leave(Kitchen k, OrderStatus status) {
+        if (status == OrderStatus.CONFIRMED) k.waiting = Math.max(0, k.waiting - 1);
+        else if (status == OrderStatus.PREPARING) k.cooking = Math.max(0, k.cooking - 1);
+    }
+
+    // Time until a new order would leave the kitchen: wait for a free slot behind everyone queued, then cook
+    private double kitchenMillis(Kitchen k, int defaultMinutes) {
+        double prepare = prepareMillis(k, defaultMinutes);
+        int capacity = capacity(k);
+        int ahead = Math.max(0, k.waiting + k.cooking - capacity + 1);
+        return prepare + prepare * ahead / capacity;
+    }
+
+    private double prepareMillis(Kitchen k, int defaultMinutes) {
+        return k.prepareMillis.mean(defaultMinutes * DEFAULT_PREPARE_SHARE * 60_000);
+    }
+
+    private double deliveryMillis(Kitchen k, int defaultMinutes) {
+        return k.deliveryMillis.mean(defaultMinutes * (1 - DEFAULT_PREPARE_SHARE) * 60_000);
+    }
+
+    // The most orders seen cooking at once within the window, as a stand-in for how many the kitchen can handle
+    private static int capacity(Kitchen k) {
+        long peak = k.cookingPeaks.isEmpty() ? 0 : k.cookingPeaks.peekFirst().value();
+        return (int) Math.max(1, Math.max(peak, k.cooking));
+    }
+
+    private void prune(Kitchen k, long now) {
+        long cutoff = now - windowMillis;
+        k.arrivals.prune(cutoff);
+        k.prepareMillis.prune(cutoff);
+        k.deliveryMillis.prune(cutoff);
+        while (!k.cookingPeaks.isEmpty() && k.cookingPeaks.peekFirst().at() < cutoff) k.cookingPeaks.pollFirst();
+    }
+
+    private static double toMinutes(double millis) {
+        return millis / 60_000.0;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time == null ? System.currentTimeMillis() : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,43 @@
+package com.fooddelivery.exception;
+
+import com.fooddelivery.enums.OrderStatus;
+import lombok.Getter;
+
+@Getter
+public class OrderStateConflictException extends RuntimeException {
+
+    public enum Reason {
+        // The order is no longer in a status the requested one can follow
+        INVALID_TRANSITION,
+        // The status allowed it, but another delivery agent holds the order
+        ASSIGNED_TO_ANOTHER_AGENT
+    }
+
+    private final Long orderId;
+    private final OrderStatus currentStatus;
+    private final OrderStatus requestedStatus;
+    private final Reason reason;
+
+    public OrderStateConflictException(Long orderId, OrderStatus currentStatus, OrderStatus requestedStatus) {
+        super("Order " + orderId + " cannot move from " + currentStatus + " to " + requestedStatus);
+        this.orderId = orderId;
+        this.currentStatus = currentStatus;
+        this.requestedStatus = requestedStatus;
+        this.reason = Reason.INVALID_TRANSITION;
+    }
+
+    private OrderStateConflictException(Long orderId, OrderStatus currentStatus, OrderStatus requestedStatus,
+                                        Reason reason, String message) {
+        super(message);
+        this.orderId = orderId;
+        this.currentStatus = currentStatus;
+        this.requestedStatus = requestedStatus;
+        this.reason = reason;
+    }
+
+    public static OrderStateConflictException assignedToAnotherAgent(Long orderId, OrderStatus currentStatus,
+                                                                     OrderStatus requestedStatus) {
+        return new OrderStateConflictException(orderId, currentStatus, requestedStatus,
+                Reason.ASSIGNED_TO_ANOTHER_AGENT, "Order " + orderId + " is assigned to another agent");
+    }
+}
@@ -0,0 +1,20 @@
+package com.fooddelivery.exception;
+
+import lombok.Getter;
+
+// Only thrown with app.sql-budget.strict=true, when an endpoint's statements grow with the rows it returns
+@Getter
+public class SqlBudgetExceededException extends RuntimeException {
+
+    private final String endpoint;
+    private final int rows;
+    private final int statements;
+
+    public SqlBudgetExceededException(String endpoint, int rows, int statements, int baselineRows, int baselineStatements) {
+        super(endpoint + " ran " + statements + " SQL statements for " + rows + " rows, against " + baselineStatements
+                + " for " + baselineRows + " rows: the statement count grows with the result (N+1)");
+        this.endpoint = endpoint;
+        this.rows = rows;
+        this.statements = statements;
+    }
+}
@@ -0,0 +1,60 @@
+package com.fooddelivery.geo;
+
+/**
+ * Standard base32 geohash, exposed in terms of its integer cell grid so callers can
+ * enumerate neighbouring cells without string manipulation.
+ */
+public final class Geohash {
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+
+    private Geohash() {}
+
+    public static String encode(double lat, double lng, int precision) {
+        return fromCell(latIndex(lat, precision), lngIndex(lng, precision), precision);
+    }
+
+    // Geohash bits alternate starting with longitude, so longitude gets the extra bit on odd totals
+    public static int latBits(int precision) {
+        return 5 * precision / 2;
+    }
+
+    public static int lngBits(int precision) {
+        return (5 * precision + 1) / 2;
+    }
+
+    public static double cellHeightDeg(int precision) {
+        return 180.0 / (1L << latBits(precision));
+    }
+
+    public static double cellWidthDeg(int precision) {
+        return 360.0 / (1L << lngBits(precision));
+    }
+
+    public static long latIndex(double lat, int precision) {
+        long cells = 1L << latBits(precision);
+        return Math.max(0, Math.min(cells - 1, (long) Math.floor((lat + 90.0) / 180.0 * cells)));
+    }
+
+    // Wraps around the antimeridian so callers can step past +/-180 freely
+    public static long lngIndex(double lng, int precision) {
+        long cells = 1L << lngBits(precision);
+        return Math.floorMod((long) Math.floor((lng + 180.0) / 360.0 * cells), cells);
+    }
+
+    public static String fromCell(long latIndex, long lngIndex, int precision) {
+        int latBit = latBits(precision) - 1;
+        int lngBit = lngBits(precision) - 1;
+        lngIndex = Math.floorMod(lngIndex, 1L << lngBits(precision));
+        char[] hash = new char[precision];
+        for (int c = 0, bit = 0; c < precision; c++) {
+            int value = 0;
+            for (int i = 0; i < 5; i++, bit++) {
+                long b = (bit % 2 == 0) ? (lngIndex >> lngBit--) & 1 : (latIndex >> latBit--) & 1;
+                value = (value << 1) | (int) b;
+            }
+            hash[c] = BASE32[value];
+        }
+        return new String(hash);
+    }
+}
@@ -0,0 +1,124 @@
+package com.fooddelivery.geo;
+
+import com.fooddelivery.dto.RestaurantDto;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Geohash index of restaurant delivery areas.
+ * Each restaurant is registered under every precision-5 cell (about 5 km across) that its delivery
+ * circle touches, so a lookup reads the single cell containing the customer and only runs an exact
+ * distance check on the restaurants listed there, however many cities are indexed.
+ */
+@Component
+public class RestaurantGeoIndex {
+
+    private static final int PRECISION = 5;
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<String, Set<Long>> cells = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private record Entry(RestaurantDto.Response restaurant, List<String> cells) {}
+
+    private record Hit(RestaurantDto.Response restaurant, double distanceKm) {}
+
+    public void rebuild(Collection<RestaurantDto.Response> restaurants) {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            cells.clear();
+            restaurants.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void upsert(RestaurantDto.Response restaurant) {
+        lock.writeLock().lock();
+        try {
+            remove(restaurant.getId());
+            add(restaurant);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void delete(Long restaurantId) {
+        lock.writeLock().lock();
+        try {
+            remove(restaurantId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Open restaurants whose delivery area covers the point, nearest first and better rated on ties
+    public List<RestaurantDto.Response> nearby(double lat, double lng) {
+        List<Hit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Set<Long> ids = cells.get(Geohash.encode(lat, lng, PRECISION));
+            if (ids == null) return List.of();
+            for (Long id : ids) {
+                RestaurantDto.Response r = entries.get(id).restaurant();
+                if (!r.isOpen()) continue;
+                double km = GeoUtils.distanceKm(lat, lng, r.getLatitude(), r.getLongitude());
+                if (km <= r.getDeliveryRadiusKm()) hits.add(new Hit(r, km));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        hits.sort(Comparator.comparingDouble(Hit::distanceKm)
+                .thenComparing(h -> h.restaurant().getRating(), Comparator.reverseOrder()));
+        return hits.stream().map(Hit::restaurant).toList();
+    }
+
+    private void add(RestaurantDto.Response r) {
+        if (r.getLatitude() == null || r.getLongitude() == null || r.getDeliveryRadiusKm() <= 0) return;
+        List<String> covered = coveringCells(r.getLatitude(), r.getLongitude(), r.getDeliveryRadiusKm());
+        for (String cell : covered) {
+            cells.computeIfAbsent(cell, k -> new HashSet<>()).add(r.getId());
+        }
+        entries.put(r.getId(), new Entry(r, covered));
+    }
+
+    private void remove(Long restaurantId) {
+        Entry old = entries.remove(restaurantId);
+        if (old == null) return;
+        for (String cell : old.cells()) {
+            Set<Long> ids = cells.get(cell);
+            if (ids != null && ids.remove(restaurantId) && ids.isEmpty()) {
+                cells.remove(cell);
+            }
+        }
+    }
+
+    // Every cell in the circle's bounding box whose rectangle actually reaches into the circle
+    private static List<String> coveringCells(double lat, double lng, double radiusKm) {
+        double dLat = radiusKm / GeoUtils.KM_PER_DEGREE_LAT;
+        double dLng = Math.min(180.0, radiusKm / (GeoUtils.KM_PER_DEGREE_LAT * Math.max(0.01, Math.cos(Math.toRadians(lat)))));
+        double height = Geohash.cellHeightDeg(PRECISION);
+        double width = Geohash.cellWidthDeg(PRECISION);
+
+        long latFrom = Geohash.latIndex(lat - dLat, PRECISION), latTo = Geohash.latIndex(lat + dLat, PRECISION);
+        long lngFrom = (long) Math.floor((lng - dLng + 180.0) / width);
+        long lngTo = (long) Math.floor((lng + dLng + 180.0) / width);
+
+        List<String> covered = new ArrayList<>();
+        for (long y = latFrom; y <= latTo; y++) {
+            double south = y * height - 90.0;
+            double nearestLat = Math.max(south, Math.min(lat, south + height));
+            for (long x = lngFrom; x <= lngTo; x++) {
+                double west = x * width - 180.0;
+                double nearestLng = Math.max(west, Math.min(lng, west + width));
+                if (GeoUtils.distanceKm(lat, lng, nearestLat, nearestLng) <= radiusKm) {
+                    covered.add(Geohash.fromCell(y, x, PRECISION));
+                }
+            }
+        }
+        return covered;
+    }
+}
@@ -0,0 +1,81 @@
+package com.fooddelivery.metrics;
+
+import com.fooddelivery.enums.OrderStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Order and login counters. Order counts are taken after the transaction commits, so a rolled-back
+ * order or a lost status race is never counted.
+ */
+@Component
+public class BusinessMetrics {
+
+    private final Counter ordersPlaced;
+    private final DistributionSummary orderAmount;
+    private final Map<OrderStatus, Counter> statusChanges = new EnumMap<>(OrderStatus.class);
+    private final Counter loginSuccess;
+    private final Counter loginFailure;
+
+    public BusinessMetrics(MeterRegistry registry) {
+        ordersPlaced = Counter.builder("fooddelivery.orders.placed")
+                .description("Orders placed")
+                .register(registry);
+        orderAmount = DistributionSummary.builder("fooddelivery.orders.amount")
+                .description("Total amount of placed orders")
+                .baseUnit("rupees")
+                .register(registry);
+        // Registered up front so every status is exported, including ones not reached yet
+        for (OrderStatus status : OrderStatus.values()) {
+            statusChanges.put(status, Counter.builder("fooddelivery.orders.status")
+                    .description("Orders that entered a status")
+                    .tag("status", status.name())
+                    .register(registry));
+        }
+        loginSuccess = loginCounter(registry, "success");
+        loginFailure = loginCounter(registry, "failure");
+    }
+
+    public void orderPlaced(double totalAmount) {
+        afterCommit(() -> {
+            ordersPlaced.increment();
+            orderAmount.record(totalAmount);
+            statusChanges.get(OrderStatus.PENDING).increment();
+        });
+    }
+
+    public void orderStatusChanged(OrderStatus status) {
+        afterCommit(() -> statusChanges.get(status).increment());
+    }
+
+    public void login(boolean success) {
+        (success ? loginSuccess : loginFailure).increment();
+    }
+
+    private static Counter loginCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("fooddelivery.auth.logins")
+                .description("Login attempts")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.fooddelivery.metrics;
+
+import com.fooddelivery.cache.RestaurantCatalogCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+// The restaurant catalog is the application's only cache (Hibernate's second-level cache is off),
+// exported under Micrometer's standard cache meter names
+@Component
+@RequiredArgsConstructor
+public class CatalogCacheMetrics implements MeterBinder {
+
+    private final RestaurantCatalogCache catalogCache;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", catalogCache, c -> c.stats().getHits())
+                .tags("cache", "restaurants", "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", catalogCache, c -> c.stats().getMisses())
+                .tags("cache", "restaurants", "result", "miss")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", catalogCache, c -> c.stats().getEvictions())
+                .tag("cache", "restaurants")
+                .register(registry);
+        Gauge.builder("cache.size", catalogCache, c -> c.stats().getEntries())
+                .tag("cache", "restaurants")
+                .register(registry);
+    }
+}
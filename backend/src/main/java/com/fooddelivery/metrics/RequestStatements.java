@@ -0,0 +1,78 @@
+package com.fooddelivery.metrics;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/** SQL issued while serving one HTTP request, grouped by statement shape. */
+class RequestStatements {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    record Shape(String sql, int count) {}
+
+    private final int maxStatements;
+    private final int repeatThreshold;
+
+    // Keyed by the raw SQL: Hibernate binds parameters, so the text only varies with IN-list sizes
+    private final Map<String, Integer> counts = new HashMap<>();
+    private int total;
+    private int maxRepeats;
+    private int beforeHandler;
+
+    RequestStatements(int maxStatements, int repeatThreshold) {
+        this.maxStatements = maxStatements;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    void record(String sql) {
+        total++;
+        maxRepeats = Math.max(maxRepeats, counts.merge(sql, 1, Integer::sum));
+    }
+
+    int total() {
+        return total;
+    }
+
+    // Statements up to here came from filters, e.g. token checks, and not from the endpoint itself
+    void handlerStarted() {
+        beforeHandler = total;
+    }
+
+    int handlerTotal() {
+        return total - beforeHandler;
+    }
+
+    boolean overBudget() {
+        return total > maxStatements;
+    }
+
+    // The same statement once per row of a result: the N+1 signature
+    boolean repeated() {
+        return maxRepeats > repeatThreshold;
+    }
+
+    /** Shapes that ran more than once, most frequent first, with literals and IN lists folded. */
+    List<Shape> repeatedShapes(int limit) {
+        Map<String, Integer> shapes = new HashMap<>();
+        counts.forEach((sql, count) -> shapes.merge(shape(sql), count, Integer::sum));
+        return shapes.entrySet().stream()
+                .filter(e -> e.getValue() > 1)
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .limit(limit)
+                .map(e -> new Shape(e.getKey(), e.getValue()))
+                .collect(Collectors.toList());
+    }
+
+    static String shape(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("in (...)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+}
@@ -0,0 +1,94 @@
+package com.fooddelivery.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.stream.Collectors;
+
+/**
+ * Records how many SQL statements each request ran, per endpoint, and logs the requests that
+ * went over app.sql-budget.max-statements or repeated one statement more than
+ * app.sql-budget.repeat-threshold times, with the repeated shapes. Runs ahead of the security
+ * chain so token checks that touch the database are counted too.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    private static final int SHAPES_LOGGED = 5;
+
+    private final MeterRegistry registry;
+    private final boolean enabled;
+    private final int maxStatements;
+    private final int repeatThreshold;
+
+    public SqlBudgetFilter(MeterRegistry registry,
+                           @Value("${app.sql-budget.enabled:true}") boolean enabled,
+                           @Value("${app.sql-budget.max-statements:10}") int maxStatements,
+                           @Value("${app.sql-budget.repeat-threshold:3}") int repeatThreshold) {
+        this.registry = registry;
+        this.enabled = enabled;
+        this.maxStatements = maxStatements;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RequestStatements statements = new RequestStatements(maxStatements, repeatThreshold);
+        SqlStatementInspector.begin(statements);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatementInspector.end();
+            report(request, statements);
+        }
+    }
+
+    private void report(HttpServletRequest request, RequestStatements statements) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNMAPPED";
+        String method = request.getMethod();
+
+        DistributionSummary.builder("fooddelivery.http.sql.statements")
+                .description("SQL statements run per HTTP request")
+                .tags("method", method, "uri", uri)
+                .register(registry)
+                .record(statements.total());
+
+        boolean overBudget = statements.overBudget();
+        boolean repeated = statements.repeated();
+        if (!overBudget && !repeated) return;
+
+        Counter.builder("fooddelivery.http.sql.budget.exceeded")
+                .description("Requests over the SQL statement budget or repeating a statement per row")
+                .tags("method", method, "uri", uri, "reason", repeated ? "repeated" : "budget")
+                .register(registry)
+                .increment();
+        log.warn("{} {} ran {} SQL statements (budget {}, repeat threshold {}); repeated shapes:{}",
+                method, request.getRequestURI(), statements.total(), maxStatements, repeatThreshold,
+                statements.repeatedShapes(SHAPES_LOGGED).stream()
+                        .map(s -> "\n  " + s.count() + "x " + s.sql())
+                        .collect(Collectors.joining()));
+    }
+}
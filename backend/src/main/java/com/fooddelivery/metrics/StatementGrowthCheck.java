@@ -0,0 +1,122 @@
+package com.fooddelivery.metrics;
+
+import com.fooddelivery.dto.OrderDto;
+import com.fooddelivery.exception.SqlBudgetExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Flags endpoints whose statement count grows with the number of rows they return, the N+1 signature that a
+ * fixed budget misses on small pages. Per endpoint it remembers the smallest non-empty listing answered so far
+ * and the statements its handler ran, and flags a later, larger listing that cost at least one extra statement
+ * for every two extra rows. A cache refill adds a statement or two whatever the page size, so it is not mistaken
+ * for growth; statements run by filters before the handler (token checks) are left out for the same reason.
+ * With app.sql-budget.strict=true the response fails instead of being logged, so integration tests catch it.
+ */
+@Slf4j
+@ControllerAdvice
+public class StatementGrowthCheck implements ResponseBodyAdvice<Object>, HandlerInterceptor {
+
+    record Observation(int rows, int statements) {}
+
+    private final MeterRegistry registry;
+    private final boolean strict;
+    private final Map<String, Observation> smallest = new ConcurrentHashMap<>();
+
+    public StatementGrowthCheck(MeterRegistry registry,
+                                @Value("${app.sql-budget.strict:false}") boolean strict) {
+        this.registry = registry;
+        this.strict = strict;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestStatements statements = SqlStatementInspector.current();
+        if (statements != null) statements.handlerStarted();
+        return true;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        RequestStatements statements = SqlStatementInspector.current();
+        int rows = rows(body);
+        if (statements == null || rows <= 0 || !(request instanceof ServletServerHttpRequest servletRequest)) {
+            return body;
+        }
+        HttpServletRequest http = servletRequest.getServletRequest();
+        Object pattern = http.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null) return body;
+
+        String endpoint = http.getMethod() + " " + pattern;
+        Observation current = new Observation(rows, statements.handlerTotal());
+        Observation baseline = observe(endpoint, current);
+        if (grew(baseline, current)) {
+            report(http.getMethod(), pattern.toString(), endpoint, baseline, current);
+        }
+        return body;
+    }
+
+    // Returns the smallest listing seen before this one and keeps whichever of the two is smaller
+    Observation observe(String endpoint, Observation current) {
+        Observation[] before = new Observation[1];
+        smallest.compute(endpoint, (key, previous) -> {
+            before[0] = previous;
+            boolean smaller = previous == null || current.rows() < previous.rows()
+                    || (current.rows() == previous.rows() && current.statements() < previous.statements());
+            return smaller ? current : previous;
+        });
+        return before[0];
+    }
+
+    static boolean grew(Observation baseline, Observation current) {
+        if (baseline == null) return false;
+        int extraRows = current.rows() - baseline.rows();
+        int extraStatements = current.statements() - baseline.statements();
+        return extraRows > 0 && extraStatements >= 2 && extraStatements * 2 >= extraRows;
+    }
+
+    private void report(String method, String uri, String endpoint, Observation baseline, Observation current) {
+        Counter.builder("fooddelivery.http.sql.budget.exceeded")
+                .description("Requests over the SQL statement budget or repeating a statement per row")
+                .tags("method", method, "uri", uri, "reason", "growth")
+                .register(registry)
+                .increment();
+        if (strict) {
+            throw new SqlBudgetExceededException(endpoint, current.rows(), current.statements(),
+                    baseline.rows(), baseline.statements());
+        }
+        log.warn("{} ran {} SQL statements for {} rows, against {} for {} rows: likely N+1",
+                endpoint, current.statements(), current.rows(), baseline.statements(), baseline.rows());
+    }
+
+    private static int rows(Object body) {
+        if (body instanceof Collection<?> list) return list.size();
+        if (body instanceof OrderDto.PageResponse page) return page.getOrders().size();
+        return -1;
+    }
+}
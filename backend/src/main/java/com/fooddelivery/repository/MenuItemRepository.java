@@ -2,10 +2,12 @@ package com.fooddelivery.repository;
 
 import com.fooddelivery.entity.MenuItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.Collection;
 import java.util.List;
 
 public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
     List<MenuItem> findByRestaurantId(Long restaurantId);
+    List<MenuItem> findByIdInAndRestaurantId(Collection<Long> ids, Long restaurantId);
     List<MenuItem> findByRestaurantIdAndAvailableTrue(Long restaurantId);
     List<MenuItem> findByRestaurantIdAndCategory(Long restaurantId, String category);
 }
@@ -1,9 +1,23 @@
 package com.fooddelivery.repository;
 
 import com.fooddelivery.entity.Order;
+import com.fooddelivery.entity.Restaurant;
+import com.fooddelivery.entity.User;
 import com.fooddelivery.enums.OrderStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByCustomerIdOrderByCreatedAtDesc(Long customerId);
@@ -11,4 +25,150 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByStatusOrderByCreatedAtDesc(OrderStatus status);
     List<Order> findByDeliveryAgentIdOrderByCreatedAtDesc(Long agentId);
     List<Order> findByRestaurantIdAndStatus(Long restaurantId, OrderStatus status);
+
+    @EntityGraph(attributePaths = {"customer", "restaurant", "orderItems", "orderItems.menuItem"})
+    Optional<Order> findWithDetailsById(Long id);
+
+    // Initializes orderItems (and their menu items) on already-loaded orders in one query
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.orderItems oi LEFT JOIN FETCH oi.menuItem WHERE o IN :orders")
+    List<Order> fetchItems(List<Order> orders);
+
+    // Keyset pages: rows strictly after (createdAt, id) in (createdAt DESC, id DESC) order. The redundant
+    // createdAt <= bound gives the planner a range on the (..., created_at, id) indexes; the OR alone doesn't
+    @EntityGraph(attributePaths = {"customer", "restaurant"})
+    @Query("SELECT o FROM Order o WHERE o.customer.id = :customerId " +
+           "AND o.createdAt <= :createdAt AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findCustomerPage(Long customerId, LocalDateTime createdAt, Long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"customer", "restaurant"})
+    @Query("SELECT o FROM Order o WHERE o.restaurant.id = :restaurantId " +
+           "AND o.createdAt <= :createdAt AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findRestaurantPage(Long restaurantId, LocalDateTime createdAt, Long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"customer", "restaurant"})
+    @Query("SELECT o FROM Order o WHERE o.deliveryAgent.id = :agentId " +
+           "AND o.createdAt <= :createdAt AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findAgentPage(Long agentId, LocalDateTime createdAt, Long id, Pageable pageable);
+
+    // Outer fetch joins: H2 keeps their order, so it walks idx_orders_created instead of scanning restaurants first
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.customer LEFT JOIN FETCH o.restaurant " +
+           "WHERE o.createdAt <= :createdAt AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findAllPage(LocalDateTime createdAt, Long id, Pageable pageable);
+
+    @Query("SELECT o.status FROM Order o WHERE o.id = :id")
+    Optional<OrderStatus> findStatusById(Long id);
+
+    // Conditional transitions: a single statement that only succeeds if the order is still in an allowed status
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :to, o.updatedAt = :now WHERE o.id = :id AND o.status IN :from")
+    int transition(Long id, Collection<OrderStatus> from, OrderStatus to, LocalDateTime now);
+
+    // An agent may only take an order that was dispatched to them or to nobody
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :to, o.deliveryAgent = :agent, o.updatedAt = :now " +
+           "WHERE o.id = :id AND o.status IN :from AND (o.deliveryAgent IS NULL OR o.deliveryAgent = :agent)")
+    int transitionWithAgent(Long id, Collection<OrderStatus> from, OrderStatus to, User agent, LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :to, o.updatedAt = :now " +
+           "WHERE o.id = :id AND o.customer.id = :customerId AND o.status IN :from")
+    int transitionForCustomer(Long id, Long customerId, Collection<OrderStatus> from, OrderStatus to, LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.deliveryAgent = :agent, o.updatedAt = :now " +
+           "WHERE o.id = :id AND o.status = :status AND o.deliveryAgent IS NULL")
+    int assignAgent(Long id, OrderStatus status, User agent, LocalDateTime now);
+
+    @Query("SELECT o.restaurant FROM Order o WHERE o.id = :id")
+    Optional<Restaurant> findRestaurantByOrderId(Long id);
+
+    interface Parties {
+        Long getOwnerId();
+        Long getDeliveryAgentId();
+    }
+
+    // Who may move the order along: the restaurant's owner and the agent it is assigned to
+    @Query("SELECT r.owner.id AS ownerId, a.id AS deliveryAgentId FROM Order o JOIN o.restaurant r " +
+           "LEFT JOIN o.deliveryAgent a WHERE o.id = :id")
+    Optional<Parties> findParties(Long id);
+
+    @Query("SELECT o.id FROM Order o WHERE o.status = :status AND o.deliveryAgent IS NULL ORDER BY o.createdAt, o.id")
+    List<Long> findUnassignedIds(OrderStatus status, Pageable pageable);
+
+    boolean existsByDeliveryAgentIdAndStatusIn(Long agentId, Collection<OrderStatus> statuses);
+
+    @Query("SELECT DISTINCT o.deliveryAgent.id FROM Order o WHERE o.status IN :statuses AND o.deliveryAgent IS NOT NULL")
+    List<Long> findBusyAgentIds(Collection<OrderStatus> statuses);
+
+    interface ActiveOrder {
+        Long getId();
+        Long getRestaurantId();
+        OrderStatus getStatus();
+        LocalDateTime getCreatedAt();
+        LocalDateTime getUpdatedAt();
+    }
+
+    @Query("SELECT o.id AS id, o.restaurant.id AS restaurantId, o.status AS status, " +
+           "o.createdAt AS createdAt, o.updatedAt AS updatedAt FROM Order o WHERE o.status IN :statuses ORDER BY o.updatedAt")
+    List<ActiveOrder> findActive(Collection<OrderStatus> statuses);
+
+    interface RollupSource {
+        Long getRestaurantId();
+        LocalDateTime getCreatedAt();
+        OrderStatus getStatus();
+        double getSubtotal();
+        double getTotalAmount();
+    }
+
+    // Range scan on idx_orders_created, for recomputing analytics rollups
+    @Query("SELECT o.restaurant.id AS restaurantId, o.createdAt AS createdAt, o.status AS status, " +
+           "o.subtotal AS subtotal, o.totalAmount AS totalAmount FROM Order o WHERE o.createdAt >= :from AND o.createdAt < :to")
+    List<RollupSource> findRollupSources(LocalDateTime from, LocalDateTime to);
+
+    @Query("SELECT MIN(o.createdAt) FROM Order o")
+    Optional<LocalDateTime> findFirstCreatedAt();
+
+    interface ExportRow {
+        Long getId();
+        Long getCustomerId();
+        String getCustomerName();
+        Long getRestaurantId();
+        String getRestaurantName();
+        Long getDeliveryAgentId();
+        OrderStatus getStatus();
+        String getDeliveryAddress();
+        double getSubtotal();
+        double getDeliveryFee();
+        double getTotalAmount();
+        String getPaymentMethod();
+        boolean getPaymentDone();
+        String getSpecialInstructions();
+        LocalDateTime getCreatedAt();
+        LocalDateTime getUpdatedAt();
+        Long getItemId();
+        Long getMenuItemId();
+        String getMenuItemName();
+        Integer getQuantity();
+        Double getPrice();
+        Double getItemSubtotal();
+    }
+
+    // One flat row per order item, in order, so an export never holds more than one order in memory.
+    // Scalar rows stay out of the persistence context; the fetch size lets drivers that support it
+    // (MySQL with useCursorFetch=true) read the result in chunks instead of all at once.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT o.id AS id, c.id AS customerId, c.name AS customerName, r.id AS restaurantId, r.name AS restaurantName, " +
+           "a.id AS deliveryAgentId, o.status AS status, o.deliveryAddress AS deliveryAddress, o.subtotal AS subtotal, " +
+           "o.deliveryFee AS deliveryFee, o.totalAmount AS totalAmount, o.paymentMethod AS paymentMethod, " +
+           "o.paymentDone AS paymentDone, o.specialInstructions AS specialInstructions, o.createdAt AS createdAt, " +
+           "o.updatedAt AS updatedAt, i.id AS itemId, m.id AS menuItemId, m.name AS menuItemName, " +
+           "i.quantity AS quantity, i.price AS price, i.subtotal AS itemSubtotal " +
+           "FROM Order o JOIN o.customer c JOIN o.restaurant r LEFT JOIN o.deliveryAgent a " +
+           "LEFT JOIN o.orderItems i LEFT JOIN i.menuItem m " +
+           "WHERE o.createdAt >= :from AND o.createdAt < :to ORDER BY o.createdAt, o.id, i.id")
+    Stream<ExportRow> streamForExport(LocalDateTime from, LocalDateTime to);
 }
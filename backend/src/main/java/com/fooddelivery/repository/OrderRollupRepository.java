@@ -0,0 +1,58 @@
+package com.fooddelivery.repository;
+
+import com.fooddelivery.entity.OrderRollup;
+import com.fooddelivery.enums.RollupGranularity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OrderRollupRepository extends JpaRepository<OrderRollup, Long> {
+
+    @Modifying
+    @Query("UPDATE OrderRollup r SET r.orderCount = r.orderCount + :orders, " +
+           "r.deliveredCount = r.deliveredCount + :delivered, r.cancelledCount = r.cancelledCount + :cancelled, " +
+           "r.basketAmount = r.basketAmount + :basketAmount, r.revenue = r.revenue + :revenue " +
+           "WHERE r.granularity = :granularity AND r.bucketStart = :bucketStart AND r.restaurantId = :restaurantId")
+    int increment(RollupGranularity granularity, LocalDateTime bucketStart, Long restaurantId,
+                  long orders, long delivered, long cancelled, double basketAmount, double revenue);
+
+    @Modifying
+    @Query("DELETE FROM OrderRollup r WHERE r.bucketStart >= :from AND r.bucketStart < :to")
+    int deleteRange(LocalDateTime from, LocalDateTime to);
+
+    interface Totals {
+        LocalDateTime getBucketStart();
+        Long getRestaurantId();
+        String getRestaurantName();
+        long getOrders();
+        long getDelivered();
+        long getCancelled();
+        double getBasketAmount();
+        double getRevenue();
+    }
+
+    @Query("SELECT r.bucketStart AS bucketStart, SUM(r.orderCount) AS orders, SUM(r.deliveredCount) AS delivered, " +
+           "SUM(r.cancelledCount) AS cancelled, SUM(r.basketAmount) AS basketAmount, SUM(r.revenue) AS revenue " +
+           "FROM OrderRollup r WHERE r.granularity = :granularity AND r.bucketStart >= :from AND r.bucketStart < :to " +
+           "GROUP BY r.bucketStart ORDER BY r.bucketStart")
+    List<Totals> sumByBucket(RollupGranularity granularity, LocalDateTime from, LocalDateTime to);
+
+    @Query("SELECT r.bucketStart AS bucketStart, SUM(r.orderCount) AS orders, SUM(r.deliveredCount) AS delivered, " +
+           "SUM(r.cancelledCount) AS cancelled, SUM(r.basketAmount) AS basketAmount, SUM(r.revenue) AS revenue " +
+           "FROM OrderRollup r WHERE r.restaurantId = :restaurantId AND r.granularity = :granularity " +
+           "AND r.bucketStart >= :from AND r.bucketStart < :to GROUP BY r.bucketStart ORDER BY r.bucketStart")
+    List<Totals> sumByBucketForRestaurant(Long restaurantId, RollupGranularity granularity, LocalDateTime from, LocalDateTime to);
+
+    // Outer join, so the bucket range drives the query; with an inner join H2 scans restaurants first
+    @Query("SELECT r.restaurantId AS restaurantId, x.name AS restaurantName, SUM(r.orderCount) AS orders, " +
+           "SUM(r.deliveredCount) AS delivered, SUM(r.cancelledCount) AS cancelled, " +
+           "SUM(r.basketAmount) AS basketAmount, SUM(r.revenue) AS revenue " +
+           "FROM OrderRollup r LEFT JOIN Restaurant x ON x.id = r.restaurantId " +
+           "WHERE r.granularity = :granularity AND r.bucketStart >= :from AND r.bucketStart < :to " +
+           "GROUP BY r.restaurantId, x.name ORDER BY SUM(r.revenue) DESC, SUM(r.orderCount) DESC")
+    List<Totals> sumByRestaurant(RollupGranularity granularity, LocalDateTime from, LocalDateTime to, Pageable pageable);
+}
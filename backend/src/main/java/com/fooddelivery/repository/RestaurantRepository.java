@@ -2,6 +2,7 @@ package com.fooddelivery.repository;
 
 import com.fooddelivery.entity.Restaurant;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
@@ -11,6 +12,16 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
     List<Restaurant> findByOpenTrue();
     List<Restaurant> findByCuisineContainingIgnoreCase(String cuisine);
 
-    @Query("SELECT r FROM Restaurant r WHERE LOWER(r.name) LIKE LOWER(CONCAT('%', :query, '%')) OR LOWER(r.cuisine) LIKE LOWER(CONCAT('%', :query, '%'))")
-    List<Restaurant> searchRestaurants(String query);
+    // rating is assigned first so it reads the pre-update sum and count on every database
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Restaurant r SET r.rating = ROUND((r.ratingSum + :rating) * 1.0 / (r.reviewCount + 1), 1), " +
+           "r.ratingSum = r.ratingSum + :rating, r.reviewCount = r.reviewCount + 1 WHERE r.id = :restaurantId")
+    int addRating(Long restaurantId, int rating);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Restaurant r SET " +
+           "r.rating = COALESCE((SELECT ROUND(AVG(v.rating), 1) FROM Review v WHERE v.restaurant.id = r.id), 0), " +
+           "r.ratingSum = COALESCE((SELECT SUM(v.rating) FROM Review v WHERE v.restaurant.id = r.id), 0), " +
+           "r.reviewCount = (SELECT COUNT(v) FROM Review v WHERE v.restaurant.id = r.id)")
+    int rebuildRatings();
 }
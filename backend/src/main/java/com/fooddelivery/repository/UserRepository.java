@@ -1,10 +1,19 @@
 package com.fooddelivery.repository;
 
 import com.fooddelivery.entity.User;
+import com.fooddelivery.enums.Role;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+    List<User> findByRoleAndActiveTrueAndLatitudeIsNotNull(Role role);
+
+    @Modifying
+    @Query("UPDATE User u SET u.latitude = :latitude, u.longitude = :longitude WHERE u.id = :id")
+    int updateLocation(Long id, double latitude, double longitude);
 }
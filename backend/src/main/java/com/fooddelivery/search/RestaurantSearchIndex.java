@@ -0,0 +1,238 @@
+package com.fooddelivery.search;
+
+import com.fooddelivery.dto.RestaurantDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory inverted index over restaurant name, cuisine and description.
+ * Words are indexed as padded trigrams ("$pi", "piz", ..., "za$"), so a query word matches
+ * on substrings. One typo in the middle of a short word breaks most of its trigrams ("pizaa" keeps
+ * 2 of 5), so words of four or more characters also match any dictionary token within one edit,
+ * a swap of neighbouring letters included. Words shorter than three characters fall back to a
+ * prefix lookup on the sorted token dictionary.
+ */
+@Component
+public class RestaurantSearchIndex {
+
+    private static final int NAME = 0, CUISINE = 1, DESCRIPTION = 2;
+    private static final double[] FIELD_WEIGHTS = {3.0, 2.0, 1.0};
+
+    // Share of a query word's trigrams a field must contain to count as a fuzzy match
+    private static final double MIN_COVERAGE = 0.5;
+    // Score of a one-edit match, as a share of the field weight; below an exact or substring match
+    private static final double TYPO_COVERAGE = 0.75;
+    private static final int MIN_TYPO_LENGTH = 4;
+
+    private final int maxResults;
+
+    private final Map<Long, Doc> docs = new HashMap<>();
+    private final Map<String, Map<Long, Integer>> grams = new HashMap<>();
+    private final TreeMap<String, Map<Long, Integer>> tokens = new TreeMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public RestaurantSearchIndex(@Value("${app.search.max-results:50}") int maxResults) {
+        this.maxResults = maxResults;
+    }
+
+    private record Doc(RestaurantDto.Response restaurant, String[] fields, Set<String> grams, Set<String> tokens) {}
+
+    public void rebuild(Collection<RestaurantDto.Response> restaurants) {
+        lock.writeLock().lock();
+        try {
+            docs.clear();
+            grams.clear();
+            tokens.clear();
+            restaurants.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void upsert(RestaurantDto.Response restaurant) {
+        lock.writeLock().lock();
+        try {
+            remove(restaurant.getId());
+            add(restaurant);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void delete(Long restaurantId) {
+        lock.writeLock().lock();
+        try {
+            remove(restaurantId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<RestaurantDto.Response> search(String query) {
+        List<String> words = words(query);
+        if (words.isEmpty()) return List.of();
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (String word : words) {
+                Map<Long, Double> wordScores = word.length() < 3 ? matchPrefix(word) : matchFuzzy(word);
+                if (scores == null) {
+                    scores = wordScores;
+                } else {
+                    // Every query word has to match somewhere in the restaurant
+                    scores.keySet().retainAll(wordScores.keySet());
+                    scores.replaceAll((id, score) -> score + wordScores.get(id));
+                }
+                if (scores.isEmpty()) return List.of();
+            }
+
+            Map<Long, Double> ranked = new HashMap<>();
+            scores.forEach((id, relevance) -> ranked.put(id, rank(relevance / words.size(), docs.get(id).restaurant())));
+            return ranked.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                    .limit(maxResults)
+                    .map(e -> docs.get(e.getKey()).restaurant())
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Relevance dominates; rating and open status break ties between similar matches
+    private double rank(double relevance, RestaurantDto.Response r) {
+        return relevance + r.getRating() * 0.05 + (r.isOpen() ? 0.5 : 0);
+    }
+
+    private Map<Long, Double> matchFuzzy(String word) {
+        List<String> queryGrams = trigrams(word);
+        Map<Long, int[]> hits = new HashMap<>();
+        for (String gram : queryGrams) {
+            Map<Long, Integer> postings = grams.get(gram);
+            if (postings == null) continue;
+            postings.forEach((id, mask) -> {
+                int[] perField = hits.computeIfAbsent(id, k -> new int[FIELD_WEIGHTS.length]);
+                for (int f = 0; f < perField.length; f++) {
+                    if ((mask & (1 << f)) != 0) perField[f]++;
+                }
+            });
+        }
+
+        Map<Long, Double> scores = new HashMap<>();
+        hits.forEach((id, perField) -> {
+            String[] fields = docs.get(id).fields();
+            double best = 0;
+            for (int f = 0; f < perField.length; f++) {
+                double coverage = fields[f].contains(word) ? 1.0 : (double) perField[f] / queryGrams.size();
+                if (coverage >= MIN_COVERAGE) best = Math.max(best, FIELD_WEIGHTS[f] * coverage);
+            }
+            if (best > 0) scores.put(id, best);
+        });
+        if (word.length() >= MIN_TYPO_LENGTH) matchOneEdit(word, scores);
+        return scores;
+    }
+
+    // Linear in the dictionary, but only tokens within one character of the word's length are compared
+    private void matchOneEdit(String word, Map<Long, Double> scores) {
+        tokens.forEach((token, postings) -> {
+            if (Math.abs(token.length() - word.length()) > 1 || !withinOneEdit(word, token)) return;
+            postings.forEach((id, mask) -> scores.merge(id, weightOf(mask) * TYPO_COVERAGE, Math::max));
+        });
+    }
+
+    // Damerau-Levenshtein distance of at most one: equal, or one substitution, insertion, deletion or swap
+    static boolean withinOneEdit(String a, String b) {
+        int la = a.length(), lb = b.length();
+        if (Math.abs(la - lb) > 1) return false;
+        int i = 0;
+        while (i < la && i < lb && a.charAt(i) == b.charAt(i)) i++;
+        if (i == la && i == lb) return true;
+        if (la == lb) {
+            if (a.regionMatches(i + 1, b, i + 1, la - i - 1)) return true;
+            return i + 1 < la && a.charAt(i) == b.charAt(i + 1) && a.charAt(i + 1) == b.charAt(i)
+                    && a.regionMatches(i + 2, b, i + 2, la - i - 2);
+        }
+        return la > lb ? a.regionMatches(i + 1, b, i, lb - i) : b.regionMatches(i + 1, a, i, la - i);
+    }
+
+    private Map<Long, Double> matchPrefix(String word) {
+        Map<Long, Double> scores = new HashMap<>();
+        tokens.subMap(word, true, word + Character.MAX_VALUE, false).values().forEach(postings ->
+                postings.forEach((id, mask) -> scores.merge(id, weightOf(mask), Math::max)));
+        return scores;
+    }
+
+    private double weightOf(int mask) {
+        for (int f = 0; f < FIELD_WEIGHTS.length; f++) {
+            if ((mask & (1 << f)) != 0) return FIELD_WEIGHTS[f];
+        }
+        return 0;
+    }
+
+    private void add(RestaurantDto.Response r) {
+        String[] fields = {normalize(r.getName()), normalize(r.getCuisine()), normalize(r.getDescription())};
+        Set<String> docGrams = new HashSet<>();
+        Set<String> docTokens = new HashSet<>();
+        for (int f = 0; f < fields.length; f++) {
+            int bit = 1 << f;
+            for (String word : words(fields[f])) {
+                docTokens.add(word);
+                tokens.computeIfAbsent(word, k -> new HashMap<>()).merge(r.getId(), bit, (a, b) -> a | b);
+                for (String gram : trigrams(word)) {
+                    docGrams.add(gram);
+                    grams.computeIfAbsent(gram, k -> new HashMap<>()).merge(r.getId(), bit, (a, b) -> a | b);
+                }
+            }
+        }
+        docs.put(r.getId(), new Doc(r, fields, docGrams, docTokens));
+    }
+
+    private void remove(Long id) {
+        Doc doc = docs.remove(id);
+        if (doc == null) return;
+        for (String gram : doc.grams()) {
+            Map<Long, Integer> postings = grams.get(gram);
+            postings.remove(id);
+            if (postings.isEmpty()) grams.remove(gram);
+        }
+        for (String token : doc.tokens()) {
+            Map<Long, Integer> postings = tokens.get(token);
+            postings.remove(id);
+            if (postings.isEmpty()) tokens.remove(token);
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        for (String w : normalize(text).split("[^\\p{L}\\p{N}]+")) {
+            if (!w.isEmpty()) words.add(w);
+        }
+        return words;
+    }
+
+    private static List<String> trigrams(String word) {
+        String padded = "$" + word + "$";
+        List<String> result = new ArrayList<>(padded.length() - 2);
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            result.add(padded.substring(i, i + 3));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,65 @@
+package com.fooddelivery.security;
+
+import com.fooddelivery.enums.Role;
+import com.fooddelivery.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Checks that a token's account is still active and still has the role the token claims. Tokens are
+ * otherwise trusted until they expire; with the check enabled a changed account is locked out within
+ * one TTL, at the cost of at most one user lookup per account per TTL. Admin changes made through
+ * {@link com.fooddelivery.service.UserService} take effect immediately.
+ */
+@Component
+public class AccountStatusCache {
+
+    private record Entry(boolean active, Role role, long expiresAt) {}
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    public AccountStatusCache(UserRepository userRepository,
+                              @Value("${app.security.account-status-check.enabled:true}") boolean enabled,
+                              @Value("${app.security.account-status-check.ttl-seconds:30}") long ttlSeconds,
+                              @Value("${app.security.account-status-check.max-entries:100000}") int maxEntries) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxEntries = maxEntries;
+    }
+
+    // A token issued before a role change still carries the old role; it stops working like a deactivated one
+    public boolean isCurrent(Long userId, Role tokenRole) {
+        if (!enabled) return true;
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(userId);
+        if (entry == null || entry.expiresAt() < now) {
+            entry = userRepository.findById(userId)
+                    .map(u -> new Entry(u.isActive(), u.getRole(), now + ttlMillis))
+                    .orElseGet(() -> new Entry(false, null, now + ttlMillis));
+            if (entries.size() >= maxEntries) {
+                entries.values().removeIf(e -> e.expiresAt() < now);
+                if (entries.size() >= maxEntries) entries.clear();
+            }
+            entries.put(userId, entry);
+        }
+        return entry.active() && entry.role() == tokenRole;
+    }
+
+    // Locks an account out immediately instead of waiting for its entry to expire
+    public void revoke(Long userId) {
+        entries.put(userId, new Entry(false, null, System.currentTimeMillis() + ttlMillis));
+    }
+
+    // The account changed; its next request reads it again
+    public void evict(Long userId) {
+        entries.remove(userId);
+    }
+}
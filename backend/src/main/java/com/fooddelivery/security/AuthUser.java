@@ -0,0 +1,59 @@
+package com.fooddelivery.security;
+
+import com.fooddelivery.enums.Role;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+@Getter
+public class AuthUser implements UserDetails {
+
+    private final Long id;
+    private final String email;
+    private final Role role;
+    private final String password;
+    private final boolean enabled;
+    private final List<GrantedAuthority> authorities;
+
+    public AuthUser(Long id, String email, Role role) {
+        this(id, email, role, null, true);
+    }
+
+    public AuthUser(Long id, String email, Role role, String password, boolean enabled) {
+        this.id = id;
+        this.email = email;
+        this.role = role;
+        this.password = password;
+        this.enabled = enabled;
+        this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+}
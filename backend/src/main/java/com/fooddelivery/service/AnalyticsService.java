@@ -0,0 +1,160 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.analytics.OrderRollupWriter;
+import com.fooddelivery.datasource.ReplicaRoutingDataSource;
+import com.fooddelivery.dto.AnalyticsDto;
+import com.fooddelivery.enums.RollupGranularity;
+import com.fooddelivery.repository.OrderRepository;
+import com.fooddelivery.repository.OrderRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Dashboard figures answered from order_rollups only; the orders table is read by backfills alone
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AnalyticsService {
+
+    private static final int DEFAULT_DAYS = 7;
+    private static final long MAX_BUCKETS = 5000;
+    private static final int MAX_RESTAURANTS = 100;
+
+    private final OrderRollupRepository rollupRepository;
+    private final OrderRepository orderRepository;
+    private final OrderRollupWriter rollupWriter;
+
+    // Orders loaded without going through OrderService (seed data, bulk datasets) have no rollups yet
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        // The primary decides; an empty answer from a lagging replica would backfill a second time
+        if (ReplicaRoutingDataSource.onPrimary(rollupRepository::count) > 0) return;
+        ReplicaRoutingDataSource.onPrimary(orderRepository::findFirstCreatedAt).ifPresent(first -> {
+            LocalDate from = first.toLocalDate();
+            LocalDate to = LocalDate.now().plusDays(1);
+            long started = System.nanoTime();
+            int rows = rollupWriter.backfill(from, to);
+            log.info("Backfilled {} order rollups for {} to {} in {} ms",
+                    rows, from, to, (System.nanoTime() - started) / 1_000_000);
+        });
+    }
+
+    // Recomputes yesterday to pick up deltas lost on a restart
+    @Scheduled(cron = "${app.analytics.reconcile-cron:0 30 0 * * *}")
+    public void reconcileYesterday() {
+        LocalDate today = LocalDate.now();
+        rollupWriter.backfill(today.minusDays(1), today);
+    }
+
+    public AnalyticsDto.BackfillResult backfill(LocalDate from, LocalDate to) {
+        if (!from.isBefore(to)) {
+            throw new RuntimeException("Backfill range is empty");
+        }
+        AnalyticsDto.BackfillResult result = new AnalyticsDto.BackfillResult();
+        result.setFrom(from);
+        result.setTo(to);
+        result.setRows(rollupWriter.backfill(from, to));
+        return result;
+    }
+
+    @Transactional(readOnly = true)
+    public AnalyticsDto.Series getSeries(LocalDateTime from, LocalDateTime to,
+                                         RollupGranularity granularity, Long restaurantId) {
+        if (to == null) to = LocalDateTime.now();
+        if (from == null) from = to.minusDays(DEFAULT_DAYS);
+        if (granularity == null) granularity = RollupGranularity.DAY;
+
+        // Widen to whole buckets so partial buckets at either end are not silently dropped
+        LocalDateTime start = granularity.bucketOf(from);
+        LocalDateTime end = granularity.bucketOf(to).isBefore(to) ? granularity.next(granularity.bucketOf(to)) : to;
+        if (!start.isBefore(end)) {
+            throw new RuntimeException("Analytics range is empty");
+        }
+        if (granularity.bucketsBetween(start, end) > MAX_BUCKETS) {
+            throw new RuntimeException("Analytics range too large for " + granularity + " buckets");
+        }
+
+        List<OrderRollupRepository.Totals> rows = restaurantId == null
+                ? rollupRepository.sumByBucket(granularity, start, end)
+                : rollupRepository.sumByBucketForRestaurant(restaurantId, granularity, start, end);
+
+        long orders = 0, delivered = 0, cancelled = 0;
+        double basket = 0, revenue = 0;
+        for (OrderRollupRepository.Totals row : rows) {
+            orders += row.getOrders();
+            delivered += row.getDelivered();
+            cancelled += row.getCancelled();
+            basket += row.getBasketAmount();
+            revenue += row.getRevenue();
+        }
+
+        AnalyticsDto.Series series = new AnalyticsDto.Series();
+        series.setGranularity(granularity);
+        series.setFrom(start);
+        series.setTo(end);
+        series.setRestaurantId(restaurantId);
+        series.setTotals(toBucket(null, orders, delivered, cancelled, basket, revenue));
+        series.setBuckets(rows.stream()
+                .map(r -> toBucket(r.getBucketStart(), r.getOrders(), r.getDelivered(), r.getCancelled(),
+                        r.getBasketAmount(), r.getRevenue()))
+                .collect(Collectors.toList()));
+        return series;
+    }
+
+    @Transactional(readOnly = true)
+    public List<AnalyticsDto.RestaurantTotals> getTopRestaurants(LocalDateTime from, LocalDateTime to, int limit) {
+        if (to == null) to = LocalDateTime.now();
+        if (from == null) from = to.minusDays(DEFAULT_DAYS);
+
+        // Day rows are enough when both ends fall on midnight; otherwise the hour rows give exact edges
+        RollupGranularity granularity = RollupGranularity.DAY.bucketOf(from).equals(from)
+                && RollupGranularity.DAY.bucketOf(to).equals(to) ? RollupGranularity.DAY : RollupGranularity.HOUR;
+        LocalDateTime start = granularity.bucketOf(from);
+        LocalDateTime end = granularity.bucketOf(to).isBefore(to) ? granularity.next(granularity.bucketOf(to)) : to;
+
+        return rollupRepository.sumByRestaurant(granularity, start, end,
+                        PageRequest.of(0, Math.max(1, Math.min(limit, MAX_RESTAURANTS)))).stream()
+                .map(this::toRestaurantTotals)
+                .collect(Collectors.toList());
+    }
+
+    private AnalyticsDto.Bucket toBucket(LocalDateTime start, long orders, long delivered, long cancelled,
+                                         double basket, double revenue) {
+        AnalyticsDto.Bucket bucket = new AnalyticsDto.Bucket();
+        bucket.setStart(start);
+        bucket.setOrders(orders);
+        bucket.setDelivered(delivered);
+        bucket.setCancelled(cancelled);
+        bucket.setRevenue(round(revenue));
+        bucket.setAverageBasket(orders == 0 ? 0 : round(basket / orders));
+        bucket.setCancellationRate(orders == 0 ? 0 : (double) cancelled / orders);
+        return bucket;
+    }
+
+    private AnalyticsDto.RestaurantTotals toRestaurantTotals(OrderRollupRepository.Totals row) {
+        AnalyticsDto.RestaurantTotals res = new AnalyticsDto.RestaurantTotals();
+        res.setRestaurantId(row.getRestaurantId());
+        res.setRestaurantName(row.getRestaurantName());
+        res.setOrders(row.getOrders());
+        res.setDelivered(row.getDelivered());
+        res.setCancelled(row.getCancelled());
+        res.setRevenue(round(row.getRevenue()));
+        res.setAverageBasket(row.getOrders() == 0 ? 0 : round(row.getBasketAmount() / row.getOrders()));
+        res.setCancellationRate(row.getOrders() == 0 ? 0 : (double) row.getCancelled() / row.getOrders());
+        return res;
+    }
+
+    private static double round(double amount) {
+        return Math.round(amount * 100) / 100.0;
+    }
+}
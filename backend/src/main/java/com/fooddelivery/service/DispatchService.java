@@ -0,0 +1,141 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.datasource.ReplicaRoutingDataSource;
+import com.fooddelivery.dispatch.AgentLocationIndex;
+import com.fooddelivery.dto.AgentDto;
+import com.fooddelivery.entity.Restaurant;
+import com.fooddelivery.entity.User;
+import com.fooddelivery.enums.OrderStatus;
+import com.fooddelivery.enums.Role;
+import com.fooddelivery.repository.OrderRepository;
+import com.fooddelivery.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+@Service
+public class DispatchService {
+
+    // An agent is busy while holding an order in one of these statuses
+    private static final List<OrderStatus> ACTIVE_STATUSES = List.of(OrderStatus.PREPARING, OrderStatus.OUT_FOR_DELIVERY);
+
+    private final AgentLocationIndex agentIndex;
+    private final OrderRepository orderRepository;
+    private final UserRepository userRepository;
+    private final double maxRadiusKm;
+
+    public DispatchService(AgentLocationIndex agentIndex,
+                           OrderRepository orderRepository,
+                           UserRepository userRepository,
+                           @Value("${app.dispatch.max-radius-km:10}") double maxRadiusKm) {
+        this.agentIndex = agentIndex;
+        this.orderRepository = orderRepository;
+        this.userRepository = userRepository;
+        this.maxRadiusKm = maxRadiusKm;
+    }
+
+    // The index lives as long as the process, so it is loaded from the primary rather than a lagging replica
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadAgents() {
+        Set<Long> busy = new HashSet<>(ReplicaRoutingDataSource.onPrimary(() -> orderRepository.findBusyAgentIds(ACTIVE_STATUSES)));
+        for (User agent : ReplicaRoutingDataSource.onPrimary(() ->
+                userRepository.findByRoleAndActiveTrueAndLatitudeIsNotNull(Role.DELIVERY_AGENT))) {
+            if (busy.contains(agent.getId())) agentIndex.markBusy(agent.getId());
+            agentIndex.update(agent.getId(), agent.getLatitude(), agent.getLongitude(), true);
+        }
+    }
+
+    // The index follows the stored position, so a rollback leaves the agent where they were
+    @Transactional
+    public void updateLocation(Long agentId, AgentDto.LocationUpdate request) {
+        userRepository.updateLocation(agentId, request.getLatitude(), request.getLongitude());
+        afterCommit(() -> agentIndex.update(agentId, request.getLatitude(), request.getLongitude(), request.isAvailable()));
+    }
+
+    /**
+     * Hands the order to the nearest idle agent around its restaurant. Runs inside the caller's
+     * transaction; the agent goes back to the idle pool if that transaction does not commit.
+     */
+    @Transactional
+    public Optional<Long> assign(Long orderId) {
+        Restaurant restaurant = orderRepository.findRestaurantByOrderId(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found"));
+        if (restaurant.getLatitude() == null || restaurant.getLongitude() == null) {
+            return Optional.empty();
+        }
+
+        Optional<AgentLocationIndex.Match> match =
+                agentIndex.claimNearest(restaurant.getLatitude(), restaurant.getLongitude(), maxRadiusKm);
+        if (match.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Long agentId = match.get().agentId();
+        int updated = orderRepository.assignAgent(orderId, OrderStatus.PREPARING,
+                userRepository.getReferenceById(agentId), LocalDateTime.now());
+        if (updated == 0) {
+            agentIndex.markIdle(agentId);
+            return Optional.empty();
+        }
+        onRollback(() -> agentIndex.markIdle(agentId));
+        return Optional.of(agentId);
+    }
+
+    // An agent who picked up an order nobody was dispatched to
+    public void agentTookOrder(Long agentId) {
+        afterCommit(() -> agentIndex.markBusy(agentId));
+    }
+
+    // Agents can hold more than one order when they pick up undispatched ones, so check before freeing
+    public void agentFreed(Long agentId) {
+        if (!orderRepository.existsByDeliveryAgentIdAndStatusIn(agentId, ACTIVE_STATUSES)) {
+            afterCommit(() -> agentIndex.markIdle(agentId));
+        }
+    }
+
+    public boolean hasIdleAgents() {
+        return agentIndex.idleCount() > 0;
+    }
+
+    public AgentDto.DispatchStats stats() {
+        AgentDto.DispatchStats stats = new AgentDto.DispatchStats();
+        stats.setAgentsTracked(agentIndex.trackedCount());
+        stats.setAgentsIdle(agentIndex.idleCount());
+        stats.setMaxRadiusKm(maxRadiusKm);
+        return stats;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void onRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) action.run();
+            }
+        });
+    }
+}
@@ -1,5 +1,7 @@
 package com.fooddelivery.service;
 
+import com.fooddelivery.cache.MenuCache;
+import com.fooddelivery.datasource.ReplicaRoutingDataSource;
 import com.fooddelivery.dto.MenuItemDto;
 import com.fooddelivery.entity.MenuItem;
 import com.fooddelivery.entity.Restaurant;
@@ -7,6 +9,7 @@ import com.fooddelivery.repository.MenuItemRepository;
 import com.fooddelivery.repository.RestaurantRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -17,13 +20,23 @@ public class MenuItemService {
 
     private final MenuItemRepository menuItemRepository;
     private final RestaurantRepository restaurantRepository;
+    private final MenuCache menuCache;
 
     public List<MenuItemDto.Response> getMenuByRestaurant(Long restaurantId) {
-        return menuItemRepository.findByRestaurantId(restaurantId).stream()
+        return getMenu(restaurantId).items();
+    }
+
+    public MenuCache.Menu getMenu(Long restaurantId) {
+        return menuCache.get(restaurantId, id -> ReplicaRoutingDataSource.onPrimary(() -> menuItemRepository.findByRestaurantId(id)).stream()
                 .map(this::toResponse)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+    }
+
+    public String getMenuEtag(Long restaurantId) {
+        return menuCache.etag(restaurantId);
     }
 
+    @Transactional
     public MenuItemDto.Response addMenuItem(Long restaurantId, MenuItemDto.CreateRequest request, Long ownerId) {
         Restaurant restaurant = restaurantRepository.findById(restaurantId)
                 .orElseThrow(() -> new RuntimeException("Restaurant not found"));
@@ -42,9 +55,12 @@ public class MenuItemService {
                 .restaurant(restaurant)
                 .build();
 
-        return toResponse(menuItemRepository.save(item));
+        MenuItem saved = menuItemRepository.save(item);
+        menuCache.invalidate(restaurantId);
+        return toResponse(saved);
     }
 
+    @Transactional
     public MenuItemDto.Response updateMenuItem(Long itemId, MenuItemDto.CreateRequest request, Long ownerId) {
         MenuItem item = menuItemRepository.findById(itemId)
                 .orElseThrow(() -> new RuntimeException("Menu item not found"));
@@ -60,9 +76,12 @@ public class MenuItemService {
         item.setCategory(request.getCategory());
         item.setVegetarian(request.isVegetarian());
 
-        return toResponse(menuItemRepository.save(item));
+        MenuItem saved = menuItemRepository.save(item);
+        menuCache.invalidate(item.getRestaurant().getId());
+        return toResponse(saved);
     }
 
+    @Transactional
     public void toggleAvailability(Long itemId, Long ownerId) {
         MenuItem item = menuItemRepository.findById(itemId)
                 .orElseThrow(() -> new RuntimeException("Menu item not found"));
@@ -73,8 +92,10 @@ public class MenuItemService {
 
         item.setAvailable(!item.isAvailable());
         menuItemRepository.save(item);
+        menuCache.invalidate(item.getRestaurant().getId());
     }
 
+    @Transactional
     public void deleteMenuItem(Long itemId, Long ownerId) {
         MenuItem item = menuItemRepository.findById(itemId)
                 .orElseThrow(() -> new RuntimeException("Menu item not found"));
@@ -84,6 +105,7 @@ public class MenuItemService {
         }
 
         menuItemRepository.delete(item);
+        menuCache.invalidate(item.getRestaurant().getId());
     }
 
     public MenuItemDto.Response toResponse(MenuItem item) {
@@ -0,0 +1,160 @@
+package com.fooddelivery.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fooddelivery.dto.OrderDto;
+import com.fooddelivery.enums.ExportFormat;
+import com.fooddelivery.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes every order placed in a time range, with its items, straight to an output stream while the
+ * rows are read. Only the order being written is held in memory, so heap use does not grow with the
+ * size of the export. NDJSON lines have the shape of {@link OrderDto.Response}; CSV has one line per
+ * order item with the order columns repeated.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderExportService {
+
+    private static final String[] CSV_COLUMNS = {
+            "order_id", "created_at", "updated_at", "status", "customer_id", "customer_name",
+            "restaurant_id", "restaurant_name", "delivery_agent_id", "delivery_address", "payment_method",
+            "payment_done", "order_subtotal", "delivery_fee", "total_amount", "special_instructions",
+            "item_id", "menu_item_id", "menu_item_name", "quantity", "price", "item_subtotal"
+    };
+
+    // Flushing every line would send one HTTP chunk (and one gzip sync flush) per order
+    private static final int FLUSH_EVERY = 500;
+
+    private final OrderRepository orderRepository;
+    private final ObjectMapper objectMapper;
+
+    public LocalDateTime firstOrderTime() {
+        return orderRepository.findFirstCreatedAt().orElseGet(LocalDateTime::now);
+    }
+
+    @Transactional(readOnly = true)
+    public long export(LocalDateTime from, LocalDateTime to, ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<OrderRepository.ExportRow> rows = orderRepository.streamForExport(from, to)) {
+            return switch (format) {
+                case NDJSON -> writeNdjson(rows.iterator(), out);
+                case CSV -> writeCsv(rows.iterator(), out);
+            };
+        }
+    }
+
+    private long writeNdjson(Iterator<OrderRepository.ExportRow> rows, OutputStream out) throws IOException {
+        long orders = 0;
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            OrderDto.Response current = null;
+            while (rows.hasNext()) {
+                OrderRepository.ExportRow row = rows.next();
+                if (current == null || !current.getId().equals(row.getId())) {
+                    if (current != null) writeLine(writer, json, current);
+                    current = toResponse(row);
+                    if (++orders % FLUSH_EVERY == 0) json.flush();
+                }
+                if (row.getItemId() != null) current.getOrderItems().add(toItem(row));
+            }
+            if (current != null) writeLine(writer, json, current);
+        }
+        return orders;
+    }
+
+    private void writeLine(ObjectWriter writer, JsonGenerator json, OrderDto.Response order) throws IOException {
+        writer.writeValue(json, order);
+        json.writeRaw('\n');
+    }
+
+    private long writeCsv(Iterator<OrderRepository.ExportRow> rows, OutputStream out) throws IOException {
+        long orders = 0;
+        Long lastOrderId = null;
+        Writer csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        csv.write(String.join(",", CSV_COLUMNS));
+        csv.write("\r\n");
+        while (rows.hasNext()) {
+            OrderRepository.ExportRow row = rows.next();
+            if (!row.getId().equals(lastOrderId)) {
+                lastOrderId = row.getId();
+                if (++orders % FLUSH_EVERY == 0) csv.flush();
+            }
+            writeCsvLine(csv, row.getId(), row.getCreatedAt(), row.getUpdatedAt(), row.getStatus(),
+                    row.getCustomerId(), row.getCustomerName(), row.getRestaurantId(), row.getRestaurantName(),
+                    row.getDeliveryAgentId(), row.getDeliveryAddress(), row.getPaymentMethod(), row.getPaymentDone(),
+                    row.getSubtotal(), row.getDeliveryFee(), row.getTotalAmount(), row.getSpecialInstructions(),
+                    row.getItemId(), row.getMenuItemId(), row.getMenuItemName(), row.getQuantity(),
+                    row.getPrice(), row.getItemSubtotal());
+        }
+        csv.flush();
+        return orders;
+    }
+
+    private void writeCsvLine(Writer csv, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) csv.write(',');
+            if (values[i] instanceof LocalDateTime time) csv.write(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(time));
+            else if (values[i] != null) csv.write(csvField(values[i].toString()));
+        }
+        csv.write("\r\n");
+    }
+
+    // RFC 4180 quoting
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private OrderDto.Response toResponse(OrderRepository.ExportRow row) {
+        OrderDto.Response res = new OrderDto.Response();
+        res.setId(row.getId());
+        res.setCustomerId(row.getCustomerId());
+        res.setCustomerName(row.getCustomerName());
+        res.setRestaurantId(row.getRestaurantId());
+        res.setRestaurantName(row.getRestaurantName());
+        res.setDeliveryAgentId(row.getDeliveryAgentId());
+        res.setOrderItems(new ArrayList<>());
+        res.setStatus(row.getStatus());
+        res.setDeliveryAddress(row.getDeliveryAddress());
+        res.setSubtotal(row.getSubtotal());
+        res.setDeliveryFee(row.getDeliveryFee());
+        res.setTotalAmount(row.getTotalAmount());
+        res.setPaymentMethod(row.getPaymentMethod());
+        res.setPaymentDone(row.getPaymentDone());
+        res.setSpecialInstructions(row.getSpecialInstructions());
+        res.setCreatedAt(row.getCreatedAt());
+        res.setUpdatedAt(row.getUpdatedAt());
+        return res;
+    }
+
+    private OrderDto.OrderItemResponse toItem(OrderRepository.ExportRow row) {
+        OrderDto.OrderItemResponse item = new OrderDto.OrderItemResponse();
+        item.setId(row.getItemId());
+        item.setMenuItemId(row.getMenuItemId());
+        item.setMenuItemName(row.getMenuItemName());
+        item.setQuantity(row.getQuantity());
+        item.setPrice(row.getPrice());
+        item.setSubtotal(row.getItemSubtotal());
+        return item;
+    }
+}
@@ -1,15 +1,35 @@
 package com.fooddelivery.service;
 
+import com.fooddelivery.analytics.OrderRollupWriter;
+import com.fooddelivery.datasource.ReplicaRoutingDataSource;
 import com.fooddelivery.dto.OrderDto;
 import com.fooddelivery.entity.*;
 import com.fooddelivery.enums.OrderStatus;
+import com.fooddelivery.enums.Role;
+import com.fooddelivery.eta.KitchenLoadTracker;
+import com.fooddelivery.exception.OrderStateConflictException;
+import com.fooddelivery.metrics.BusinessMetrics;
 import com.fooddelivery.repository.*;
+import com.fooddelivery.stream.OrderEventStream;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,14 +40,23 @@ public class OrderService {
     private final RestaurantRepository restaurantRepository;
     private final MenuItemRepository menuItemRepository;
     private final UserRepository userRepository;
+    private final OrderEventStream orderEventStream;
+    private final DispatchService dispatchService;
+    private final KitchenLoadTracker kitchenLoad;
+    private final BusinessMetrics metrics;
+    private final OrderRollupWriter rollupWriter;
+
+    private static final int DISPATCH_BATCH = 50;
+    private static final List<OrderStatus> ACTIVE_STATUSES = List.of(
+            OrderStatus.PENDING, OrderStatus.CONFIRMED, OrderStatus.PREPARING, OrderStatus.OUT_FOR_DELIVERY);
 
     @Transactional
-    public OrderDto.Response placeOrder(OrderDto.CreateRequest request, User customer) {
+    public OrderDto.Response placeOrder(OrderDto.CreateRequest request, Long customerId) {
         Restaurant restaurant = restaurantRepository.findById(request.getRestaurantId())
                 .orElseThrow(() -> new RuntimeException("Restaurant not found"));
 
         Order order = Order.builder()
-                .customer(customer)
+                .customer(userRepository.getReferenceById(customerId))
                 .restaurant(restaurant)
                 .deliveryAddress(request.getDeliveryAddress())
                 .paymentMethod(request.getPaymentMethod())
@@ -35,12 +64,21 @@ public class OrderService {
                 .deliveryFee(restaurant.getDeliveryFee())
                 .build();
 
+        // Resolve every line item in one query, scoped to the ordered restaurant
+        Set<Long> menuItemIds = request.getItems().stream()
+                .map(OrderDto.OrderItemRequest::getMenuItemId)
+                .collect(Collectors.toSet());
+        Map<Long, MenuItem> menuItems = menuItemRepository.findByIdInAndRestaurantId(menuItemIds, restaurant.getId()).stream()
+                .collect(Collectors.toMap(MenuItem::getId, Function.identity()));
+
         List<OrderItem> orderItems = new ArrayList<>();
         double subtotal = 0;
 
         for (OrderDto.OrderItemRequest itemReq : request.getItems()) {
-            MenuItem menuItem = menuItemRepository.findById(itemReq.getMenuItemId())
-                    .orElseThrow(() -> new RuntimeException("Menu item not found"));
+            MenuItem menuItem = menuItems.get(itemReq.getMenuItemId());
+            if (menuItem == null) {
+                throw new RuntimeException("Menu item not found");
+            }
 
             double itemSubtotal = menuItem.getPrice() * itemReq.getQuantity();
             subtotal += itemSubtotal;
@@ -60,16 +98,20 @@ public class OrderService {
         order.setSubtotal(subtotal);
         order.setTotalAmount(subtotal + restaurant.getDeliveryFee());
 
-        return toResponse(orderRepository.save(order));
+        Order saved = orderRepository.save(order);
+        metrics.orderPlaced(saved.getTotalAmount());
+        publishStatus(saved);
+        return toResponse(saved);
     }
 
-    public List<OrderDto.Response> getMyOrders(Long customerId) {
-        return orderRepository.findByCustomerIdOrderByCreatedAtDesc(customerId).stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public OrderDto.PageResponse getMyOrders(Long customerId, String cursor, int size) {
+        Cursor c = decodeCursor(cursor);
+        return toPage(orderRepository.findCustomerPage(customerId, c.createdAt(), c.id(), pageOf(size)), size);
     }
 
-    public List<OrderDto.Response> getRestaurantOrders(Long restaurantId, Long ownerId) {
+    @Transactional(readOnly = true)
+    public OrderDto.PageResponse getRestaurantOrders(Long restaurantId, Long ownerId, String cursor, int size) {
         Restaurant restaurant = restaurantRepository.findById(restaurantId)
                 .orElseThrow(() -> new RuntimeException("Restaurant not found"));
 
@@ -77,65 +119,209 @@ public class OrderService {
             throw new RuntimeException("Unauthorized");
         }
 
-        return orderRepository.findByRestaurantIdOrderByCreatedAtDesc(restaurantId).stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+        Cursor c = decodeCursor(cursor);
+        return toPage(orderRepository.findRestaurantPage(restaurantId, c.createdAt(), c.id(), pageOf(size)), size);
     }
 
-    public List<OrderDto.Response> getAllOrders() {
-        return orderRepository.findAll().stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public OrderDto.PageResponse getAllOrders(String cursor, int size) {
+        Cursor c = decodeCursor(cursor);
+        return toPage(orderRepository.findAllPage(c.createdAt(), c.id(), pageOf(size)), size);
     }
 
-    public List<OrderDto.Response> getAgentOrders(Long agentId) {
-        return orderRepository.findByDeliveryAgentIdOrderByCreatedAtDesc(agentId).stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public OrderDto.PageResponse getAgentOrders(Long agentId, String cursor, int size) {
+        Cursor c = decodeCursor(cursor);
+        return toPage(orderRepository.findAgentPage(agentId, c.createdAt(), c.id(), pageOf(size)), size);
     }
 
-    public OrderDto.Response updateOrderStatus(Long orderId, String status, Long userId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found"));
+    @Transactional
+    public OrderDto.Response updateOrderStatus(Long orderId, String status, Long userId, Role role) {
+        OrderStatus target = parseStatus(status);
+        checkActor(orderId, target, userId, role);
+        Set<OrderStatus> from = target.previousStatuses();
+        LocalDateTime now = LocalDateTime.now();
+
+        // Only an agent picking the order up becomes its delivery agent; anyone else keeps the dispatched one
+        boolean agentPickup = target == OrderStatus.OUT_FOR_DELIVERY && role == Role.DELIVERY_AGENT;
+        int updated = agentPickup
+                ? orderRepository.transitionWithAgent(orderId, from, target, userRepository.getReferenceById(userId), now)
+                : orderRepository.transition(orderId, from, target, now);
+        if (updated == 0) {
+            throw transitionFailure(orderId, target);
+        }
+        metrics.orderStatusChanged(target);
 
-        order.setStatus(OrderStatus.valueOf(status));
+        if (target == OrderStatus.PREPARING) {
+            dispatchService.assign(orderId);
+        }
 
-        if (status.equals("OUT_FOR_DELIVERY")) {
-            User agent = userRepository.findById(userId).orElse(null);
-            order.setDeliveryAgent(agent);
+        Order order = orderRepository.findWithDetailsById(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found"));
+        if (agentPickup) {
+            dispatchService.agentTookOrder(userId);
+        } else if (target == OrderStatus.DELIVERED && order.getDeliveryAgent() != null) {
+            dispatchService.agentFreed(order.getDeliveryAgent().getId());
         }
+        publishStatus(order);
+        return toResponse(order);
+    }
 
-        return toResponse(orderRepository.save(order));
+    // Orders that reached PREPARING while no agent was free nearby
+    @Scheduled(fixedDelayString = "${app.dispatch.retry-delay-ms:15000}")
+    @Transactional
+    public void dispatchWaitingOrders() {
+        if (!dispatchService.hasIdleAgents()) return;
+        for (Long orderId : orderRepository.findUnassignedIds(OrderStatus.PREPARING, PageRequest.of(0, DISPATCH_BATCH))) {
+            dispatchService.assign(orderId).ifPresent(agentId -> publishStatus(orderRepository.findWithDetailsById(orderId)
+                    .orElseThrow(() -> new RuntimeException("Order not found"))));
+        }
     }
 
+    @Transactional
     public OrderDto.Response cancelOrder(Long orderId, Long customerId) {
-        Order order = orderRepository.findById(orderId)
+        // Customers may only cancel before the restaurant has confirmed
+        int updated = orderRepository.transitionForCustomer(orderId, customerId,
+                Set.of(OrderStatus.PENDING), OrderStatus.CANCELLED, LocalDateTime.now());
+        if (updated == 0) {
+            Order order = orderRepository.findById(orderId)
+                    .orElseThrow(() -> new RuntimeException("Order not found"));
+            if (!order.getCustomer().getId().equals(customerId)) {
+                throw new RuntimeException("Unauthorized");
+            }
+            throw new OrderStateConflictException(orderId, order.getStatus(), OrderStatus.CANCELLED);
+        }
+
+        metrics.orderStatusChanged(OrderStatus.CANCELLED);
+        return publishAndRespond(orderId);
+    }
+
+    public OrderDto.Response getOrderById(Long orderId) {
+        return toResponse(orderRepository.findWithDetailsById(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found")));
+    }
+
+    public SseEmitter streamOrderEvents(Long userId, Role role, String lastEventId) {
+        return orderEventStream.subscribe(userId, role, lastEventId);
+    }
+
+    private OrderStatus parseStatus(String status) {
+        try {
+            return OrderStatus.valueOf(status);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid order status: " + status);
+        }
+    }
+
+    // Only reached when the conditional update matched nothing: tell a missing order from a lost race
+    // Owners run their own kitchen's steps and agents their own deliveries; admins may do either
+    private void checkActor(Long orderId, OrderStatus target, Long userId, Role role) {
+        if (role == Role.ADMIN) return;
+        OrderRepository.Parties parties = orderRepository.findParties(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
+        boolean allowed = switch (target) {
+            case CONFIRMED, PREPARING, CANCELLED -> role == Role.RESTAURANT_OWNER && userId.equals(parties.getOwnerId());
+            // Pickup of an order dispatched to someone else fails the conditional update instead, as a 409
+            case OUT_FOR_DELIVERY -> role == Role.DELIVERY_AGENT;
+            case DELIVERED -> role == Role.DELIVERY_AGENT && userId.equals(parties.getDeliveryAgentId());
+            case PENDING -> false;
+        };
+        if (!allowed) {
+            throw new AccessDeniedException("Not allowed to move order " + orderId + " to " + target);
+        }
+    }
 
-        if (!order.getCustomer().getId().equals(customerId)) {
-            throw new RuntimeException("Unauthorized");
+    private OrderStateConflictException transitionFailure(Long orderId, OrderStatus target) {
+        OrderStatus current = orderRepository.findStatusById(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found"));
+        if (target.previousStatuses().contains(current)) {
+            // The status was fine, so the order is held by another agent
+            return OrderStateConflictException.assignedToAnotherAgent(orderId, current, target);
         }
+        return new OrderStateConflictException(orderId, current, target);
+    }
 
-        if (order.getStatus() != OrderStatus.PENDING) {
-            throw new RuntimeException("Cannot cancel order in " + order.getStatus() + " state");
+    private OrderDto.Response publishAndRespond(Long orderId) {
+        Order order = orderRepository.findWithDetailsById(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found"));
+        publishStatus(order);
+        return toResponse(order);
+    }
+
+    // Restored from the primary: a lagging replica would miss the orders placed just before a restart
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void restoreKitchenLoad() {
+        for (OrderRepository.ActiveOrder o : ReplicaRoutingDataSource.onPrimary(() -> orderRepository.findActive(ACTIVE_STATUSES))) {
+            kitchenLoad.restore(o.getId(), o.getRestaurantId(), o.getStatus(),
+                    o.getUpdatedAt() != null ? o.getUpdatedAt() : o.getCreatedAt());
         }
+    }
+
+    private void publishStatus(Order order) {
+        kitchenLoad.record(order.getId(), order.getRestaurant().getId(), order.getStatus());
+        rollupWriter.record(order);
 
-        order.setStatus(OrderStatus.CANCELLED);
-        return toResponse(orderRepository.save(order));
+        OrderDto.StatusEvent event = new OrderDto.StatusEvent();
+        event.setOrderId(order.getId());
+        event.setStatus(order.getStatus());
+        event.setCustomerId(order.getCustomer().getId());
+        event.setRestaurantId(order.getRestaurant().getId());
+        if (order.getDeliveryAgent() != null) event.setDeliveryAgentId(order.getDeliveryAgent().getId());
+        event.setUpdatedAt(LocalDateTime.now());
+        User owner = order.getRestaurant().getOwner();
+        orderEventStream.publish(event, owner != null ? owner.getId() : null);
     }
 
-    public OrderDto.Response getOrderById(Long orderId) {
-        return toResponse(orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found")));
+    // One extra row is fetched to tell whether another page follows
+    private Pageable pageOf(int size) {
+        return PageRequest.of(0, size + 1);
+    }
+
+    private OrderDto.PageResponse toPage(List<Order> rows, int size) {
+        OrderDto.PageResponse page = new OrderDto.PageResponse();
+        boolean hasNext = rows.size() > size;
+        List<Order> orders = hasNext ? rows.subList(0, size) : rows;
+        if (!orders.isEmpty()) {
+            orderRepository.fetchItems(orders);
+        }
+        page.setOrders(orders.stream().map(this::toResponse).collect(Collectors.toList()));
+        if (hasNext) {
+            Order last = orders.get(orders.size() - 1);
+            page.setNextCursor(encodeCursor(last.getCreatedAt(), last.getId()));
+        }
+        return page;
+    }
+
+    private record Cursor(LocalDateTime createdAt, Long id) {}
+
+    private static final Cursor FIRST_PAGE = new Cursor(LocalDateTime.of(9999, 12, 31, 23, 59), Long.MAX_VALUE);
+
+    private String encodeCursor(LocalDateTime createdAt, Long id) {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Cursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) return FIRST_PAGE;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            return new Cursor(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
     }
 
-    private OrderDto.Response toResponse(Order order) {
+    // Package-private so the JMH mapper benchmark can reach it
+    OrderDto.Response toResponse(Order order) {
         OrderDto.Response res = new OrderDto.Response();
         res.setId(order.getId());
         res.setCustomerId(order.getCustomer().getId());
         res.setCustomerName(order.getCustomer().getName());
         res.setRestaurantId(order.getRestaurant().getId());
         res.setRestaurantName(order.getRestaurant().getName());
+        if (order.getDeliveryAgent() != null) res.setDeliveryAgentId(order.getDeliveryAgent().getId());
         res.setStatus(order.getStatus());
         res.setDeliveryAddress(order.getDeliveryAddress());
         res.setSubtotal(order.getSubtotal());
@@ -146,6 +332,9 @@ public class OrderService {
         res.setSpecialInstructions(order.getSpecialInstructions());
         res.setCreatedAt(order.getCreatedAt());
         res.setUpdatedAt(order.getUpdatedAt());
+        res.setEstimatedDeliveryAt(kitchenLoad.estimateDeliveredAt(order.getId(), order.getRestaurant().getId(),
+                order.getStatus(), order.getRestaurant().getDeliveryTime(),
+                order.getUpdatedAt() != null ? order.getUpdatedAt() : order.getCreatedAt()));
 
         if (order.getOrderItems() != null) {
             List<OrderDto.OrderItemResponse> items = order.getOrderItems().stream().map(oi -> {
@@ -1,11 +1,21 @@
 package com.fooddelivery.service;
 
+import com.fooddelivery.cache.RestaurantCatalogCache;
+import com.fooddelivery.datasource.ReplicaRoutingDataSource;
 import com.fooddelivery.dto.RestaurantDto;
 import com.fooddelivery.entity.Restaurant;
-import com.fooddelivery.entity.User;
+import com.fooddelivery.eta.KitchenLoadTracker;
+import com.fooddelivery.geo.RestaurantGeoIndex;
 import com.fooddelivery.repository.RestaurantRepository;
+import com.fooddelivery.repository.UserRepository;
+import com.fooddelivery.search.RestaurantSearchIndex;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -15,38 +25,63 @@ import java.util.stream.Collectors;
 public class RestaurantService {
 
     private final RestaurantRepository restaurantRepository;
+    private final UserRepository userRepository;
+    private final RestaurantCatalogCache catalogCache;
+    private final RestaurantSearchIndex searchIndex;
+    private final RestaurantGeoIndex geoIndex;
+    private final KitchenLoadTracker kitchenLoad;
+
+    // Like the cache fills below, the indexes are built from the primary
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildSearchIndex() {
+        List<RestaurantDto.Response> restaurants = ReplicaRoutingDataSource.onPrimary(restaurantRepository::findAll).stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+        searchIndex.rebuild(restaurants);
+        geoIndex.rebuild(restaurants);
+    }
 
+    // Cache fills read the primary, so a lagging replica can't leave stale entries behind
     public List<RestaurantDto.Response> getAllRestaurants() {
-        return restaurantRepository.findAll().stream()
+        return withEta(catalogCache.getAll(() -> ReplicaRoutingDataSource.onPrimary(restaurantRepository::findAll).stream()
                 .map(this::toResponse)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList())));
     }
 
     public List<RestaurantDto.Response> getOpenRestaurants() {
-        return restaurantRepository.findByOpenTrue().stream()
+        return withEta(catalogCache.getOpen(() -> ReplicaRoutingDataSource.onPrimary(restaurantRepository::findByOpenTrue).stream()
                 .map(this::toResponse)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList())));
     }
 
     public RestaurantDto.Response getRestaurantById(Long id) {
-        Restaurant r = restaurantRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Restaurant not found"));
-        return toResponse(r);
+        return withEta(catalogCache.getById(id, key -> toResponse(ReplicaRoutingDataSource.onPrimary(() -> restaurantRepository.findById(key))
+                .orElseThrow(() -> new RuntimeException("Restaurant not found")))));
     }
 
     public List<RestaurantDto.Response> searchRestaurants(String query) {
-        return restaurantRepository.searchRestaurants(query).stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+        return withEta(searchIndex.search(query));
+    }
+
+    public List<RestaurantDto.Response> getNearbyRestaurants(double lat, double lng) {
+        return withEta(geoIndex.nearby(lat, lng));
     }
 
+    @Transactional(readOnly = true)
     public List<RestaurantDto.Response> getMyRestaurants(Long ownerId) {
-        return restaurantRepository.findByOwnerId(ownerId).stream()
+        return withEta(restaurantRepository.findByOwnerId(ownerId).stream()
                 .map(this::toResponse)
+                .collect(Collectors.toList()));
+    }
+
+    public List<RestaurantDto.KitchenLoad> getKitchenLoads() {
+        return getAllRestaurants().stream()
+                .map(kitchenLoad::load)
                 .collect(Collectors.toList());
     }
 
-    public RestaurantDto.Response createRestaurant(RestaurantDto.CreateRequest request, User owner) {
+    @Transactional
+    public RestaurantDto.Response createRestaurant(RestaurantDto.CreateRequest request, Long ownerId) {
         Restaurant restaurant = Restaurant.builder()
                 .name(request.getName())
                 .description(request.getDescription())
@@ -55,15 +90,21 @@ public class RestaurantService {
                 .imageUrl(request.getImageUrl())
                 .cuisine(request.getCuisine())
                 .openingHours(request.getOpeningHours())
+                .latitude(request.getLatitude())
+                .longitude(request.getLongitude())
                 .deliveryTime(request.getDeliveryTime())
                 .deliveryFee(request.getDeliveryFee())
                 .minOrderAmount(request.getMinOrderAmount())
-                .owner(owner)
+                .deliveryRadiusKm(request.getDeliveryRadiusKm())
+                .owner(userRepository.getReferenceById(ownerId))
                 .build();
 
-        return toResponse(restaurantRepository.save(restaurant));
+        Restaurant saved = restaurantRepository.save(restaurant);
+        onRestaurantChanged(saved);
+        return withEta(toResponse(saved));
     }
 
+    @Transactional
     public RestaurantDto.Response updateRestaurant(Long id, RestaurantDto.CreateRequest request, Long ownerId) {
         Restaurant restaurant = restaurantRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Restaurant not found"));
@@ -79,13 +120,19 @@ public class RestaurantService {
         restaurant.setImageUrl(request.getImageUrl());
         restaurant.setCuisine(request.getCuisine());
         restaurant.setOpeningHours(request.getOpeningHours());
+        restaurant.setLatitude(request.getLatitude());
+        restaurant.setLongitude(request.getLongitude());
         restaurant.setDeliveryTime(request.getDeliveryTime());
         restaurant.setDeliveryFee(request.getDeliveryFee());
         restaurant.setMinOrderAmount(request.getMinOrderAmount());
+        restaurant.setDeliveryRadiusKm(request.getDeliveryRadiusKm());
 
-        return toResponse(restaurantRepository.save(restaurant));
+        Restaurant saved = restaurantRepository.save(restaurant);
+        onRestaurantChanged(saved);
+        return withEta(toResponse(saved));
     }
 
+    @Transactional
     public void toggleRestaurantStatus(Long id, Long ownerId) {
         Restaurant restaurant = restaurantRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Restaurant not found"));
@@ -95,7 +142,50 @@ public class RestaurantService {
         }
 
         restaurant.setOpen(!restaurant.isOpen());
-        restaurantRepository.save(restaurant);
+        onRestaurantChanged(restaurantRepository.save(restaurant));
+    }
+
+    public void refreshRestaurant(Long id) {
+        restaurantRepository.findById(id).ifPresent(this::onRestaurantChanged);
+    }
+
+    // After a bulk write: drop every cached restaurant and re-index the whole catalog once it has committed
+    public void reloadCatalog() {
+        catalogCache.flush();
+        afterCommit(this::buildSearchIndex);
+    }
+
+    // Keeps the catalog cache and search/geo indexes in step with a restaurant row that was just written.
+    // Like the cache, the indexes only change once the write commits, so a rollback leaves nothing behind.
+    public void onRestaurantChanged(Restaurant restaurant) {
+        catalogCache.invalidate(restaurant.getId());
+        RestaurantDto.Response response = toResponse(restaurant);
+        afterCommit(() -> {
+            searchIndex.upsert(response);
+            geoIndex.upsert(response);
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // Shared cached responses are never mutated; each caller gets a copy carrying the current estimate
+    private RestaurantDto.Response withEta(RestaurantDto.Response r) {
+        return r.withEstimatedDeliveryMinutes(kitchenLoad.estimateMinutes(r));
+    }
+
+    private List<RestaurantDto.Response> withEta(List<RestaurantDto.Response> restaurants) {
+        return restaurants.stream().map(this::withEta).collect(Collectors.toList());
     }
 
     public RestaurantDto.Response toResponse(Restaurant r) {
@@ -108,11 +198,14 @@ public class RestaurantService {
         res.setImageUrl(r.getImageUrl());
         res.setCuisine(r.getCuisine());
         res.setOpeningHours(r.getOpeningHours());
+        res.setLatitude(r.getLatitude());
+        res.setLongitude(r.getLongitude());
         res.setRating(r.getRating());
         res.setReviewCount(r.getReviewCount());
         res.setDeliveryTime(r.getDeliveryTime());
         res.setDeliveryFee(r.getDeliveryFee());
         res.setMinOrderAmount(r.getMinOrderAmount());
+        res.setDeliveryRadiusKm(r.getDeliveryRadiusKm());
         res.setOpen(r.isOpen());
         if (r.getOwner() != null) res.setOwnerId(r.getOwner().getId());
         return res;
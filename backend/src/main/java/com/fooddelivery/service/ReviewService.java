@@ -1,13 +1,14 @@
 package com.fooddelivery.service;
 
 import com.fooddelivery.dto.ReviewDto;
-import com.fooddelivery.entity.Restaurant;
 import com.fooddelivery.entity.Review;
-import com.fooddelivery.entity.User;
 import com.fooddelivery.repository.RestaurantRepository;
 import com.fooddelivery.repository.ReviewRepository;
+import com.fooddelivery.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -18,30 +19,38 @@ public class ReviewService {
 
     private final ReviewRepository reviewRepository;
     private final RestaurantRepository restaurantRepository;
+    private final UserRepository userRepository;
+    private final RestaurantService restaurantService;
 
-    public ReviewDto.Response addReview(ReviewDto.CreateRequest request, User customer) {
-        Restaurant restaurant = restaurantRepository.findById(request.getRestaurantId())
-                .orElseThrow(() -> new RuntimeException("Restaurant not found"));
+    @Transactional
+    public ReviewDto.Response addReview(ReviewDto.CreateRequest request, Long customerId) {
+        // One atomic update keeps the aggregate exact under concurrent reviews and locks the row until commit
+        if (restaurantRepository.addRating(request.getRestaurantId(), request.getRating()) == 0) {
+            throw new RuntimeException("Restaurant not found");
+        }
 
         Review review = Review.builder()
-                .customer(customer)
-                .restaurant(restaurant)
+                .customer(userRepository.getReferenceById(customerId))
+                .restaurant(restaurantRepository.getReferenceById(request.getRestaurantId()))
                 .rating(request.getRating())
                 .comment(request.getComment())
                 .build();
 
         Review saved = reviewRepository.save(review);
-
-        // Update restaurant rating
-        Double avgRating = reviewRepository.getAverageRatingByRestaurantId(restaurant.getId());
-        int count = reviewRepository.findByRestaurantIdOrderByCreatedAtDesc(restaurant.getId()).size();
-        restaurant.setRating(avgRating != null ? Math.round(avgRating * 10.0) / 10.0 : 0);
-        restaurant.setReviewCount(count);
-        restaurantRepository.save(restaurant);
-
+        restaurantService.refreshRestaurant(request.getRestaurantId());
         return toResponse(saved);
     }
 
+    // Recomputes every restaurant's rating aggregates from the reviews table
+    @Scheduled(cron = "${app.ratings.rebuild-cron:-}")
+    @Transactional
+    public int rebuildRatingAggregates() {
+        int updated = restaurantRepository.rebuildRatings();
+        restaurantService.reloadCatalog();
+        return updated;
+    }
+
+    @Transactional(readOnly = true)
     public List<ReviewDto.Response> getRestaurantReviews(Long restaurantId) {
         return reviewRepository.findByRestaurantIdOrderByCreatedAtDesc(restaurantId).stream()
                 .map(this::toResponse)
@@ -0,0 +1,60 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.dispatch.AgentLocationIndex;
+import com.fooddelivery.entity.User;
+import com.fooddelivery.enums.Role;
+import com.fooddelivery.repository.UserRepository;
+import com.fooddelivery.security.AccountStatusCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Service
+@RequiredArgsConstructor
+public class UserService {
+
+    private final UserRepository userRepository;
+    private final AccountStatusCache accountStatusCache;
+    private final AgentLocationIndex agentIndex;
+
+    // Tokens are checked against the account status cache, so a deactivation locks the user out on their next request.
+    // A deactivated agent also leaves the dispatch pool; once reactivated, their next location update puts them back
+    @Transactional
+    public void setActive(Long userId, boolean active) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        user.setActive(active);
+        afterCommit(() -> {
+            if (active) {
+                accountStatusCache.evict(userId);
+            } else {
+                accountStatusCache.revoke(userId);
+                agentIndex.remove(userId);
+            }
+        });
+    }
+
+    // Tokens carry the role they were issued with; evicting the cached status makes the old ones stop working.
+    // An agent moved to another role leaves the dispatch pool
+    @Transactional
+    public void changeRole(Long userId, Role role) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        user.setRole(role);
+        afterCommit(() -> {
+            accountStatusCache.evict(userId);
+            if (role != Role.DELIVERY_AGENT) agentIndex.remove(userId);
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
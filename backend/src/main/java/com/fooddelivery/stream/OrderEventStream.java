@@ -0,0 +1,264 @@
+package com.fooddelivery.stream;
+
+import com.fooddelivery.dto.OrderDto;
+import com.fooddelivery.enums.Role;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans order status changes out to Server-Sent Events subscribers. Emitters are async, so an
+ * idle connection holds no servlet thread. Each subscriber has its own bounded queue, drained
+ * by a writer pool one batch at a time, which keeps per-subscriber ordering while a slow
+ * client mostly delays itself; a subscriber whose queue fills up is disconnected and resumes
+ * from the replay buffer when it reconnects.
+ *
+ * <p>Event ids are {@code <epoch>-<sequence>}, where the epoch is fixed at startup. A client
+ * resuming with an id from another epoch (a restart, or another instance) gets a "reset"
+ * event and reloads, since the sequence numbers would otherwise collide.
+ */
+@Slf4j
+@Component
+public class OrderEventStream {
+
+    // Events written to one subscriber before its writer goes back to the pool
+    private static final int DRAIN_BATCH = 32;
+
+    // The owner travels with the event rather than in the subscriber, so a restaurant opened after
+    // its owner subscribed is still seen
+    private record Envelope(long id, OrderDto.StatusEvent event, Long restaurantOwnerId) {}
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final Long userId;
+        private final Role role;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, Long userId, Role role, int queueSize) {
+            this.emitter = emitter;
+            this.userId = userId;
+            this.role = role;
+            this.queue = new ArrayBlockingQueue<>(queueSize);
+        }
+
+        boolean canSee(Envelope envelope) {
+            OrderDto.StatusEvent event = envelope.event();
+            return switch (role) {
+                case ADMIN -> true;
+                case CUSTOMER -> userId.equals(event.getCustomerId());
+                case RESTAURANT_OWNER -> userId.equals(envelope.restaurantOwnerId());
+                case DELIVERY_AGENT -> userId.equals(event.getDeliveryAgentId());
+            };
+        }
+    }
+
+    private final long timeoutMillis;
+    private final int replaySize;
+    private final int queueSize;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final ArrayDeque<Envelope> replay = new ArrayDeque<>();
+    private long lastEventId;
+
+    private final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
+    // Deliberately platform threads: emitter writes block on slow clients, and this keeps
+    // them off the request carriers when virtual threads are enabled. A client that stops
+    // reading holds a writer until the connector's write timeout fails its send, and once as
+    // many clients have stalled as there are writers, everyone else's events wait behind them.
+    // The pool is sized well above the stalls expected within one write timeout; idle writers
+    // exit, so the headroom costs nothing while every client keeps up.
+    private final ThreadPoolExecutor writers;
+
+    public OrderEventStream(@Value("${app.orders.stream.timeout-ms:1800000}") long timeoutMillis,
+                            @Value("${app.orders.stream.replay-size:1000}") int replaySize,
+                            @Value("${app.orders.stream.queue-size:256}") int queueSize,
+                            @Value("${app.orders.stream.writer-threads:32}") int writerThreads) {
+        this.timeoutMillis = timeoutMillis;
+        this.replaySize = replaySize;
+        this.queueSize = queueSize;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.writers = new ThreadPoolExecutor(writerThreads, writerThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread t = new Thread(r, "order-event-writer-" + threadNumber.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        this.writers.allowCoreThreadTimeOut(true);
+    }
+
+    public SseEmitter subscribe(Long userId, Role role, String lastSeenEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        register(emitter, userId, role, lastSeenEventId);
+        return emitter;
+    }
+
+    void register(SseEmitter emitter, Long userId, Role role, String lastSeenEventId) {
+        Subscriber subscriber = new Subscriber(emitter, userId, role, queueSize);
+        emitter.onCompletion(() -> close(subscriber));
+        emitter.onTimeout(() -> close(subscriber));
+        emitter.onError(e -> close(subscriber));
+
+        // Registration and the replay snapshot happen under the same lock as publish,
+        // so a resuming client sees neither a gap nor a duplicate
+        synchronized (replay) {
+            List<Envelope> missed = missedSince(lastSeenEventId);
+            if (missed != null) {
+                missed = missed.stream().filter(subscriber::canSee).toList();
+            }
+            subscribers.add(subscriber);
+            if (missed == null || missed.size() >= queueSize) {
+                enqueue(subscriber, SseEmitter.event().id(eventId(lastEventId)).name("reset").data("replay unavailable"));
+            } else {
+                missed.forEach(e -> enqueue(subscriber, toSse(e)));
+            }
+        }
+    }
+
+    // Publishes once the surrounding transaction commits, so clients never see a rolled-back status
+    public void publish(OrderDto.StatusEvent event, Long restaurantOwnerId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    append(event, restaurantOwnerId);
+                }
+            });
+        } else {
+            append(event, restaurantOwnerId);
+        }
+    }
+
+    @Scheduled(fixedRateString = "${app.orders.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        subscribers.forEach(s -> enqueue(s, SseEmitter.event().comment("heartbeat")));
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        writers.shutdownNow();
+        subscribers.forEach(s -> s.emitter.complete());
+    }
+
+    private void append(OrderDto.StatusEvent event, Long restaurantOwnerId) {
+        synchronized (replay) {
+            Envelope envelope = new Envelope(++lastEventId, event, restaurantOwnerId);
+            replay.addLast(envelope);
+            if (replay.size() > replaySize) replay.removeFirst();
+            // One builder per subscriber: building an SseEventBuilder is not repeatable
+            subscribers.stream()
+                    .filter(s -> s.canSee(envelope))
+                    .forEach(s -> enqueue(s, toSse(envelope)));
+        }
+    }
+
+    // Never blocks the publishing thread: a full queue means the client has fallen behind
+    private void enqueue(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (subscriber.closed) return;
+        if (!subscriber.queue.offer(event)) {
+            log.debug("Disconnecting order event subscriber {} ({}): {} events behind",
+                    subscriber.userId, subscriber.role, queueSize);
+            close(subscriber);
+        }
+        schedule(subscriber);
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                writers.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.draining.set(false);
+            }
+        }
+    }
+
+    // At most one drain per subscriber runs at a time, which is what keeps its events in order
+    private void drain(Subscriber subscriber) {
+        for (int i = 0; i < DRAIN_BATCH; i++) {
+            if (subscriber.closed) {
+                // Completed here rather than by whoever closed it: complete() waits for an in-flight send.
+                // The draining flag stays set, so nothing is scheduled for this subscriber again.
+                subscriber.queue.clear();
+                subscriber.emitter.complete();
+                return;
+            }
+            SseEmitter.SseEventBuilder event = subscriber.queue.poll();
+            if (event == null) break;
+            send(subscriber, event);
+        }
+        subscriber.draining.set(false);
+        if (subscriber.closed || !subscriber.queue.isEmpty()) schedule(subscriber);
+    }
+
+    private void close(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscribers.remove(subscriber);
+    }
+
+    // Returns null when the client is too far behind, or resumes from another epoch
+    private List<Envelope> missedSince(String lastSeenEventId) {
+        if (lastSeenEventId == null || lastSeenEventId.isBlank()) return List.of();
+        String prefix = epoch + "-";
+        if (!lastSeenEventId.startsWith(prefix)) return null;
+        long lastSeen;
+        try {
+            lastSeen = Long.parseLong(lastSeenEventId.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (lastSeen > lastEventId) return null;
+        Envelope oldest = replay.peekFirst();
+        if (oldest != null && oldest.id() > lastSeen + 1) return null;
+        List<Envelope> missed = new ArrayList<>();
+        for (Envelope e : replay) {
+            if (e.id() > lastSeen) missed.add(e);
+        }
+        return missed;
+    }
+
+    private String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    private SseEmitter.SseEventBuilder toSse(Envelope envelope) {
+        return SseEmitter.event()
+                .id(eventId(envelope.id()))
+                .name("status")
+                .data(envelope.event());
+    }
+
+    private void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        try {
+            subscriber.emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            close(subscriber);
+            subscriber.emitter.completeWithError(e);
+        }
+    }
+}
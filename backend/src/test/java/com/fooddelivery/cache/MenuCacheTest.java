@@ -0,0 +1,46 @@
+package com.fooddelivery.cache;
+
+import com.fooddelivery.dto.MenuItemDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MenuCacheTest {
+
+    private final MenuCache cache = new MenuCache(10);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void invalidateChangesOnlyThatMenusTag() {
+        String first = cache.get(1L, this::load).etag();
+        String other = cache.get(2L, this::load).etag();
+
+        cache.invalidate(1L);
+
+        assertThat(cache.etag(1L)).isNotEqualTo(first);
+        assertThat(cache.etag(2L)).isEqualTo(other);
+    }
+
+    // A menu that was never invalidated on its own must still get a new tag, or clients keep their stale copy
+    @Test
+    void flushChangesEveryTag() {
+        Long restaurantId = 1L;
+        String before = cache.get(restaurantId, this::load).etag();
+        assertThat(cache.etag(restaurantId)).isEqualTo(before);
+
+        cache.flush();
+
+        assertThat(cache.etag(restaurantId)).isNotEqualTo(before);
+        MenuCache.Menu reloaded = cache.get(restaurantId, this::load);
+        assertThat(reloaded.etag()).isEqualTo(cache.etag(restaurantId));
+        assertThat(loads).hasValue(2);
+    }
+
+    private List<MenuItemDto.Response> load(Long restaurantId) {
+        loads.incrementAndGet();
+        return List.of();
+    }
+}
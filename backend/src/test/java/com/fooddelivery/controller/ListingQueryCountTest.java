@@ -0,0 +1,177 @@
+package com.fooddelivery.controller;
+
+import com.fooddelivery.dto.OrderDto;
+import com.fooddelivery.entity.MenuItem;
+import com.fooddelivery.entity.Restaurant;
+import com.fooddelivery.entity.Review;
+import com.fooddelivery.entity.User;
+import com.fooddelivery.enums.Role;
+import com.fooddelivery.repository.MenuItemRepository;
+import com.fooddelivery.repository.OrderRepository;
+import com.fooddelivery.repository.RestaurantRepository;
+import com.fooddelivery.repository.ReviewRepository;
+import com.fooddelivery.repository.UserRepository;
+import com.fooddelivery.security.JwtUtil;
+import com.fooddelivery.service.OrderService;
+import com.fooddelivery.support.StatementCounter;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Every listing endpoint must cost the same number of statements for one row as for a full page:
+ * a count that grows with the rows is an N+1 on some lazy relation.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ListingQueryCountTest {
+
+    private static final int ORDERS = 12;
+    private static final int REVIEWERS = 6;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JwtUtil jwtUtil;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ReviewRepository reviewRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private StatementCounter statements;
+    private User customer;
+    private User owner;
+    private User agent;
+    private User admin;
+    private Restaurant restaurant;
+
+    @BeforeAll
+    void seed() {
+        statements = new StatementCounter(entityManagerFactory);
+        customer = userRepository.findByEmail("customer@food.com").orElseThrow();
+        owner = userRepository.findByEmail("owner@food.com").orElseThrow();
+        agent = userRepository.findByEmail("agent@food.com").orElseThrow();
+        admin = userRepository.findByEmail("admin@food.com").orElseThrow();
+        restaurant = restaurantRepository.findByOwnerId(owner.getId()).get(0);
+
+        List<MenuItem> menu = menuItemRepository.findByRestaurantId(restaurant.getId());
+        for (int i = 0; i < ORDERS; i++) {
+            OrderDto.CreateRequest request = new OrderDto.CreateRequest();
+            request.setRestaurantId(restaurant.getId());
+            request.setDeliveryAddress("123 Main St, City");
+            request.setItems(menu.stream().limit(1 + i % menu.size()).map(m -> {
+                OrderDto.OrderItemRequest item = new OrderDto.OrderItemRequest();
+                item.setMenuItemId(m.getId());
+                item.setQuantity(1);
+                return item;
+            }).collect(Collectors.toList()));
+            orderService.placeOrder(request, customer.getId());
+        }
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                orderRepository.findAll().forEach(o -> o.setDeliveryAgent(userRepository.getReferenceById(agent.getId()))));
+
+        // Reviews by different customers, so a lazy customer per review would show up as extra selects
+        for (int i = 0; i < REVIEWERS; i++) {
+            User reviewer = userRepository.save(User.builder()
+                    .name("Reviewer " + i)
+                    .email("reviewer" + i + "@listing.test")
+                    .password("x")
+                    .role(Role.CUSTOMER)
+                    .build());
+            reviewRepository.save(Review.builder()
+                    .customer(reviewer)
+                    .restaurant(restaurant)
+                    .rating(4)
+                    .comment("Good")
+                    .build());
+        }
+    }
+
+    @Test
+    void myOrders() throws Exception {
+        assertFlat("/api/orders/my", customer, 2);
+    }
+
+    @Test
+    void restaurantOrders() throws Exception {
+        assertFlat("/api/orders/restaurant/" + restaurant.getId(), owner, 3);
+    }
+
+    @Test
+    void allOrders() throws Exception {
+        assertFlat("/api/orders/all", admin, 2);
+    }
+
+    @Test
+    void agentOrders() throws Exception {
+        assertFlat("/api/orders/agent", agent, 2);
+    }
+
+    @Test
+    void restaurantReviews() throws Exception {
+        long count = count("/api/reviews/restaurant/" + restaurant.getId(), customer);
+        assertThat(count).isEqualTo(1);
+    }
+
+    @Test
+    void myRestaurants() throws Exception {
+        long count = count("/api/restaurants/my", owner);
+        assertThat(count).isEqualTo(1);
+    }
+
+    // A one-order page and a ten-order page (each order with its items) must cost the same, bounded, statements
+    private void assertFlat(String uri, User user, int expected) throws Exception {
+        mockMvc.perform(get(uri).param("size", "10").header("Authorization", bearer(user)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orders.length()").value(10))
+                .andExpect(jsonPath("$.nextCursor").exists());
+
+        long one = count(uri + "?size=1", user);
+        long ten = count(uri + "?size=10", user);
+        assertThat(ten).as("statements for a page of 10 vs a page of 1").isEqualTo(one);
+        assertThat(one).isEqualTo(expected);
+    }
+
+    private long count(String uri, User user) throws Exception {
+        // Once unmeasured, so per-user lookups cached by the security layer don't count against the endpoint
+        mockMvc.perform(get(uri).header("Authorization", bearer(user))).andExpect(status().isOk());
+        statements.reset();
+        mockMvc.perform(get(uri).header("Authorization", bearer(user))).andExpect(status().isOk());
+        return statements.count();
+    }
+
+    private String bearer(User user) {
+        return "Bearer " + jwtUtil.generateToken(user);
+    }
+}
@@ -0,0 +1,63 @@
+package com.fooddelivery.controller;
+
+import com.fooddelivery.entity.User;
+import com.fooddelivery.repository.UserRepository;
+import com.fooddelivery.security.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// A restaurant without a location would never show up nearby or get a delivery agent
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RestaurantControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JwtUtil jwtUtil;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void restaurantWithoutALocationIsRejected() throws Exception {
+        create("{\"name\":\"Nowhere Diner\",\"address\":\"Unknown\"}")
+                .andExpect(status().isBadRequest());
+        create("{\"name\":\"Nowhere Diner\",\"latitude\":12.97}")
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void locationOutOfRangeIsRejected() throws Exception {
+        create("{\"name\":\"Offworld Diner\",\"latitude\":91,\"longitude\":77.59}")
+                .andExpect(status().isBadRequest());
+        create("{\"name\":\"Offworld Diner\",\"latitude\":12.97,\"longitude\":-181}")
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void restaurantWithALocationIsCreated() throws Exception {
+        create("{\"name\":\"Located Diner\",\"latitude\":12.97,\"longitude\":77.59,\"deliveryRadiusKm\":7.5}")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.latitude").value(12.97))
+                .andExpect(jsonPath("$.deliveryRadiusKm").value(7.5));
+    }
+
+    private ResultActions create(String body) throws Exception {
+        User owner = userRepository.findByEmail("owner@food.com").orElseThrow();
+        return mockMvc.perform(post("/api/restaurants")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body)
+                .header("Authorization", "Bearer " + jwtUtil.generateToken(owner)));
+    }
+}
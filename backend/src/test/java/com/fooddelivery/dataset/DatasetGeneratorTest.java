@@ -0,0 +1,69 @@
+package com.fooddelivery.dataset;
+
+import com.fooddelivery.dto.OrderDto;
+import com.fooddelivery.entity.MenuItem;
+import com.fooddelivery.entity.User;
+import com.fooddelivery.repository.MenuItemRepository;
+import com.fooddelivery.repository.UserRepository;
+import com.fooddelivery.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The dataset profile at a small scale: the configured rows exist and the app keeps working on top of them
+@SpringBootTest(properties = {
+        "app.dataset.users=2000",
+        "app.dataset.restaurants=100",
+        "app.dataset.menu-items-per-restaurant=10",
+        "app.dataset.orders=5000",
+})
+@ActiveProfiles({"test", "dataset"})
+class DatasetGeneratorTest {
+
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Test
+    void loadsTheConfiguredCardinalities() {
+        assertThat(count("SELECT COUNT(*) FROM users WHERE email LIKE '%@example.com'")).isEqualTo(2000);
+        assertThat(count("SELECT COUNT(*) FROM restaurants WHERE latitude IS NOT NULL")).isGreaterThanOrEqualTo(100);
+        assertThat(count("SELECT COUNT(*) FROM orders")).isGreaterThanOrEqualTo(5000);
+        assertThat(count("SELECT COUNT(*) FROM order_items")).isGreaterThanOrEqualTo(5000);
+        // Ratings are rebuilt from the generated reviews
+        assertThat(count("SELECT COUNT(*) FROM restaurants WHERE review_count > 0")).isPositive();
+    }
+
+    @Test
+    void newOrdersGetIdsPastTheGeneratedOnes() {
+        long maxOrderId = count("SELECT MAX(id) FROM orders");
+        User customer = userRepository.findByEmail("customer@food.com").orElseThrow();
+        MenuItem item = menuItemRepository.findAll().get(0);
+
+        OrderDto.OrderItemRequest line = new OrderDto.OrderItemRequest();
+        line.setMenuItemId(item.getId());
+        line.setQuantity(1);
+        OrderDto.CreateRequest request = new OrderDto.CreateRequest();
+        request.setRestaurantId(item.getRestaurant().getId());
+        request.setDeliveryAddress("1 Dataset Road");
+        request.setItems(List.of(line));
+
+        assertThat(orderService.placeOrder(request, customer.getId()).getId()).isGreaterThan(maxOrderId);
+    }
+
+    private long count(String sql) {
+        Long n = jdbc.queryForObject(sql, Long.class);
+        return n == null ? 0 : n;
+    }
+}
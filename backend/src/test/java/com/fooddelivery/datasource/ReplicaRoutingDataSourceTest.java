@@ -0,0 +1,122 @@
+package com.fooddelivery.datasource;
+
+import com.fooddelivery.enums.Role;
+import com.fooddelivery.security.AuthUser;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two stand-in replicas: a second in-memory H2 database, and a URL nothing listens on. A marker table
+ * that says "primary" on the primary and "replica" on the replica shows where each read went.
+ */
+@SpringBootTest(properties = {
+        "app.datasource.replica-urls=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1,jdbc:h2:tcp://localhost:1/unreachable",
+        "app.datasource.sticky-window=1s",
+        "spring.datasource.hikari.connection-timeout=1000",
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReplicaRoutingDataSourceTest {
+
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private HikariDataSource primaryDataSource;
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeAll
+    void markDatabases() {
+        mark(new JdbcTemplate(primaryDataSource), "primary");
+        try (HikariDataSource replica = new HikariDataSource()) {
+            replica.setJdbcUrl("jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1");
+            replica.setUsername("sa");
+            mark(new JdbcTemplate(replica), "replica");
+        }
+    }
+
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplicaAndWritesToThePrimary() {
+        assertThat(readOnly()).isEqualTo("replica");
+        assertThat(readWrite()).isEqualTo("primary");
+        // Outside a transaction nothing is known to be read-only
+        assertThat(where()).isEqualTo("primary");
+    }
+
+    @Test
+    void unreachableReplicaIsSkipped() {
+        // Round robin would hand every other read to the unreachable replica if the startup check hadn't caught it
+        for (int i = 0; i < 6; i++) {
+            assertThat(readOnly()).isEqualTo("replica");
+        }
+        routingDataSource.checkReplicas();
+        assertThat(readOnly()).isEqualTo("replica");
+    }
+
+    @Test
+    void writerReadsItsOwnWritesUntilTheWindowPasses() throws InterruptedException {
+        signIn(1001L);
+        assertThat(readOnly()).isEqualTo("replica");
+        assertThat(readWrite()).isEqualTo("primary");
+        assertThat(readOnly()).isEqualTo("primary");
+
+        // Other users are not held on the primary
+        signIn(1002L);
+        assertThat(readOnly()).isEqualTo("replica");
+
+        signIn(1001L);
+        Thread.sleep(1200);
+        assertThat(readOnly()).isEqualTo("replica");
+    }
+
+    @Test
+    void cacheFillsArePinnedToThePrimary() {
+        assertThat(ReplicaRoutingDataSource.onPrimary(this::readOnly)).isEqualTo("primary");
+        assertThat(readOnly()).isEqualTo("replica");
+    }
+
+    private String readOnly() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+        return tx.execute(status -> where());
+    }
+
+    private String readWrite() {
+        return new TransactionTemplate(transactionManager).execute(status -> where());
+    }
+
+    private String where() {
+        return jdbc.queryForObject("SELECT name FROM routing_marker", String.class);
+    }
+
+    private void signIn(Long userId) {
+        AuthUser user = new AuthUser(userId, "user" + userId + "@routing.test", Role.CUSTOMER);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    private static void mark(JdbcTemplate jdbc, String name) {
+        jdbc.execute("CREATE TABLE routing_marker (name VARCHAR(16))");
+        jdbc.update("INSERT INTO routing_marker (name) VALUES (?)", name);
+    }
+}
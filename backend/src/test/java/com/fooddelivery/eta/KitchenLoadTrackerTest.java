@@ -0,0 +1,60 @@
+package com.fooddelivery.eta;
+
+import com.fooddelivery.dto.RestaurantDto;
+import com.fooddelivery.enums.OrderStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KitchenLoadTrackerTest {
+
+    private static final int THREADS = 8;
+    private static final int ORDERS = 500;
+
+    private final KitchenLoadTracker tracker = new KitchenLoadTracker(60);
+
+    // The same commit can be recorded twice, e.g. by a retry; each order must still be counted once
+    @Test
+    void repeatedTransitionsAreCountedOnce() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (long order = 1; order <= ORDERS; order++) {
+                        tracker.record(order, 1L, OrderStatus.PENDING);
+                        tracker.record(order, 1L, OrderStatus.CONFIRMED);
+                        if (order % 2 == 0) tracker.record(order, 1L, OrderStatus.PREPARING);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures) f.get();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        RestaurantDto.KitchenLoad load = tracker.load(restaurant());
+        assertThat(load.getWaiting()).isEqualTo(ORDERS / 2);
+        assertThat(load.getCooking()).isEqualTo(ORDERS / 2);
+        assertThat(load.getArrivalsPerHour()).isEqualTo((double) ORDERS);
+    }
+
+    private static RestaurantDto.Response restaurant() {
+        RestaurantDto.Response r = new RestaurantDto.Response();
+        r.setId(1L);
+        r.setName("Test Kitchen");
+        r.setDeliveryTime(30);
+        return r;
+    }
+}
@@ -0,0 +1,144 @@
+package com.fooddelivery.metrics;
+
+import com.fooddelivery.dto.OrderDto;
+import com.fooddelivery.entity.MenuItem;
+import com.fooddelivery.entity.Restaurant;
+import com.fooddelivery.entity.User;
+import com.fooddelivery.exception.SqlBudgetExceededException;
+import com.fooddelivery.repository.MenuItemRepository;
+import com.fooddelivery.repository.OrderRepository;
+import com.fooddelivery.repository.RestaurantRepository;
+import com.fooddelivery.repository.UserRepository;
+import com.fooddelivery.security.JwtUtil;
+import com.fooddelivery.service.OrderService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Strict mode fails a listing whose statements grow with its rows, and leaves the real listings alone
+@SpringBootTest(properties = "app.sql-budget.strict=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SqlBudgetStrictModeTest {
+
+    private static final int ORDERS = 10;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JwtUtil jwtUtil;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    private User customer;
+
+    @BeforeAll
+    void seed() {
+        customer = userRepository.findByEmail("customer@food.com").orElseThrow();
+        User owner = userRepository.findByEmail("owner@food.com").orElseThrow();
+        Restaurant restaurant = restaurantRepository.findByOwnerId(owner.getId()).get(0);
+        MenuItem item = menuItemRepository.findByRestaurantId(restaurant.getId()).get(0);
+
+        for (int i = 0; i < ORDERS; i++) {
+            OrderDto.OrderItemRequest line = new OrderDto.OrderItemRequest();
+            line.setMenuItemId(item.getId());
+            line.setQuantity(1);
+            OrderDto.CreateRequest request = new OrderDto.CreateRequest();
+            request.setRestaurantId(restaurant.getId());
+            request.setDeliveryAddress("123 Main St, City");
+            request.setItems(List.of(line));
+            orderService.placeOrder(request, customer.getId());
+        }
+    }
+
+    @Test
+    void listingThatLoadsItemsPerOrderFails() throws Exception {
+        mockMvc.perform(get("/test/leaky-orders").param("limit", "1").header("Authorization", bearer()))
+                .andExpect(status().isOk());
+
+        assertThatThrownBy(() -> mockMvc.perform(get("/test/leaky-orders")
+                        .param("limit", String.valueOf(ORDERS))
+                        .header("Authorization", bearer())))
+                .hasRootCauseInstanceOf(SqlBudgetExceededException.class);
+    }
+
+    @Test
+    void realListingsPassAtAnySize() throws Exception {
+        for (int size : new int[] {1, ORDERS}) {
+            mockMvc.perform(get("/api/orders/my").param("size", String.valueOf(size)).header("Authorization", bearer()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.orders.length()").value(size));
+        }
+    }
+
+    @Test
+    void growthNeedsProportionallyMoreStatements() {
+        StatementGrowthCheck.Observation one = new StatementGrowthCheck.Observation(1, 3);
+        assertThat(StatementGrowthCheck.grew(one, new StatementGrowthCheck.Observation(10, 12))).isTrue();
+        // A cache refill costs the same one extra statement on any page
+        assertThat(StatementGrowthCheck.grew(one, new StatementGrowthCheck.Observation(10, 4))).isFalse();
+        assertThat(StatementGrowthCheck.grew(null, new StatementGrowthCheck.Observation(10, 12))).isFalse();
+    }
+
+    private String bearer() {
+        return "Bearer " + jwtUtil.generateToken(customer);
+    }
+
+    @TestConfiguration
+    @Import(LeakyOrdersController.class)
+    static class LeakyListing {
+    }
+
+    // Touches each order's lazy items, one select per order
+    @RestController
+    static class LeakyOrdersController {
+
+        private final OrderRepository orderRepository;
+        private final UserRepository userRepository;
+        private final TransactionTemplate readOnly;
+
+        LeakyOrdersController(OrderRepository orderRepository, UserRepository userRepository,
+                              PlatformTransactionManager transactionManager) {
+            this.orderRepository = orderRepository;
+            this.userRepository = userRepository;
+            this.readOnly = new TransactionTemplate(transactionManager);
+            this.readOnly.setReadOnly(true);
+        }
+
+        @GetMapping("/test/leaky-orders")
+        List<Integer> itemCounts(@RequestParam int limit) {
+            Long customerId = userRepository.findByEmail("customer@food.com").orElseThrow().getId();
+            return readOnly.execute(status -> orderRepository.findByCustomerIdOrderByCreatedAtDesc(customerId).stream()
+                    .limit(limit)
+                    .map(order -> order.getOrderItems().size())
+                    .toList());
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.fooddelivery.repository;
+
+import com.fooddelivery.enums.OrderStatus;
+import com.fooddelivery.enums.Role;
+import com.fooddelivery.enums.RollupGranularity;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every declared repository method against the small-scale dataset, captures the SQL it sent through
+ * H2's query statistics and fails if EXPLAIN plans any of it as a full table scan.
+ */
+@SpringBootTest(properties = {
+        "app.dataset.users=2000",
+        "app.dataset.restaurants=100",
+        "app.dataset.menu-items-per-restaurant=10",
+        "app.dataset.orders=5000",
+})
+@ActiveProfiles({"test", "dataset"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTest {
+
+    private static final List<Class<?>> REPOSITORIES = List.of(OrderRepository.class, OrderRollupRepository.class,
+            RestaurantRepository.class, MenuItemRepository.class, ReviewRepository.class, UserRepository.class);
+
+    // Whole-table reads by design: the open catalog is cached, ratings are rebuilt for every restaurant,
+    // and a leading-wildcard LIKE can't use a B-tree index
+    private static final Set<String> FULL_SCANS = Set.of(
+            "RestaurantRepository.findByOpenTrue",
+            "RestaurantRepository.rebuildRatings",
+            "RestaurantRepository.findByCuisineContainingIgnoreCase");
+
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private OrderRollupRepository orderRollupRepository;
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+    @Autowired
+    private ReviewRepository reviewRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private final Map<String, Runnable> calls = new LinkedHashMap<>();
+
+    @BeforeAll
+    void declareCalls() {
+        long customerId = id("SELECT MIN(customer_id) FROM orders");
+        long restaurantId = id("SELECT MIN(restaurant_id) FROM orders");
+        long agentId = id("SELECT MIN(id) FROM users WHERE role = 'DELIVERY_AGENT'");
+        long orderId = id("SELECT MAX(id) FROM orders");
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime dayAgo = now.minusDays(1);
+        List<OrderStatus> active = List.of(OrderStatus.CONFIRMED, OrderStatus.PREPARING);
+        PageRequest page = PageRequest.of(0, 20);
+
+        call(OrderRepository.class, "findByCustomerIdOrderByCreatedAtDesc", () -> orderRepository.findByCustomerIdOrderByCreatedAtDesc(customerId));
+        call(OrderRepository.class, "findByRestaurantIdOrderByCreatedAtDesc", () -> orderRepository.findByRestaurantIdOrderByCreatedAtDesc(restaurantId));
+        call(OrderRepository.class, "findByStatusOrderByCreatedAtDesc", () -> orderRepository.findByStatusOrderByCreatedAtDesc(OrderStatus.PENDING));
+        call(OrderRepository.class, "findByDeliveryAgentIdOrderByCreatedAtDesc", () -> orderRepository.findByDeliveryAgentIdOrderByCreatedAtDesc(agentId));
+        call(OrderRepository.class, "findByRestaurantIdAndStatus", () -> orderRepository.findByRestaurantIdAndStatus(restaurantId, OrderStatus.PENDING));
+        call(OrderRepository.class, "findWithDetailsById", () -> orderRepository.findWithDetailsById(orderId));
+        call(OrderRepository.class, "fetchItems", () -> orderRepository.fetchItems(orderRepository.findAllById(List.of(orderId, orderId - 1))));
+        call(OrderRepository.class, "findCustomerPage", () -> orderRepository.findCustomerPage(customerId, now, Long.MAX_VALUE, page));
+        call(OrderRepository.class, "findRestaurantPage", () -> orderRepository.findRestaurantPage(restaurantId, now, Long.MAX_VALUE, page));
+        call(OrderRepository.class, "findAgentPage", () -> orderRepository.findAgentPage(agentId, now, Long.MAX_VALUE, page));
+        call(OrderRepository.class, "findAllPage", () -> orderRepository.findAllPage(now, Long.MAX_VALUE, page));
+        call(OrderRepository.class, "findStatusById", () -> orderRepository.findStatusById(orderId));
+        call(OrderRepository.class, "transition", () -> orderRepository.transition(orderId, active, OrderStatus.DELIVERED, now));
+        call(OrderRepository.class, "transitionWithAgent", () -> orderRepository.transitionWithAgent(orderId, active,
+                OrderStatus.OUT_FOR_DELIVERY, userRepository.getReferenceById(agentId), now));
+        call(OrderRepository.class, "transitionForCustomer", () -> orderRepository.transitionForCustomer(orderId, customerId,
+                active, OrderStatus.CANCELLED, now));
+        call(OrderRepository.class, "assignAgent", () -> orderRepository.assignAgent(orderId, OrderStatus.PREPARING,
+                userRepository.getReferenceById(agentId), now));
+        call(OrderRepository.class, "findRestaurantByOrderId", () -> orderRepository.findRestaurantByOrderId(orderId));
+        call(OrderRepository.class, "findParties", () -> orderRepository.findParties(orderId));
+        call(OrderRepository.class, "findUnassignedIds", () -> orderRepository.findUnassignedIds(OrderStatus.PREPARING, page));
+        call(OrderRepository.class, "existsByDeliveryAgentIdAndStatusIn", () -> orderRepository.existsByDeliveryAgentIdAndStatusIn(agentId, active));
+        call(OrderRepository.class, "findBusyAgentIds", () -> orderRepository.findBusyAgentIds(active));
+        call(OrderRepository.class, "findActive", () -> orderRepository.findActive(active));
+        call(OrderRepository.class, "findRollupSources", () -> orderRepository.findRollupSources(dayAgo, now));
+        call(OrderRepository.class, "findFirstCreatedAt", () -> orderRepository.findFirstCreatedAt());
+        call(OrderRepository.class, "streamForExport", () -> {
+            try (Stream<OrderRepository.ExportRow> rows = orderRepository.streamForExport(dayAgo, now)) {
+                rows.findFirst();
+            }
+        });
+
+        call(OrderRollupRepository.class, "increment", () -> orderRollupRepository.increment(RollupGranularity.HOUR,
+                dayAgo, restaurantId, 1, 0, 0, 10, 12));
+        call(OrderRollupRepository.class, "deleteRange", () -> orderRollupRepository.deleteRange(dayAgo, now));
+        call(OrderRollupRepository.class, "sumByBucket", () -> orderRollupRepository.sumByBucket(RollupGranularity.HOUR, dayAgo, now));
+        call(OrderRollupRepository.class, "sumByBucketForRestaurant", () -> orderRollupRepository.sumByBucketForRestaurant(
+                restaurantId, RollupGranularity.HOUR, dayAgo, now));
+        call(OrderRollupRepository.class, "sumByRestaurant", () -> orderRollupRepository.sumByRestaurant(
+                RollupGranularity.DAY, dayAgo, now, page));
+
+        call(RestaurantRepository.class, "findByOwnerId", () -> restaurantRepository.findByOwnerId(customerId));
+        call(RestaurantRepository.class, "addRating", () -> restaurantRepository.addRating(restaurantId, 4));
+
+        call(MenuItemRepository.class, "findByRestaurantId", () -> menuItemRepository.findByRestaurantId(restaurantId));
+        call(MenuItemRepository.class, "findByIdInAndRestaurantId", () -> menuItemRepository.findByIdInAndRestaurantId(List.of(1L, 2L), restaurantId));
+        call(MenuItemRepository.class, "findByRestaurantIdAndAvailableTrue", () -> menuItemRepository.findByRestaurantIdAndAvailableTrue(restaurantId));
+        call(MenuItemRepository.class, "findByRestaurantIdAndCategory", () -> menuItemRepository.findByRestaurantIdAndCategory(restaurantId, "Mains"));
+
+        call(ReviewRepository.class, "findByRestaurantIdOrderByCreatedAtDesc", () -> reviewRepository.findByRestaurantIdOrderByCreatedAtDesc(restaurantId));
+        call(ReviewRepository.class, "findByCustomerId", () -> reviewRepository.findByCustomerId(customerId));
+
+        call(UserRepository.class, "findByEmail", () -> userRepository.findByEmail("customer@food.com"));
+        call(UserRepository.class, "existsByEmail", () -> userRepository.existsByEmail("customer@food.com"));
+        call(UserRepository.class, "findByRoleAndActiveTrueAndLatitudeIsNotNull", () -> userRepository.findByRoleAndActiveTrueAndLatitudeIsNotNull(Role.DELIVERY_AGENT));
+        call(UserRepository.class, "updateLocation", () -> userRepository.updateLocation(agentId, 40.7, -74.0));
+    }
+
+    @Test
+    void everyDeclaredMethodIsCovered() {
+        List<String> declared = new ArrayList<>();
+        for (Class<?> repository : REPOSITORIES) {
+            Arrays.stream(repository.getDeclaredMethods())
+                    .filter(m -> !m.isDefault() && !m.isSynthetic())
+                    .map(Method::getName)
+                    .forEach(name -> declared.add(repository.getSimpleName() + "." + name));
+        }
+        List<String> known = new ArrayList<>(calls.keySet());
+        known.addAll(FULL_SCANS);
+        assertThat(known).containsExactlyInAnyOrderElementsOf(declared);
+    }
+
+    @Test
+    void noMethodScansAWholeTable() {
+        List<String> scans = new ArrayList<>();
+        calls.forEach((method, call) -> {
+            List<String> statements = statementsRunBy(call);
+            assertThat(statements).as(method).isNotEmpty();
+            for (String sql : statements) {
+                String plan = jdbc.queryForObject("EXPLAIN " + sql, String.class);
+                if (plan.contains(".tableScan")) scans.add(method + " planned as\n" + plan);
+            }
+        });
+        assertThat(scans).isEmpty();
+    }
+
+    private void call(Class<?> repository, String method, Runnable call) {
+        calls.put(repository.getSimpleName() + "." + method, call);
+    }
+
+    // Everything runs in a rolled-back transaction, so the modifying queries leave the dataset as it was
+    private List<String> statementsRunBy(Runnable call) {
+        jdbc.execute("SET QUERY_STATISTICS FALSE");
+        jdbc.execute("SET QUERY_STATISTICS TRUE");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            call.run();
+            status.setRollbackOnly();
+        });
+        List<String> statements = jdbc.queryForList("SELECT SQL_STATEMENT FROM INFORMATION_SCHEMA.QUERY_STATISTICS", String.class);
+        jdbc.execute("SET QUERY_STATISTICS FALSE");
+        // Only queries have a plan; transaction control and this lookup itself are left out
+        return statements.stream()
+                .filter(sql -> sql.matches("(?is)(select|update|delete)\\s.*") && !sql.contains("INFORMATION_SCHEMA"))
+                .toList();
+    }
+
+    private long id(String sql) {
+        Long id = jdbc.queryForObject(sql, Long.class);
+        return id == null ? 0 : id;
+    }
+}
@@ -0,0 +1,75 @@
+package com.fooddelivery.search;
+
+import com.fooddelivery.dto.RestaurantDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RestaurantSearchIndexTest {
+
+    private final RestaurantSearchIndex index = new RestaurantSearchIndex(50);
+
+    @BeforeEach
+    void indexRestaurants() {
+        index.rebuild(List.of(
+                restaurant(1L, "Pizza Palace", "Italian", "Wood-fired pizza and pasta"),
+                restaurant(2L, "Tokyo Bites", "Japanese", "Fresh sushi and ramen"),
+                restaurant(3L, "Curry House", "Indian", "Biryani, tandoori and curries")));
+    }
+
+    @Test
+    void exactAndSubstringWordsMatch() {
+        assertThat(ids("pizza")).containsExactly(1L);
+        assertThat(ids("tandoor")).containsExactly(3L);
+    }
+
+    // A single typo inside a five-letter word leaves too few shared trigrams; the one-edit match catches it
+    @Test
+    void oneTypoStillMatches() {
+        assertThat(ids("pizaa")).containsExactly(1L);   // substitution
+        assertThat(ids("suhsi")).containsExactly(2L);   // swapped neighbours
+        assertThat(ids("sushii")).containsExactly(2L);  // insertion
+        assertThat(ids("rmen")).containsExactly(2L);    // deletion
+        assertThat(ids("cury house")).containsExactly(3L);
+    }
+
+    @Test
+    void unrelatedWordsDoNotMatch() {
+        assertThat(ids("burger")).isEmpty();
+        assertThat(ids("pzaaz")).isEmpty();
+    }
+
+    @Test
+    void exactMatchRanksAboveTypoMatch() {
+        index.upsert(restaurant(4L, "Pizaa Corner", "Fast food", ""));
+        assertThat(ids("pizaa")).containsExactly(4L, 1L);
+    }
+
+    @Test
+    void withinOneEdit() {
+        assertThat(RestaurantSearchIndex.withinOneEdit("sushi", "sushi")).isTrue();
+        assertThat(RestaurantSearchIndex.withinOneEdit("pizaa", "pizza")).isTrue();
+        assertThat(RestaurantSearchIndex.withinOneEdit("suhsi", "sushi")).isTrue();
+        assertThat(RestaurantSearchIndex.withinOneEdit("sushi", "sushis")).isTrue();
+        assertThat(RestaurantSearchIndex.withinOneEdit("ushi", "sushi")).isTrue();
+        assertThat(RestaurantSearchIndex.withinOneEdit("pizzas", "piazza")).isFalse();
+        assertThat(RestaurantSearchIndex.withinOneEdit("sushi", "sashimi")).isFalse();
+    }
+
+    private List<Long> ids(String query) {
+        return index.search(query).stream().map(RestaurantDto.Response::getId).toList();
+    }
+
+    private static RestaurantDto.Response restaurant(Long id, String name, String cuisine, String description) {
+        RestaurantDto.Response r = new RestaurantDto.Response();
+        r.setId(id);
+        r.setName(name);
+        r.setCuisine(cuisine);
+        r.setDescription(description);
+        r.setOpen(true);
+        return r;
+    }
+}
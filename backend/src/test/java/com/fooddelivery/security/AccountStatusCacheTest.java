@@ -0,0 +1,75 @@
+package com.fooddelivery.security;
+
+import com.fooddelivery.entity.User;
+import com.fooddelivery.enums.Role;
+import com.fooddelivery.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Account changes made by an admin must reach tokens that are already out there, without waiting for the TTL
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AccountStatusCacheTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JwtUtil jwtUtil;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void deactivatedAccountIsLockedOutAtOnceAndBackWhenReactivated() throws Exception {
+        User customer = user("deactivate", Role.CUSTOMER);
+        String token = jwtUtil.generateToken(customer);
+
+        myOrders(token, status().isOk());
+        admin("/api/admin/users/" + customer.getId() + "/active?active=false");
+        myOrders(token, status().is4xxClientError());
+        admin("/api/admin/users/" + customer.getId() + "/active?active=true");
+        myOrders(token, status().isOk());
+    }
+
+    @Test
+    void tokenIssuedBeforeARoleChangeStopsWorking() throws Exception {
+        User customer = user("promote", Role.CUSTOMER);
+        String oldToken = jwtUtil.generateToken(customer);
+
+        myOrders(oldToken, status().isOk());
+        admin("/api/admin/users/" + customer.getId() + "/role?role=RESTAURANT_OWNER");
+        myOrders(oldToken, status().is4xxClientError());
+
+        String newToken = jwtUtil.generateToken(userRepository.findById(customer.getId()).orElseThrow());
+        mockMvc.perform(get("/api/restaurants/my").header("Authorization", "Bearer " + newToken))
+                .andExpect(status().isOk());
+    }
+
+    private void myOrders(String token, ResultMatcher expected) throws Exception {
+        mockMvc.perform(get("/api/orders/my").header("Authorization", "Bearer " + token)).andExpect(expected);
+    }
+
+    private void admin(String uri) throws Exception {
+        User admin = userRepository.findByEmail("admin@food.com").orElseThrow();
+        mockMvc.perform(patch(uri).header("Authorization", "Bearer " + jwtUtil.generateToken(admin)))
+                .andExpect(status().isNoContent());
+    }
+
+    private User user(String name, Role role) {
+        return userRepository.save(User.builder()
+                .name(name)
+                .email(name + "@status.test")
+                .password("x")
+                .role(role)
+                .build());
+    }
+}
@@ -0,0 +1,83 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.dispatch.AgentLocationIndex;
+import com.fooddelivery.dto.AgentDto;
+import com.fooddelivery.entity.User;
+import com.fooddelivery.enums.Role;
+import com.fooddelivery.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The in-memory dispatch pool follows committed state: who is an active agent and where they last were
+@SpringBootTest
+@ActiveProfiles("test")
+class DispatchPoolTest {
+
+    @Autowired
+    private DispatchService dispatchService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private AgentLocationIndex agentIndex;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Each test reports its agent at its own spot, far from the seed data, so only that agent can match
+    @Test
+    void deactivatedAgentLeavesThePool() {
+        User agent = agent("deactivated");
+        dispatchService.updateLocation(agent.getId(), at(10.0, 10.0));
+
+        userService.setActive(agent.getId(), false);
+
+        assertThat(agentIndex.claimNearest(10.0, 10.0, 1)).isEmpty();
+    }
+
+    @Test
+    void demotedAgentLeavesThePool() {
+        User agent = agent("demoted");
+        dispatchService.updateLocation(agent.getId(), at(11.0, 11.0));
+
+        userService.changeRole(agent.getId(), Role.CUSTOMER);
+
+        assertThat(agentIndex.claimNearest(11.0, 11.0, 1)).isEmpty();
+    }
+
+    @Test
+    void locationUpdateThatRollsBackLeavesThePoolAlone() {
+        User agent = agent("rolled-back");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            dispatchService.updateLocation(agent.getId(), at(12.0, 12.0));
+            status.setRollbackOnly();
+        });
+        assertThat(agentIndex.claimNearest(12.0, 12.0, 1)).isEmpty();
+
+        dispatchService.updateLocation(agent.getId(), at(12.0, 12.0));
+        assertThat(agentIndex.claimNearest(12.0, 12.0, 1))
+                .hasValueSatisfying(match -> assertThat(match.agentId()).isEqualTo(agent.getId()));
+    }
+
+    private User agent(String name) {
+        return userRepository.save(User.builder()
+                .name(name)
+                .email(name + "@dispatch.test")
+                .password("x")
+                .role(Role.DELIVERY_AGENT)
+                .build());
+    }
+
+    private static AgentDto.LocationUpdate at(double lat, double lng) {
+        AgentDto.LocationUpdate update = new AgentDto.LocationUpdate();
+        update.setLatitude(lat);
+        update.setLongitude(lng);
+        return update;
+    }
+}
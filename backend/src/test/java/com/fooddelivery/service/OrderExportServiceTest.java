@@ -0,0 +1,127 @@
+package com.fooddelivery.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fooddelivery.dto.OrderDto;
+import com.fooddelivery.entity.MenuItem;
+import com.fooddelivery.entity.User;
+import com.fooddelivery.enums.ExportFormat;
+import com.fooddelivery.repository.MenuItemRepository;
+import com.fooddelivery.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Exports of the small-scale dataset: well past the 500-row fetch size, so the rows arrive in several fetches
+@SpringBootTest(properties = {
+        "app.dataset.users=2000",
+        "app.dataset.restaurants=100",
+        "app.dataset.menu-items-per-restaurant=10",
+        "app.dataset.orders=5000",
+})
+@ActiveProfiles({"test", "dataset"})
+class OrderExportServiceTest {
+
+    @Autowired
+    private OrderExportService exportService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void ndjsonHasOneLinePerOrder() throws Exception {
+        LocalDateTime from = exportService.firstOrderTime();
+        LocalDateTime to = LocalDateTime.now().plusDays(1);
+        long orders = count("SELECT COUNT(*) FROM orders WHERE created_at >= ? AND created_at < ?", from, to);
+        assertThat(orders).isGreaterThan(500);
+
+        FlushCountingStream out = new FlushCountingStream();
+        assertThat(exportService.export(from, to, ExportFormat.NDJSON, out)).isEqualTo(orders);
+        // Flushed in blocks of orders, not once per line
+        assertThat(out.flushes).isLessThan((int) orders / 100);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize((int) orders);
+        long items = 0;
+        for (String line : lines) items += objectMapper.readTree(line).get("orderItems").size();
+        assertThat(items).isEqualTo(count("SELECT COUNT(*) FROM order_items i JOIN orders o ON o.id = i.order_id " +
+                "WHERE o.created_at >= ? AND o.created_at < ?", from, to));
+    }
+
+    @Test
+    void csvHasAHeaderAndOneLinePerItem() throws Exception {
+        LocalDateTime from = exportService.firstOrderTime();
+        LocalDateTime to = LocalDateTime.now().plusDays(1);
+        // Orders without items still get a line of their own
+        long lines = count("SELECT COUNT(*) FROM orders o LEFT JOIN order_items i ON i.order_id = o.id " +
+                "WHERE o.created_at >= ? AND o.created_at < ?", from, to);
+        assertThat(lines).isGreaterThan(500);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(from, to, ExportFormat.CSV, out);
+
+        // Records end in CRLF; a bare LF can only appear inside a quoted field
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertThat(csv.split("\r\n", -1)).hasSize((int) lines + 2);
+        assertThat(csv).startsWith("order_id,created_at,");
+    }
+
+    @Test
+    void csvQuotesFieldsWithSeparatorsQuotesAndNewlines() throws Exception {
+        User customer = userRepository.findByEmail("customer@food.com").orElseThrow();
+        MenuItem item = menuItemRepository.findAll().get(0);
+        OrderDto.OrderItemRequest line = new OrderDto.OrderItemRequest();
+        line.setMenuItemId(item.getId());
+        line.setQuantity(2);
+        OrderDto.CreateRequest request = new OrderDto.CreateRequest();
+        request.setRestaurantId(item.getRestaurant().getId());
+        request.setDeliveryAddress("12 Comma Street, Flat 3");
+        request.setSpecialInstructions("Ring twice, say \"hi\"\nthen leave it");
+        request.setItems(List.of(line));
+        Long orderId = orderService.placeOrder(request, customer.getId()).getId();
+        // As stored, which may be less precise than the clock the order was stamped with
+        LocalDateTime createdAt = jdbc.queryForObject("SELECT created_at FROM orders WHERE id = ?", LocalDateTime.class, orderId);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(createdAt, createdAt.plusNanos(1000), ExportFormat.CSV, out);
+
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertThat(csv).contains(",\"12 Comma Street, Flat 3\",");
+        assertThat(csv).contains(",\"Ring twice, say \"\"hi\"\"\nthen leave it\",");
+
+        out.reset();
+        exportService.export(createdAt, createdAt.plusNanos(1000), ExportFormat.NDJSON, out);
+        JsonNode order = objectMapper.readTree(out.toString(StandardCharsets.UTF_8).trim());
+        assertThat(order.get("specialInstructions").asText()).isEqualTo("Ring twice, say \"hi\"\nthen leave it");
+    }
+
+    private static class FlushCountingStream extends ByteArrayOutputStream {
+        int flushes;
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+    }
+
+    private long count(String sql, Object... args) {
+        Long n = jdbc.queryForObject(sql, Long.class, args);
+        return n == null ? 0 : n;
+    }
+}
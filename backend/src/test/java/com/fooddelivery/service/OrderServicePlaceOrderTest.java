@@ -0,0 +1,95 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.dto.OrderDto;
+import com.fooddelivery.entity.MenuItem;
+import com.fooddelivery.entity.User;
+import com.fooddelivery.repository.MenuItemRepository;
+import com.fooddelivery.repository.RestaurantRepository;
+import com.fooddelivery.repository.UserRepository;
+import com.fooddelivery.support.StatementCounter;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// A fresh database puts the pooled id sequences at a known point, so no block fetch lands in a measured placement
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
+class OrderServicePlaceOrderTest {
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private StatementCounter statements;
+    private User customer;
+    private Long restaurantId;
+    private List<MenuItem> menu;
+
+    @BeforeEach
+    void setUp() {
+        statements = new StatementCounter(entityManagerFactory);
+        customer = userRepository.findByEmail("customer@food.com").orElseThrow();
+        restaurantId = restaurantRepository.findAll().get(0).getId();
+        menu = menuItemRepository.findByRestaurantId(restaurantId);
+        // The id sequences are read during the first two placements; keep that out of the measured ones
+        orderService.placeOrder(order(1), customer.getId());
+        orderService.placeOrder(order(1), customer.getId());
+    }
+
+    @Test
+    void placeOrderCostsTheSameStatementsForOneItemOrMany() {
+        long single = statements.count(() -> orderService.placeOrder(order(1), customer.getId()));
+        long group = statements.count(() -> orderService.placeOrder(order(menu.size()), customer.getId()));
+
+        // restaurant, menu items, customer name for the response, order insert, one batched item insert
+        assertThat(single).isEqualTo(5);
+        assertThat(group).isEqualTo(single);
+    }
+
+    @Test
+    void placeOrderRejectsAMenuItemOfAnotherRestaurant() {
+        MenuItem foreign = restaurantRepository.findAll().stream()
+                .filter(r -> !r.getId().equals(restaurantId))
+                .map(r -> menuItemRepository.findByRestaurantId(r.getId()).get(0))
+                .findFirst().orElseThrow();
+        OrderDto.CreateRequest request = order(1);
+        OrderDto.OrderItemRequest item = new OrderDto.OrderItemRequest();
+        item.setMenuItemId(foreign.getId());
+        item.setQuantity(1);
+        request.getItems().add(item);
+
+        assertThatThrownBy(() -> orderService.placeOrder(request, customer.getId()))
+                .hasMessage("Menu item not found");
+    }
+
+    private OrderDto.CreateRequest order(int items) {
+        OrderDto.CreateRequest request = new OrderDto.CreateRequest();
+        request.setRestaurantId(restaurantId);
+        request.setDeliveryAddress("123 Main St, City");
+        request.setItems(menu.stream().limit(items).map(m -> {
+            OrderDto.OrderItemRequest item = new OrderDto.OrderItemRequest();
+            item.setMenuItemId(m.getId());
+            item.setQuantity(2);
+            return item;
+        }).collect(Collectors.toList()));
+        return request;
+    }
+}
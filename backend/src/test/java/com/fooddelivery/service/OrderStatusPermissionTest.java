@@ -0,0 +1,141 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.dto.OrderDto;
+import com.fooddelivery.entity.MenuItem;
+import com.fooddelivery.entity.Restaurant;
+import com.fooddelivery.entity.User;
+import com.fooddelivery.enums.OrderStatus;
+import com.fooddelivery.enums.Role;
+import com.fooddelivery.repository.MenuItemRepository;
+import com.fooddelivery.repository.OrderRepository;
+import com.fooddelivery.repository.RestaurantRepository;
+import com.fooddelivery.repository.UserRepository;
+import com.fooddelivery.security.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Each step of an order belongs to someone: the restaurant's owner for the kitchen, the assigned agent for the delivery
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OrderStatusPermissionTest {
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Test
+    void onlyTheRestaurantsOwnerConfirms() throws Exception {
+        Long orderId = placeOrder();
+        User otherOwner = user("other-owner-" + orderId, Role.RESTAURANT_OWNER);
+        User agent = user("eager-agent-" + orderId, Role.DELIVERY_AGENT);
+
+        updateStatus(orderId, "CONFIRMED", otherOwner).andExpect(status().isForbidden());
+        updateStatus(orderId, "CONFIRMED", agent).andExpect(status().isForbidden());
+        assertThat(orderRepository.findStatusById(orderId)).contains(OrderStatus.PENDING);
+
+        updateStatus(orderId, "CONFIRMED", userRepository.findByEmail("owner@food.com").orElseThrow())
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void ownerCannotDoTheAgentsSteps() throws Exception {
+        Long orderId = placeOrder();
+        User agent = user("assigned-" + orderId, Role.DELIVERY_AGENT);
+        moveTo(orderId, OrderStatus.PREPARING, agent);
+        User owner = userRepository.findByEmail("owner@food.com").orElseThrow();
+
+        updateStatus(orderId, "OUT_FOR_DELIVERY", owner).andExpect(status().isForbidden());
+        assertThat(orderRepository.findStatusById(orderId)).contains(OrderStatus.PREPARING);
+    }
+
+    @Test
+    void onlyTheAssignedAgentDelivers() throws Exception {
+        Long orderId = placeOrder();
+        User agent = user("courier-" + orderId, Role.DELIVERY_AGENT);
+        User other = user("bystander-" + orderId, Role.DELIVERY_AGENT);
+        moveTo(orderId, OrderStatus.PREPARING, agent);
+        updateStatus(orderId, "OUT_FOR_DELIVERY", agent).andExpect(status().isOk());
+
+        updateStatus(orderId, "DELIVERED", other).andExpect(status().isForbidden());
+        updateStatus(orderId, "DELIVERED", userRepository.findByEmail("owner@food.com").orElseThrow())
+                .andExpect(status().isForbidden());
+        assertThat(orderRepository.findStatusById(orderId)).contains(OrderStatus.OUT_FOR_DELIVERY);
+
+        updateStatus(orderId, "DELIVERED", agent).andExpect(status().isOk());
+    }
+
+    @Test
+    void adminMayMoveAnyOrder() throws Exception {
+        Long orderId = placeOrder();
+        updateStatus(orderId, "CONFIRMED", userRepository.findByEmail("admin@food.com").orElseThrow())
+                .andExpect(status().isOk());
+    }
+
+    private ResultActions updateStatus(Long orderId, String status, User user) throws Exception {
+        return mockMvc.perform(patch("/api/orders/" + orderId + "/status")
+                .param("status", status)
+                .header("Authorization", "Bearer " + jwtUtil.generateToken(user)));
+    }
+
+    private Long placeOrder() {
+        User customer = userRepository.findByEmail("customer@food.com").orElseThrow();
+        User owner = userRepository.findByEmail("owner@food.com").orElseThrow();
+        Restaurant restaurant = restaurantRepository.findByOwnerId(owner.getId()).get(0);
+        MenuItem item = menuItemRepository.findByRestaurantId(restaurant.getId()).get(0);
+
+        OrderDto.OrderItemRequest line = new OrderDto.OrderItemRequest();
+        line.setMenuItemId(item.getId());
+        line.setQuantity(1);
+        OrderDto.CreateRequest request = new OrderDto.CreateRequest();
+        request.setRestaurantId(restaurant.getId());
+        request.setDeliveryAddress("123 Main St, City");
+        request.setItems(List.of(line));
+        return orderService.placeOrder(request, customer.getId()).getId();
+    }
+
+    // Sets the status directly, so dispatch doesn't pick an agent for the order
+    private void moveTo(Long orderId, OrderStatus status, User agent) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(tx -> {
+            orderRepository.transition(orderId, Set.of(OrderStatus.PENDING), status, LocalDateTime.now());
+            orderRepository.findById(orderId).orElseThrow().setDeliveryAgent(agent);
+        });
+    }
+
+    private User user(String name, Role role) {
+        return userRepository.save(User.builder()
+                .name(name)
+                .email(name + "@permission.test")
+                .password("x")
+                .role(role)
+                .build());
+    }
+}
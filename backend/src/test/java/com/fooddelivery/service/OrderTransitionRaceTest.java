@@ -0,0 +1,178 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.dto.OrderDto;
+import com.fooddelivery.entity.MenuItem;
+import com.fooddelivery.entity.Restaurant;
+import com.fooddelivery.entity.User;
+import com.fooddelivery.enums.OrderStatus;
+import com.fooddelivery.enums.Role;
+import com.fooddelivery.exception.OrderStateConflictException;
+import com.fooddelivery.repository.MenuItemRepository;
+import com.fooddelivery.repository.OrderRepository;
+import com.fooddelivery.repository.RestaurantRepository;
+import com.fooddelivery.repository.UserRepository;
+import com.fooddelivery.security.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Competing transitions on one order: exactly one caller wins, everyone else gets a typed conflict
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OrderTransitionRaceTest {
+
+    private static final int THREADS = 12;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Test
+    void competingConfirmationsHaveOneWinner() throws Exception {
+        Long orderId = placeOrder();
+        Long ownerId = userRepository.findByEmail("owner@food.com").map(User::getId).orElseThrow();
+
+        List<Object> outcomes = race(t -> orderService.updateOrderStatus(orderId, "CONFIRMED", ownerId, Role.RESTAURANT_OWNER));
+
+        assertThat(outcomes).filteredOn(OrderDto.Response.class::isInstance).hasSize(1);
+        assertThat(outcomes).filteredOn(OrderStateConflictException.class::isInstance).hasSize(THREADS - 1)
+                .allSatisfy(o -> assertThat(((OrderStateConflictException) o).getCurrentStatus()).isEqualTo(OrderStatus.CONFIRMED));
+        assertThat(orderRepository.findStatusById(orderId)).contains(OrderStatus.CONFIRMED);
+    }
+
+    @Test
+    void competingPickupsHaveOneWinningAgent() throws Exception {
+        Long orderId = placeOrder();
+        moveTo(orderId, OrderStatus.PREPARING, null);
+        List<User> agents = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) agents.add(agent("racer" + i + "-" + orderId));
+
+        List<Object> outcomes = race(t -> orderService.updateOrderStatus(orderId, "OUT_FOR_DELIVERY",
+                agents.get(t).getId(), Role.DELIVERY_AGENT));
+
+        List<OrderDto.Response> winners = outcomes.stream()
+                .filter(OrderDto.Response.class::isInstance).map(OrderDto.Response.class::cast).toList();
+        assertThat(winners).hasSize(1);
+        assertThat(outcomes).filteredOn(OrderStateConflictException.class::isInstance).hasSize(THREADS - 1);
+        assertThat(orderRepository.findWithDetailsById(orderId).orElseThrow().getDeliveryAgent().getId())
+                .isEqualTo(winners.get(0).getDeliveryAgentId());
+    }
+
+    @Test
+    void pickupOfAnOrderDispatchedToSomeoneElseIsA409WithItsOwnReason() throws Exception {
+        Long orderId = placeOrder();
+        User dispatched = agent("dispatched-" + orderId);
+        User other = agent("other-" + orderId);
+        moveTo(orderId, OrderStatus.PREPARING, dispatched);
+
+        mockMvc.perform(patch("/api/orders/" + orderId + "/status")
+                        .param("status", "OUT_FOR_DELIVERY")
+                        .header("Authorization", "Bearer " + jwtUtil.generateToken(other)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.reason").value("ASSIGNED_TO_ANOTHER_AGENT"))
+                .andExpect(jsonPath("$.currentStatus").value("PREPARING"));
+        assertThat(orderRepository.findStatusById(orderId)).contains(OrderStatus.PREPARING);
+    }
+
+    private interface Attempt {
+        Object run(int thread) throws Exception;
+    }
+
+    // Starts every attempt at once and returns each result or the exception it threw
+    private List<Object> race(Attempt attempt) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Object>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(pool.submit((Callable<Object>) () -> {
+                    start.await();
+                    return attempt.run(thread);
+                }));
+            }
+            start.countDown();
+            List<Object> outcomes = new ArrayList<>();
+            for (Future<Object> f : futures) {
+                try {
+                    outcomes.add(f.get());
+                } catch (ExecutionException e) {
+                    outcomes.add(e.getCause());
+                }
+            }
+            return outcomes;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Long placeOrder() {
+        User customer = userRepository.findByEmail("customer@food.com").orElseThrow();
+        User owner = userRepository.findByEmail("owner@food.com").orElseThrow();
+        Restaurant restaurant = restaurantRepository.findByOwnerId(owner.getId()).get(0);
+        MenuItem item = menuItemRepository.findByRestaurantId(restaurant.getId()).get(0);
+
+        OrderDto.OrderItemRequest line = new OrderDto.OrderItemRequest();
+        line.setMenuItemId(item.getId());
+        line.setQuantity(1);
+        OrderDto.CreateRequest request = new OrderDto.CreateRequest();
+        request.setRestaurantId(restaurant.getId());
+        request.setDeliveryAddress("123 Main St, City");
+        request.setItems(List.of(line));
+        return orderService.placeOrder(request, customer.getId()).getId();
+    }
+
+    // Sets the status directly, so dispatch doesn't pick an agent for the order
+    private void moveTo(Long orderId, OrderStatus status, User agent) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(tx -> {
+            orderRepository.transition(orderId, Set.of(OrderStatus.PENDING), status, LocalDateTime.now());
+            if (agent != null) {
+                orderRepository.findById(orderId).orElseThrow().setDeliveryAgent(agent);
+            }
+        });
+    }
+
+    private User agent(String name) {
+        return userRepository.save(User.builder()
+                .name(name)
+                .email(name + "@race.test")
+                .password("x")
+                .role(Role.DELIVERY_AGENT)
+                .build());
+    }
+}
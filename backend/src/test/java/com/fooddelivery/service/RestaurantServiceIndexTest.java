@@ -0,0 +1,59 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.dto.RestaurantDto;
+import com.fooddelivery.entity.User;
+import com.fooddelivery.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RestaurantServiceIndexTest {
+
+    @Autowired
+    private RestaurantService restaurantService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void restaurantCreatedInARolledBackTransactionStaysOutOfTheIndexes() {
+        Long ownerId = userRepository.findByEmail("owner@food.com").map(User::getId).orElseThrow();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            restaurantService.createRestaurant(request("Quayside Rollback Bistro", 51.5007, -0.1246), ownerId);
+            status.setRollbackOnly();
+        });
+
+        assertThat(restaurantService.searchRestaurants("Quayside Rollback")).isEmpty();
+        assertThat(restaurantService.getNearbyRestaurants(51.5007, -0.1246)).isEmpty();
+    }
+
+    @Test
+    void committedRestaurantIsSearchableAndNearby() {
+        Long ownerId = userRepository.findByEmail("owner@food.com").map(User::getId).orElseThrow();
+
+        RestaurantDto.Response created = restaurantService.createRestaurant(request("Harbour Commit Grill", 48.8584, 2.2945), ownerId);
+
+        assertThat(restaurantService.searchRestaurants("Harbour Commit"))
+                .extracting(RestaurantDto.Response::getId).contains(created.getId());
+        assertThat(restaurantService.getNearbyRestaurants(48.8584, 2.2945))
+                .extracting(RestaurantDto.Response::getId).contains(created.getId());
+    }
+
+    private RestaurantDto.CreateRequest request(String name, double lat, double lng) {
+        RestaurantDto.CreateRequest request = new RestaurantDto.CreateRequest();
+        request.setName(name);
+        request.setAddress("1 Test Street");
+        request.setLatitude(lat);
+        request.setLongitude(lng);
+        return request;
+    }
+}
@@ -0,0 +1,115 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.dto.RestaurantDto;
+import com.fooddelivery.dto.ReviewDto;
+import com.fooddelivery.entity.Restaurant;
+import com.fooddelivery.entity.User;
+import com.fooddelivery.repository.RestaurantRepository;
+import com.fooddelivery.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ReviewServiceConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int REVIEWS_PER_THREAD = 10;
+    private static final int OWNER_THREADS = 4;
+    private static final int EDITS_PER_OWNER_THREAD = 10;
+
+    @Autowired
+    private ReviewService reviewService;
+    @Autowired
+    private RestaurantService restaurantService;
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void parallelReviewsKeepTheAggregatesExact() throws Exception {
+        Long customerId = userRepository.findByEmail("customer@food.com").map(User::getId).orElseThrow();
+        Long ownerId = userRepository.findByEmail("owner@food.com").map(User::getId).orElseThrow();
+        Long restaurantId = restaurantService.createRestaurant(details("Opening day"), ownerId).getId();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS + OWNER_THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> submitted = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                submitted.add(pool.submit((Callable<Integer>) () -> {
+                    start.await();
+                    int sum = 0;
+                    for (int i = 0; i < REVIEWS_PER_THREAD; i++) {
+                        int rating = 1 + (thread + i) % 5;
+                        ReviewDto.CreateRequest review = new ReviewDto.CreateRequest();
+                        review.setRestaurantId(restaurantId);
+                        review.setRating(rating);
+                        review.setComment("thread " + thread + " review " + i);
+                        reviewService.addReview(review, customerId);
+                        sum += rating;
+                    }
+                    return sum;
+                }));
+            }
+            // The owner edits and toggles the restaurant while the reviews land; neither may undo a rating
+            List<Future<?>> edits = new ArrayList<>();
+            for (int t = 0; t < OWNER_THREADS; t++) {
+                edits.add(pool.submit((Callable<Void>) () -> {
+                    start.await();
+                    for (int i = 0; i < EDITS_PER_OWNER_THREAD; i++) {
+                        if (i % 2 == 0) {
+                            restaurantService.updateRestaurant(restaurantId, details("Edit " + i), ownerId);
+                        } else {
+                            restaurantService.toggleRestaurantStatus(restaurantId, ownerId);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : edits) f.get();
+
+            long expectedSum = 0;
+            for (Future<Integer> f : submitted) expectedSum += f.get();
+            int expectedCount = THREADS * REVIEWS_PER_THREAD;
+
+            Restaurant restaurant = restaurantRepository.findById(restaurantId).orElseThrow();
+            assertThat(restaurant.getReviewCount()).isEqualTo(expectedCount);
+            assertThat(restaurant.getRatingSum()).isEqualTo(expectedSum);
+            assertThat(restaurant.getRating()).isEqualTo(Math.round(expectedSum * 10.0 / expectedCount) / 10.0);
+
+            // The rebuild job recomputes the same aggregates from the reviews table
+            reviewService.rebuildRatingAggregates();
+            Restaurant rebuilt = restaurantRepository.findById(restaurantId).orElseThrow();
+            assertThat(rebuilt.getReviewCount()).isEqualTo(expectedCount);
+            assertThat(rebuilt.getRatingSum()).isEqualTo(expectedSum);
+            assertThat(rebuilt.getRating()).isEqualTo(restaurant.getRating());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static RestaurantDto.CreateRequest details(String description) {
+        RestaurantDto.CreateRequest request = new RestaurantDto.CreateRequest();
+        request.setName("Concurrent Kitchen");
+        request.setDescription(description);
+        request.setLatitude(40.7);
+        request.setLongitude(-74.0);
+        return request;
+    }
+}
@@ -0,0 +1,136 @@
+package com.fooddelivery.stream;
+
+import com.fooddelivery.dto.OrderDto;
+import com.fooddelivery.enums.OrderStatus;
+import com.fooddelivery.enums.Role;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderEventStreamTest {
+
+    private static final Pattern ID = Pattern.compile("id:(\\S+)");
+
+    private final OrderEventStream stream = new OrderEventStream(60_000, 100, 8, 2);
+
+    @AfterEach
+    void shutdown() {
+        stream.shutdown();
+    }
+
+    @Test
+    void clientThatStopsReadingIsDroppedWithoutHoldingUpTheOthers() throws Exception {
+        CountDownLatch stuck = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(stuck);
+        RecordingEmitter fast = new RecordingEmitter(null);
+        stream.register(slow, 1L, Role.ADMIN, null);
+        stream.register(fast, 2L, Role.ADMIN, null);
+
+        // Paced to the fast client, so only the slow one can fall a whole queue behind
+        for (int i = 1; i <= 50; i++) {
+            stream.publish(event(i), 10L);
+            fast.awaitFrames(i);
+        }
+        assertThat(stream.subscriberCount()).isEqualTo(1);
+
+        stuck.countDown();
+        assertThat(slow.completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(slow.frames.size()).isLessThan(50);
+    }
+
+    @Test
+    void resumesWithinTheSameEpochAndResetsAcrossEpochs() throws Exception {
+        RecordingEmitter live = new RecordingEmitter(null);
+        stream.register(live, 1L, Role.ADMIN, null);
+        for (long i = 1; i <= 3; i++) stream.publish(event(i), 10L);
+        live.awaitFrames(3);
+        String first = live.ids().get(0);
+
+        RecordingEmitter resumed = new RecordingEmitter(null);
+        stream.register(resumed, 1L, Role.ADMIN, first);
+        resumed.awaitFrames(2);
+        assertThat(resumed.ids()).isEqualTo(live.ids().subList(1, 3));
+
+        // Same sequence number, earlier run: the ids must not be taken to mean the same events
+        String otherEpoch = "0-" + first.substring(first.indexOf('-') + 1);
+        RecordingEmitter restarted = new RecordingEmitter(null);
+        stream.register(restarted, 1L, Role.ADMIN, otherEpoch);
+        restarted.awaitFrames(1);
+        assertThat(restarted.frames.get(0)).contains("event:reset");
+        assertThat(restarted.ids()).containsExactly(live.ids().get(2));
+    }
+
+    // Ownership is checked per event, so a restaurant opened after subscribing is covered without resubscribing
+    @Test
+    void ownerSeesOnlyOrdersOfTheirOwnRestaurants() throws Exception {
+        RecordingEmitter owner = new RecordingEmitter(null);
+        stream.register(owner, 10L, Role.RESTAURANT_OWNER, null);
+
+        stream.publish(event(1), 11L);
+        stream.publish(event(2), 10L);
+        owner.awaitFrames(1);
+        Thread.sleep(100);
+
+        assertThat(owner.frames).hasSize(1);
+        assertThat(owner.frames.get(0)).contains("orderId=2,");
+    }
+
+    private static OrderDto.StatusEvent event(long orderId) {
+        OrderDto.StatusEvent event = new OrderDto.StatusEvent();
+        event.setOrderId(orderId);
+        event.setStatus(OrderStatus.CONFIRMED);
+        event.setCustomerId(1L);
+        event.setRestaurantId(1L);
+        return event;
+    }
+
+    // Records what would go on the wire; a latch makes it behave like a client that has stopped reading
+    private static class RecordingEmitter extends SseEmitter {
+        private final CountDownLatch blockUntil;
+        private final List<String> frames = new CopyOnWriteArrayList<>();
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        RecordingEmitter(CountDownLatch blockUntil) {
+            this.blockUntil = blockUntil;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (blockUntil != null) {
+                try {
+                    blockUntil.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            frames.add(builder.build().stream().map(d -> String.valueOf(d.getData())).collect(Collectors.joining()));
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed.countDown();
+        }
+
+        void awaitFrames(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (frames.size() < count && System.nanoTime() < deadline) Thread.sleep(10);
+            assertThat(frames).hasSizeGreaterThanOrEqualTo(count);
+        }
+
+        List<String> ids() {
+            return frames.stream().map(ID::matcher).filter(Matcher::find).map(m -> m.group(1)).toList();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.fooddelivery.support;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+/**
+ * Counts JDBC statements through Hibernate's statistics. A statement reused for a JDBC batch
+ * is prepared once, so a batched insert counts as one however many rows it writes.
+ */
+public class StatementCounter {
+
+    private final Statistics statistics;
+
+    public StatementCounter(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.statistics.setStatisticsEnabled(true);
+    }
+
+    public void reset() {
+        statistics.clear();
+    }
+
+    public long count() {
+        return statistics.getPrepareStatementCount();
+    }
+
+    /** Statements prepared while running the given action. */
+    public long count(Runnable action) {
+        reset();
+        action.run();
+        return count();
+    }
+}
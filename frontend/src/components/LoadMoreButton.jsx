@@ -0,0 +1,15 @@
+import React from 'react'
+
+export default function LoadMoreButton({ onClick, loading }) {
+  return (
+    <div className="text-center mt-4">
+      <button
+        onClick={onClick}
+        disabled={loading}
+        className="text-sm font-medium text-stone-600 border border-stone-200 px-4 py-2 rounded-lg hover:bg-stone-50 transition-colors"
+      >
+        {loading ? 'Loading...' : 'Load older orders'}
+      </button>
+    </div>
+  )
+}
@@ -0,0 +1,48 @@
+import { useCallback, useRef, useState } from 'react'
+import toast from 'react-hot-toast'
+
+// Follows the keyset cursor of a paged order endpoint. fetchPage(cursor) must be stable (useCallback);
+// it resolves to a response whose data is { orders, nextCursor }.
+export function useOrderPages(fetchPage) {
+  const [orders, setOrders] = useState([])
+  const [nextCursor, setNextCursor] = useState(null)
+  const [loadingMore, setLoadingMore] = useState(false)
+  const loaded = useRef({ source: null, count: 0 })
+
+  // Re-reads from the newest order. A refresh of the same list reads as many pages as are already
+  // on screen, so a live update doesn't drop the older orders the user paged in.
+  const reload = useCallback(async () => {
+    const keep = loaded.current.source === fetchPage ? loaded.current.count : 0
+    let list = []
+    let cursor = null
+    do {
+      const res = await fetchPage(cursor)
+      list = list.concat(res.data.orders)
+      cursor = res.data.nextCursor
+    } while (cursor && list.length < keep)
+    loaded.current = { source: fetchPage, count: list.length }
+    setOrders(list)
+    setNextCursor(cursor)
+  }, [fetchPage])
+
+  const loadMore = useCallback(async () => {
+    if (!nextCursor) return
+    setLoadingMore(true)
+    try {
+      const res = await fetchPage(nextCursor)
+      setOrders((prev) => {
+        const seen = new Set(prev.map((o) => o.id))
+        const merged = prev.concat(res.data.orders.filter((o) => !seen.has(o.id)))
+        loaded.current = { source: fetchPage, count: merged.length }
+        return merged
+      })
+      setNextCursor(res.data.nextCursor)
+    } catch {
+      toast.error('Failed to load more orders')
+    } finally {
+      setLoadingMore(false)
+    }
+  }, [fetchPage, nextCursor])
+
+  return { orders, setOrders, reload, loadMore, hasMore: !!nextCursor, loadingMore }
+}
@@ -1,5 +1,7 @@
 import React, { useState, useEffect } from 'react'
-import { orderApi, restaurantApi } from '../services/api'
+import { orderApi, restaurantApi, analyticsApi } from '../services/api'
+import { useOrderPages } from '../hooks/useOrderPages'
+import LoadMoreButton from '../components/LoadMoreButton'
 import { Users, Package, Store, TrendingUp, RefreshCw } from 'lucide-react'
 import toast from 'react-hot-toast'
 
@@ -14,24 +16,50 @@ const STATUS_COLORS = {
 
 const STATUSES = ['PENDING', 'CONFIRMED', 'PREPARING', 'OUT_FOR_DELIVERY', 'DELIVERED', 'CANCELLED']
 
+// Mirrors the transition table on the backend OrderStatus enum
+const NEXT_STATUSES = {
+  PENDING: ['CONFIRMED', 'CANCELLED'],
+  CONFIRMED: ['PREPARING', 'CANCELLED'],
+  PREPARING: ['OUT_FOR_DELIVERY'],
+  OUT_FOR_DELIVERY: ['DELIVERED'],
+  DELIVERED: [],
+  CANCELLED: [],
+}
+
+const ANALYTICS_DAYS = 30
+
+// Local midnight as the backend's ISO LocalDateTime
+const startOfDay = (daysAgo) => {
+  const d = new Date()
+  d.setHours(0, 0, 0, 0)
+  d.setDate(d.getDate() - daysAgo)
+  return new Date(d.getTime() - d.getTimezoneOffset() * 60000).toISOString().slice(0, 19)
+}
+
 export default function AdminPage() {
-  const [orders, setOrders] = useState([])
+  const { orders, reload, loadMore, hasMore, loadingMore } = useOrderPages(orderApi.getAll)
   const [restaurants, setRestaurants] = useState([])
   const [loading, setLoading] = useState(true)
   const [filterStatus, setFilterStatus] = useState('ALL')
   const [activeTab, setActiveTab] = useState('orders')
+  const [series, setSeries] = useState(null)
+  const [topRestaurants, setTopRestaurants] = useState([])
 
   useEffect(() => { loadData() }, [])
 
   const loadData = async () => {
     setLoading(true)
     try {
-      const [ordersRes, restaurantsRes] = await Promise.all([
-        orderApi.getAll(),
-        restaurantApi.getAll()
+      const range = { from: startOfDay(ANALYTICS_DAYS - 1), to: startOfDay(-1) }
+      const [, restaurantsRes, seriesRes, topRes] = await Promise.all([
+        reload(),
+        restaurantApi.getAll(),
+        analyticsApi.getSeries({ ...range, granularity: 'DAY' }),
+        analyticsApi.getTopRestaurants({ ...range, limit: 10 })
       ])
-      setOrders(ordersRes.data)
       setRestaurants(restaurantsRes.data)
+      setSeries(seriesRes.data)
+      setTopRestaurants(topRes.data)
     } catch { toast.error('Failed to load admin data') }
     finally { setLoading(false) }
   }
@@ -41,11 +69,14 @@ export default function AdminPage() {
       await orderApi.updateStatus(orderId, status)
       toast.success('Status updated')
       loadData()
-    } catch { toast.error('Failed') }
+    } catch (err) {
+      toast.error(err.response?.status === 409 ? err.response.data.message : 'Failed')
+      if (err.response?.status === 409) loadData()
+    }
   }
 
   const filteredOrders = filterStatus === 'ALL' ? orders : orders.filter(o => o.status === filterStatus)
-  const revenue = orders.filter(o => o.status === 'DELIVERED').reduce((s, o) => s + o.totalAmount, 0)
+  const totals = series?.totals
 
   if (loading) return <div className="p-8 text-center text-stone-400">Loading admin panel...</div>
 
@@ -62,8 +93,8 @@ export default function AdminPage() {
       <div className="grid grid-cols-2 md:grid-cols-4 gap-4 mb-8">
         <div className="card p-5">
           <Package className="w-8 h-8 text-primary-400 mb-2" />
-          <p className="text-2xl font-bold text-stone-900">{orders.length}</p>
-          <p className="text-stone-500 text-sm">Total Orders</p>
+          <p className="text-2xl font-bold text-stone-900">{totals?.orders ?? 0}</p>
+          <p className="text-stone-500 text-sm">Orders ({ANALYTICS_DAYS} days)</p>
         </div>
         <div className="card p-5">
           <Store className="w-8 h-8 text-blue-400 mb-2" />
@@ -72,8 +103,8 @@ export default function AdminPage() {
         </div>
         <div className="card p-5">
           <TrendingUp className="w-8 h-8 text-green-400 mb-2" />
-          <p className="text-2xl font-bold text-stone-900">₹{revenue.toFixed(0)}</p>
-          <p className="text-stone-500 text-sm">Total Revenue</p>
+          <p className="text-2xl font-bold text-stone-900">₹{(totals?.revenue ?? 0).toFixed(0)}</p>
+          <p className="text-stone-500 text-sm">Revenue ({ANALYTICS_DAYS} days)</p>
         </div>
         <div className="card p-5">
           <Users className="w-8 h-8 text-purple-400 mb-2" />
@@ -84,7 +115,7 @@ export default function AdminPage() {
 
       {/* Tabs */}
       <div className="flex gap-1 p-1 bg-stone-100 rounded-xl mb-6 w-fit">
-        {['orders', 'restaurants'].map(tab => (
+        {['orders', 'restaurants', 'analytics'].map(tab => (
           <button key={tab} onClick={() => setActiveTab(tab)}
             className={`px-6 py-2 rounded-lg text-sm font-semibold capitalize transition-all ${activeTab === tab ? 'bg-white shadow text-stone-900' : 'text-stone-500'}`}>
             {tab}
@@ -121,7 +152,7 @@ export default function AdminPage() {
                   <span>📍 {order.deliveryAddress?.substring(0, 25)}...</span>
                 </div>
                 <div className="flex items-center gap-2 flex-wrap">
-                  {STATUSES.filter(s => s !== order.status && s !== 'CANCELLED').map(s => (
+                  {NEXT_STATUSES[order.status].map(s => (
                     <button key={s} onClick={() => handleStatusUpdate(order.id, s)}
                       className={`text-xs px-2 py-1 rounded-lg font-medium border transition-colors ${STATUS_COLORS[s]} border-current/20 hover:opacity-80`}>
                       → {s.replace('_', ' ')}
@@ -135,6 +166,7 @@ export default function AdminPage() {
           {filteredOrders.length === 0 && (
             <div className="text-center py-8 text-stone-400">No orders with this status</div>
           )}
+          {hasMore && <LoadMoreButton onClick={loadMore} loading={loadingMore} />}
         </div>
       )}
 
@@ -159,6 +191,74 @@ export default function AdminPage() {
           ))}
         </div>
       )}
+
+      {activeTab === 'analytics' && series && (
+        <div className="space-y-6">
+          <div className="grid grid-cols-2 md:grid-cols-4 gap-4">
+            <div className="card p-4">
+              <p className="text-xl font-bold text-stone-900">{totals.delivered}</p>
+              <p className="text-stone-500 text-sm">Delivered</p>
+            </div>
+            <div className="card p-4">
+              <p className="text-xl font-bold text-stone-900">₹{totals.averageBasket.toFixed(0)}</p>
+              <p className="text-stone-500 text-sm">Average basket</p>
+            </div>
+            <div className="card p-4">
+              <p className="text-xl font-bold text-stone-900">{(totals.cancellationRate * 100).toFixed(1)}%</p>
+              <p className="text-stone-500 text-sm">Cancellation rate</p>
+            </div>
+            <div className="card p-4">
+              <p className="text-xl font-bold text-stone-900">{totals.cancelled}</p>
+              <p className="text-stone-500 text-sm">Cancelled</p>
+            </div>
+          </div>
+
+          <div className="card p-4">
+            <h2 className="font-semibold text-stone-900 mb-3">Top restaurants by revenue</h2>
+            <table className="w-full text-sm">
+              <thead>
+                <tr className="text-left text-stone-500">
+                  <th className="py-1">Restaurant</th><th>Orders</th><th>Revenue</th><th>Avg basket</th><th>Cancelled</th>
+                </tr>
+              </thead>
+              <tbody>
+                {topRestaurants.map(r => (
+                  <tr key={r.restaurantId} className="border-t border-stone-100 text-stone-700">
+                    <td className="py-1.5">{r.restaurantName}</td>
+                    <td>{r.orders}</td>
+                    <td>₹{r.revenue.toFixed(0)}</td>
+                    <td>₹{r.averageBasket.toFixed(0)}</td>
+                    <td>{(r.cancellationRate * 100).toFixed(1)}%</td>
+                  </tr>
+                ))}
+              </tbody>
+            </table>
+            {topRestaurants.length === 0 && <p className="text-center py-4 text-stone-400">No orders in this period</p>}
+          </div>
+
+          <div className="card p-4">
+            <h2 className="font-semibold text-stone-900 mb-3">Daily orders</h2>
+            <table className="w-full text-sm">
+              <thead>
+                <tr className="text-left text-stone-500">
+                  <th className="py-1">Day</th><th>Orders</th><th>Delivered</th><th>Revenue</th><th>Avg basket</th>
+                </tr>
+              </thead>
+              <tbody>
+                {[...series.buckets].reverse().map(b => (
+                  <tr key={b.start} className="border-t border-stone-100 text-stone-700">
+                    <td className="py-1.5">{new Date(b.start).toLocaleDateString()}</td>
+                    <td>{b.orders}</td>
+                    <td>{b.delivered}</td>
+                    <td>₹{b.revenue.toFixed(0)}</td>
+                    <td>₹{b.averageBasket.toFixed(0)}</td>
+                  </tr>
+                ))}
+              </tbody>
+            </table>
+          </div>
+        </div>
+      )}
     </div>
   )
 }
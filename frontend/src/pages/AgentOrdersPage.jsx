@@ -1,5 +1,7 @@
 import React, { useState, useEffect } from 'react'
-import { orderApi } from '../services/api'
+import { orderApi, agentApi, subscribeOrderEvents } from '../services/api'
+import { useOrderPages } from '../hooks/useOrderPages'
+import LoadMoreButton from '../components/LoadMoreButton'
 import { Bike, MapPin, Package } from 'lucide-react'
 import toast from 'react-hot-toast'
 
@@ -11,15 +13,38 @@ const STATUS_COLORS = {
 }
 
 export default function AgentOrdersPage() {
-  const [orders, setOrders] = useState([])
+  const { orders, reload, loadMore, hasMore, loadingMore } = useOrderPages(orderApi.getAgentOrders)
   const [loading, setLoading] = useState(true)
+  const [online, setOnline] = useState(false)
 
   useEffect(() => { loadOrders() }, [])
 
+  // While online, report position so the dispatcher can hand us nearby orders
+  useEffect(() => {
+    if (!online) return
+    if (!navigator.geolocation) {
+      toast.error('Location is not available in this browser')
+      setOnline(false)
+      return
+    }
+    const watchId = navigator.geolocation.watchPosition(
+      pos => agentApi.updateLocation(pos.coords.latitude, pos.coords.longitude, true).catch(() => {}),
+      () => { toast.error('Could not read your location'); setOnline(false) },
+      { enableHighAccuracy: true, maximumAge: 15000 }
+    )
+    return () => {
+      navigator.geolocation.clearWatch(watchId)
+      navigator.geolocation.getCurrentPosition(
+        pos => agentApi.updateLocation(pos.coords.latitude, pos.coords.longitude, false).catch(() => {}))
+    }
+  }, [online])
+
+  // Any event may be a new assignment, so re-read from the newest order
+  useEffect(() => subscribeOrderEvents(() => loadOrders()), [])
+
   const loadOrders = async () => {
     try {
-      const res = await orderApi.getAgentOrders()
-      setOrders(res.data)
+      await reload()
     } catch {
       // If no assigned orders, try showing all ready-to-deliver orders
       toast.error('Failed to load orders')
@@ -38,7 +63,7 @@ export default function AgentOrdersPage() {
     }
   }
 
-  const activeOrders = orders.filter(o => o.status === 'OUT_FOR_DELIVERY')
+  const activeOrders = orders.filter(o => o.status === 'PREPARING' || o.status === 'OUT_FOR_DELIVERY')
   const completedOrders = orders.filter(o => o.status === 'DELIVERED')
 
   if (loading) return <div className="p-8 text-center text-stone-400">Loading...</div>
@@ -53,6 +78,10 @@ export default function AgentOrdersPage() {
           <h1 className="font-display text-2xl font-bold text-stone-900">My Deliveries</h1>
           <p className="text-stone-500 text-sm">{activeOrders.length} active • {completedOrders.length} completed</p>
         </div>
+        <button onClick={() => setOnline(o => !o)}
+          className={`ml-auto text-sm px-3 py-1.5 rounded-lg font-medium ${online ? 'bg-green-100 text-green-700' : 'bg-stone-100 text-stone-600'}`}>
+          {online ? '● Online' : 'Go online'}
+        </button>
       </div>
 
       {activeOrders.length > 0 && (
@@ -66,7 +95,9 @@ export default function AgentOrdersPage() {
                     <p className="font-semibold text-stone-900">Order #{order.id}</p>
                     <p className="text-stone-500 text-sm">{order.restaurantName}</p>
                   </div>
-                  <span className="badge bg-purple-100 text-purple-700">Out for Delivery</span>
+                  {order.status === 'PREPARING'
+                    ? <span className="badge bg-orange-100 text-orange-700">Pick up — preparing</span>
+                    : <span className="badge bg-purple-100 text-purple-700">Out for Delivery</span>}
                 </div>
                 <div className="flex items-start gap-2 text-sm text-stone-600 mb-4">
                   <MapPin className="w-4 h-4 text-stone-400 mt-0.5 flex-shrink-0" />
@@ -77,9 +108,11 @@ export default function AgentOrdersPage() {
                 </div>
                 <div className="flex items-center justify-between">
                   <span className="font-bold text-stone-900">₹{order.totalAmount?.toFixed(0)}</span>
-                  <button onClick={() => handleDeliver(order.id)} className="btn-primary py-1.5 px-4 text-sm">
-                    Mark Delivered ✓
-                  </button>
+                  {order.status === 'OUT_FOR_DELIVERY' && (
+                    <button onClick={() => handleDeliver(order.id)} className="btn-primary py-1.5 px-4 text-sm">
+                      Mark Delivered ✓
+                    </button>
+                  )}
                 </div>
               </div>
             ))}
@@ -91,7 +124,7 @@ export default function AgentOrdersPage() {
         <div>
           <h2 className="font-semibold text-stone-900 mb-3">Completed</h2>
           <div className="space-y-2">
-            {completedOrders.slice(0, 10).map(order => (
+            {completedOrders.map(order => (
               <div key={order.id} className="card p-4 flex items-center justify-between">
                 <div>
                   <p className="font-medium text-stone-800 text-sm">Order #{order.id} — {order.restaurantName}</p>
@@ -107,6 +140,8 @@ export default function AgentOrdersPage() {
         </div>
       )}
 
+      {hasMore && <LoadMoreButton onClick={loadMore} loading={loadingMore} />}
+
       {orders.length === 0 && (
         <div className="card p-12 text-center">
           <Package className="w-12 h-12 text-stone-300 mx-auto mb-3" />
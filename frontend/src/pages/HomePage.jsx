@@ -24,9 +24,19 @@ export default function HomePage() {
     setFiltered(result)
   }, [search, cuisine, restaurants])
 
+  // Resolves to null when the browser can't or won't share a position
+  const currentPosition = () => new Promise(resolve => {
+    if (!navigator.geolocation) return resolve(null)
+    navigator.geolocation.getCurrentPosition(pos => resolve(pos.coords), () => resolve(null), { timeout: 5000, maximumAge: 300000 })
+  })
+
   const loadRestaurants = async () => {
     try {
-      const res = await restaurantApi.getAll()
+      // With a location, only list restaurants that deliver there; otherwise fall back to the whole catalog
+      const coords = await currentPosition()
+      const res = coords
+        ? await restaurantApi.getNearby(coords.latitude, coords.longitude)
+        : await restaurantApi.getAll()
       setRestaurants(res.data)
       setFiltered(res.data)
     } catch {
@@ -125,7 +135,7 @@ export default function HomePage() {
                 <div className="flex items-center gap-3 mt-3 text-stone-400 text-xs">
                   <span className="flex items-center gap-1">
                     <Clock className="w-3.5 h-3.5" />
-                    {r.deliveryTime} min
+                    {r.estimatedDeliveryMinutes ?? r.deliveryTime} min
                   </span>
                   <span className="flex items-center gap-1">
                     <Bike className="w-3.5 h-3.5" />
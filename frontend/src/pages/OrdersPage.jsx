@@ -1,6 +1,8 @@
 import React, { useState, useEffect } from 'react'
 import { Package, Clock, CheckCircle, XCircle, Bike, ChefHat, AlertCircle } from 'lucide-react'
-import { orderApi } from '../services/api'
+import { orderApi, subscribeOrderEvents } from '../services/api'
+import { useOrderPages } from '../hooks/useOrderPages'
+import LoadMoreButton from '../components/LoadMoreButton'
 import toast from 'react-hot-toast'
 
 const STATUS_CONFIG = {
@@ -13,7 +15,7 @@ const STATUS_CONFIG = {
 }
 
 export default function OrdersPage() {
-  const [orders, setOrders] = useState([])
+  const { orders, setOrders, reload, loadMore, hasMore, loadingMore } = useOrderPages(orderApi.getMy)
   const [loading, setLoading] = useState(true)
   const [cancelling, setCancelling] = useState(null)
 
@@ -21,10 +23,14 @@ export default function OrdersPage() {
     loadOrders()
   }, [])
 
+  useEffect(() => subscribeOrderEvents((event) => {
+    if (!event) return loadOrders()
+    setOrders((prev) => prev.map((o) => (o.id === event.orderId ? { ...o, status: event.status } : o)))
+  }), [])
+
   const loadOrders = async () => {
     try {
-      const res = await orderApi.getMy()
-      setOrders(res.data)
+      await reload()
     } catch {
       toast.error('Failed to load orders')
     } finally {
@@ -71,6 +77,11 @@ export default function OrdersPage() {
                       <span className="text-stone-400 text-xs">#{order.id}</span>
                     </div>
                     <span className="text-stone-400 text-xs">{new Date(order.createdAt).toLocaleString()}</span>
+                    {order.estimatedDeliveryAt && (
+                      <p className="text-stone-500 text-xs mt-0.5">
+                        Arriving around {new Date(order.estimatedDeliveryAt).toLocaleTimeString([], { hour: '2-digit', minute: '2-digit' })}
+                      </p>
+                    )}
                   </div>
                   <span className={`badge flex items-center gap-1 ${config.color}`}>
                     <StatusIcon className="w-3 h-3" />
@@ -111,6 +122,7 @@ export default function OrdersPage() {
               </div>
             )
           })}
+          {hasMore && <LoadMoreButton onClick={loadMore} loading={loadingMore} />}
         </div>
       )}
     </div>
@@ -1,6 +1,8 @@
-import React, { useState, useEffect } from 'react'
+import React, { useState, useEffect, useCallback } from 'react'
 import { Link } from 'react-router-dom'
-import { restaurantApi, orderApi } from '../services/api'
+import { restaurantApi, orderApi, subscribeOrderEvents } from '../services/api'
+import { useOrderPages } from '../hooks/useOrderPages'
+import LoadMoreButton from '../components/LoadMoreButton'
 import { useAuth } from '../context/AuthContext'
 import { TrendingUp, Package, Store, ChevronRight, Clock, CheckCircle, ChefHat, Bike } from 'lucide-react'
 import toast from 'react-hot-toast'
@@ -14,31 +16,39 @@ const STATUS_COLORS = {
   CANCELLED: 'bg-red-100 text-red-700',
 }
 
+// Pickup and delivery are the assigned agent's steps
 const NEXT_STATUS = {
   PENDING: 'CONFIRMED',
   CONFIRMED: 'PREPARING',
-  PREPARING: 'OUT_FOR_DELIVERY',
-  OUT_FOR_DELIVERY: 'DELIVERED',
 }
 
 export default function OwnerDashboard() {
   const { user } = useAuth()
   const [restaurants, setRestaurants] = useState([])
-  const [allOrders, setAllOrders] = useState([])
   const [loading, setLoading] = useState(true)
   const [selectedRestaurant, setSelectedRestaurant] = useState(null)
+  const restaurantId = selectedRestaurant?.id
+  const fetchPage = useCallback((cursor) => orderApi.getRestaurantOrders(restaurantId, cursor), [restaurantId])
+  const { orders: allOrders, reload, loadMore, hasMore, loadingMore } = useOrderPages(fetchPage)
 
   useEffect(() => {
     loadData()
   }, [])
 
+  useEffect(() => {
+    if (!restaurantId) return
+    loadOrders()
+    return subscribeOrderEvents((event) => {
+      if (!event || event.restaurantId === restaurantId) loadOrders()
+    })
+  }, [restaurantId])
+
   const loadData = async () => {
     try {
       const res = await restaurantApi.getMy()
       setRestaurants(res.data)
-      if (res.data.length > 0) {
+      if (res.data.length > 0 && !res.data.some(r => r.id === restaurantId)) {
         setSelectedRestaurant(res.data[0])
-        loadOrders(res.data[0].id)
       }
     } catch {
       toast.error('Failed to load data')
@@ -47,10 +57,9 @@ export default function OwnerDashboard() {
     }
   }
 
-  const loadOrders = async (restaurantId) => {
+  const loadOrders = async () => {
     try {
-      const res = await orderApi.getRestaurantOrders(restaurantId)
-      setAllOrders(res.data)
+      await reload()
     } catch {}
   }
 
@@ -58,9 +67,15 @@ export default function OwnerDashboard() {
     try {
       await orderApi.updateStatus(orderId, status)
       toast.success('Order status updated')
-      loadOrders(selectedRestaurant.id)
-    } catch {
-      toast.error('Failed to update status')
+      loadOrders()
+    } catch (err) {
+      // Someone else moved the order first; show where it is now
+      if (err.response?.status === 409) {
+        toast.error(err.response.data.message)
+        loadOrders()
+      } else {
+        toast.error('Failed to update status')
+      }
     }
   }
 
@@ -122,7 +137,7 @@ export default function OwnerDashboard() {
           {restaurants.map(r => (
             <button
               key={r.id}
-              onClick={() => { setSelectedRestaurant(r); loadOrders(r.id); }}
+              onClick={() => setSelectedRestaurant(r)}
               className={`px-4 py-2 rounded-xl text-sm font-medium transition-all ${
                 selectedRestaurant?.id === r.id ? 'bg-primary-500 text-white' : 'bg-stone-100 text-stone-600'
               }`}
@@ -173,6 +188,8 @@ export default function OwnerDashboard() {
             ))}
           </div>
         )}
+        {/* Older pages may still hold orders waiting on the restaurant */}
+        {hasMore && <LoadMoreButton onClick={loadMore} loading={loadingMore} />}
       </div>
     </div>
   )
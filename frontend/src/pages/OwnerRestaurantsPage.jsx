@@ -1,14 +1,29 @@
 import React, { useState, useEffect } from 'react'
 import { restaurantApi, menuApi } from '../services/api'
 import { useAuth } from '../context/AuthContext'
-import { Plus, Store, Edit, ToggleLeft, ToggleRight, Trash2, ChevronDown, ChevronUp } from 'lucide-react'
+import { Plus, Store, Edit, ToggleLeft, ToggleRight, Trash2, ChevronDown, ChevronUp, MapPin } from 'lucide-react'
 import toast from 'react-hot-toast'
 
 const RestaurantForm = ({ initial, onSave, onCancel }) => {
   const [form, setForm] = useState(initial || {
     name: '', description: '', address: '', phone: '', imageUrl: '', cuisine: '', openingHours: '',
+    latitude: null, longitude: null, deliveryRadiusKm: 5,
     deliveryTime: 30, deliveryFee: 30, minOrderAmount: 100
   })
+  const parseCoord = (value) => value === '' ? null : parseFloat(value)
+
+  // Nearby search and dispatch both work from the coordinates, so the server rejects a restaurant without them
+  const fillCurrentLocation = () => {
+    if (!navigator.geolocation) return toast.error('Location is not available in this browser')
+    navigator.geolocation.getCurrentPosition(
+      pos => setForm(f => ({ ...f, latitude: pos.coords.latitude, longitude: pos.coords.longitude })),
+      () => toast.error('Could not get your location'))
+  }
+
+  const handleSave = () => {
+    if (form.latitude == null || form.longitude == null) return toast.error('Set the restaurant location')
+    onSave(form)
+  }
 
   return (
     <div className="card p-6 mb-6 border-2 border-primary-200">
@@ -19,14 +34,18 @@ const RestaurantForm = ({ initial, onSave, onCancel }) => {
         <div className="col-span-2"><label className="text-sm font-medium text-stone-700 block mb-1">Description</label><textarea className="input" rows={2} value={form.description} onChange={e => setForm({...form, description: e.target.value})} /></div>
         <div><label className="text-sm font-medium text-stone-700 block mb-1">Address</label><input className="input" value={form.address} onChange={e => setForm({...form, address: e.target.value})} /></div>
         <div><label className="text-sm font-medium text-stone-700 block mb-1">Phone</label><input className="input" value={form.phone} onChange={e => setForm({...form, phone: e.target.value})} /></div>
+        <div><label className="text-sm font-medium text-stone-700 block mb-1">Latitude *</label><input type="number" step="any" min="-90" max="90" className="input" value={form.latitude ?? ''} onChange={e => setForm({...form, latitude: parseCoord(e.target.value)})} /></div>
+        <div><label className="text-sm font-medium text-stone-700 block mb-1">Longitude *</label><input type="number" step="any" min="-180" max="180" className="input" value={form.longitude ?? ''} onChange={e => setForm({...form, longitude: parseCoord(e.target.value)})} /></div>
+        <div className="col-span-2"><button type="button" onClick={fillCurrentLocation} className="text-sm text-primary-600 font-medium flex items-center gap-1"><MapPin className="w-3.5 h-3.5" /> Use my current location</button></div>
         <div className="col-span-2"><label className="text-sm font-medium text-stone-700 block mb-1">Image URL</label><input className="input" placeholder="https://..." value={form.imageUrl} onChange={e => setForm({...form, imageUrl: e.target.value})} /></div>
         <div><label className="text-sm font-medium text-stone-700 block mb-1">Opening Hours</label><input className="input" placeholder="10 AM - 10 PM" value={form.openingHours} onChange={e => setForm({...form, openingHours: e.target.value})} /></div>
         <div><label className="text-sm font-medium text-stone-700 block mb-1">Delivery Time (min)</label><input type="number" className="input" value={form.deliveryTime} onChange={e => setForm({...form, deliveryTime: parseInt(e.target.value)})} /></div>
         <div><label className="text-sm font-medium text-stone-700 block mb-1">Delivery Fee (₹)</label><input type="number" className="input" value={form.deliveryFee} onChange={e => setForm({...form, deliveryFee: parseFloat(e.target.value)})} /></div>
         <div><label className="text-sm font-medium text-stone-700 block mb-1">Min Order (₹)</label><input type="number" className="input" value={form.minOrderAmount} onChange={e => setForm({...form, minOrderAmount: parseFloat(e.target.value)})} /></div>
+        <div><label className="text-sm font-medium text-stone-700 block mb-1">Delivery Radius (km)</label><input type="number" step="0.5" min="0.5" max="50" className="input" value={form.deliveryRadiusKm} onChange={e => setForm({...form, deliveryRadiusKm: parseFloat(e.target.value)})} /></div>
       </div>
       <div className="flex gap-3 mt-4">
-        <button onClick={() => onSave(form)} className="btn-primary">Save Restaurant</button>
+        <button onClick={handleSave} className="btn-primary">Save Restaurant</button>
         <button onClick={onCancel} className="btn-secondary">Cancel</button>
       </div>
     </div>
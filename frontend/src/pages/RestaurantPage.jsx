@@ -88,7 +88,7 @@ export default function RestaurantPage() {
         </div>
         <div className="flex items-center gap-1.5 bg-blue-50 px-3 py-2 rounded-xl">
           <Clock className="w-4 h-4 text-blue-500" />
-          <span className="text-stone-700 text-sm font-medium">{restaurant.deliveryTime} min</span>
+          <span className="text-stone-700 text-sm font-medium">{restaurant.estimatedDeliveryMinutes ?? restaurant.deliveryTime} min</span>
         </div>
         <div className="flex items-center gap-1.5 bg-green-50 px-3 py-2 rounded-xl">
           <Bike className="w-4 h-4 text-green-500" />
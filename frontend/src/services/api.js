@@ -35,6 +35,7 @@ export const authApi = {
 // Restaurants
 export const restaurantApi = {
   getAll: (search) => api.get('/restaurants', { params: search ? { search } : {} }),
+  getNearby: (lat, lng) => api.get('/restaurants/nearby', { params: { lat, lng } }),
   getById: (id) => api.get(`/restaurants/${id}`),
   getMy: () => api.get('/restaurants/my'),
   create: (data) => api.post('/restaurants', data),
@@ -54,15 +55,70 @@ export const menuApi = {
 // Orders
 export const orderApi = {
   place: (data) => api.post('/orders', data),
-  getMy: () => api.get('/orders/my'),
+  getMy: (cursor) => api.get('/orders/my', { params: cursor ? { cursor } : {} }),
   getById: (id) => api.get(`/orders/${id}`),
-  getRestaurantOrders: (restaurantId) => api.get(`/orders/restaurant/${restaurantId}`),
-  getAll: () => api.get('/orders/all'),
-  getAgentOrders: () => api.get('/orders/agent'),
+  getRestaurantOrders: (restaurantId, cursor) => api.get(`/orders/restaurant/${restaurantId}`, { params: cursor ? { cursor } : {} }),
+  getAll: (cursor) => api.get('/orders/all', { params: cursor ? { cursor } : {} }),
+  getAgentOrders: (cursor) => api.get('/orders/agent', { params: cursor ? { cursor } : {} }),
   updateStatus: (id, status) => api.patch(`/orders/${id}/status`, null, { params: { status } }),
   cancel: (id) => api.patch(`/orders/${id}/cancel`),
 }
 
+// Delivery agents
+export const agentApi = {
+  updateLocation: (latitude, longitude, available) => api.put('/agents/me/location', { latitude, longitude, available }),
+}
+
+// Live order status events. Uses fetch instead of EventSource so the bearer token can be sent;
+// calls onEvent(statusEvent), or onEvent(null) when the server can't replay what was missed.
+export function subscribeOrderEvents(onEvent) {
+  const controller = new AbortController()
+  let lastEventId = null
+
+  const connect = async () => {
+    while (!controller.signal.aborted) {
+      try {
+        const headers = { Authorization: `Bearer ${localStorage.getItem('token')}` }
+        if (lastEventId) headers['Last-Event-ID'] = lastEventId
+        const res = await fetch('/api/orders/stream', { headers, signal: controller.signal })
+        const reader = res.body.pipeThrough(new TextDecoderStream()).getReader()
+        let buffer = ''
+        for (;;) {
+          const { value, done } = await reader.read()
+          if (done) break
+          buffer += value
+          let end
+          while ((end = buffer.indexOf('\n\n')) >= 0) {
+            const block = buffer.slice(0, end)
+            buffer = buffer.slice(end + 2)
+            let id = null, event = 'message', data = ''
+            for (const line of block.split('\n')) {
+              if (line.startsWith('id:')) id = line.slice(3)
+              else if (line.startsWith('event:')) event = line.slice(6)
+              else if (line.startsWith('data:')) data += line.slice(5)
+            }
+            if (id) lastEventId = id
+            if (event === 'status') onEvent(JSON.parse(data))
+            else if (event === 'reset') onEvent(null)
+          }
+        }
+      } catch {
+        if (controller.signal.aborted) return
+      }
+      await new Promise((resolve) => setTimeout(resolve, 3000))
+    }
+  }
+
+  connect()
+  return () => controller.abort()
+}
+
+// Admin analytics, answered from the order rollups
+export const analyticsApi = {
+  getSeries: (params) => api.get('/admin/analytics', { params }),
+  getTopRestaurants: (params) => api.get('/admin/analytics/restaurants', { params }),
+}
+
 // Reviews
 export const reviewApi = {
   add: (data) => api.post('/reviews', data),
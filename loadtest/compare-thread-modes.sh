@@ -0,0 +1,77 @@
+#!/usr/bin/env bash
+# Runs the backend once on platform threads and once on virtual threads, under the same open-model
+# load, and writes a throughput / p99 table plus the pinned-carrier report to results/thread-modes/.
+#
+#   JAVA_HOME=/path/to/jdk-21 ./compare-thread-modes.sh            # default rates: 100 and 400/s
+#   JAVA_HOME=/path/to/jdk-21 RATES="50 200 800" DURATION=2m ./compare-thread-modes.sh
+#
+# Both runs use the same Java 21 runtime, so spring.threads.virtual.enabled is the only difference.
+set -euo pipefail
+
+cd "$(dirname "$0")"
+JAVA="${JAVA_HOME:?set JAVA_HOME to a Java 21+ runtime}/bin/java"
+RATES="${RATES:-100 400}"
+DURATION="${DURATION:-60s}"
+WARMUP="${WARMUP:-15s}"
+PORT="${PORT:-18080}"
+OUT=results/thread-modes
+mkdir -p "$OUT"
+BACKEND_PID=
+trap '[ -n "$BACKEND_PID" ] && kill "$BACKEND_PID" 2>/dev/null || true' EXIT
+
+"$JAVA" -version 2>&1 | head -1 | grep -Eq '"(2[1-9]|[3-9][0-9])' \
+  || { echo "Virtual threads need a Java 21+ runtime: $("$JAVA" -version 2>&1 | head -1)" >&2; exit 1; }
+
+(cd ../backend && mvn -B -q package -DskipTests)
+mvn -B -q package
+BACKEND_JAR=$(ls ../backend/target/food-delivery-backend-*.jar | grep -v original | head -1)
+
+run_mode() {
+  local mode=$1 rate=$2 virtual=false
+  [ "$mode" = virtual ] && virtual=true
+  local log="$OUT/backend-$mode-$rate.log"
+
+  "$JAVA" -Djdk.tracePinnedThreads=short -jar "$BACKEND_JAR" \
+      --server.port="$PORT" --spring.threads.virtual.enabled="$virtual" >"$log" 2>&1 &
+  BACKEND_PID=$!
+  for _ in $(seq 1 120); do
+    curl -sf "http://localhost:$PORT/actuator/health" >/dev/null && break
+    sleep 1
+  done
+
+  "$JAVA" -jar target/loadtest.jar --base-url="http://localhost:$PORT" --rate="$rate" \
+      --duration="$DURATION" --warmup="$WARMUP" --label="$mode" --out="$OUT/$mode-$rate.json"
+
+  kill "$BACKEND_PID"
+  wait "$BACKEND_PID" 2>/dev/null || true
+  BACKEND_PID=
+
+  # Keep only the pinned frames; the rest of the application log is not worth committing
+  grep -h '<== monitors' "$log" | sed 's/^[[:space:]]*//' | sort | uniq -c | sort -rn >"$OUT/pinned-$mode-$rate.txt" || true
+  rm -f "$log"
+}
+
+for rate in $RATES; do
+  run_mode platform "$rate"
+  run_mode virtual "$rate"
+done
+
+{
+  echo "# Platform vs virtual threads"
+  echo
+  echo "$("$JAVA" -version 2>&1 | head -1), $(nproc) CPUs, H2 in-memory, default seed data."
+  echo "Open-model load (Poisson arrivals, default mix), $WARMUP warm-up then $DURATION measured per run."
+  echo
+  echo "| Target rate/s | Mode | Throughput/s | p50 ms | p99 ms | p99.9 ms | Errors | Dropped | Pinned frames |"
+  echo "|---:|---|---:|---:|---:|---:|---:|---:|---:|"
+  for rate in $RATES; do
+    for mode in platform virtual; do
+      pinned=$(awk '{ n += $1 } END { print n + 0 }' "$OUT/pinned-$mode-$rate.txt")
+      jq -r --arg mode "$mode" --arg pinned "$pinned" \
+        '"| \(.targetRate) | \($mode) | \(.endpoints.TOTAL.throughput) | \(.endpoints.TOTAL.p50Ms) | \(.endpoints.TOTAL.p99Ms) | \(.endpoints.TOTAL.p999Ms) | \(.endpoints.TOTAL.errors) | \(.dropped) | \($pinned) |"' \
+        "$OUT/$mode-$rate.json"
+    done
+  done
+} >"$OUT/summary.md"
+
+cat "$OUT/summary.md"
@@ -0,0 +1,31 @@
+package com.fooddelivery.loadtest;
+
+/**
+ * One arrival in the open-model mix. Weights are relative; the order lifecycle actions need
+ * roughly twice the weight of {@link #PLACE_ORDER} each to keep up, since every order takes two
+ * owner steps (confirm, prepare) and two delivery steps (pick up, deliver).
+ */
+enum Action {
+    BROWSE("browse", 30),
+    MENU("menu", 20),
+    NEARBY("nearby", 10),
+    LOGIN("login", 2),
+    PLACE_ORDER("order", 10),
+    OWNER_ADVANCE("owner", 20),
+    AGENT_ADVANCE("agent", 20);
+
+    final String key;
+    final int defaultWeight;
+
+    Action(String key, int defaultWeight) {
+        this.key = key;
+        this.defaultWeight = defaultWeight;
+    }
+
+    static Action fromKey(String key) {
+        for (Action action : values()) {
+            if (action.key.equals(key)) return action;
+        }
+        throw new IllegalArgumentException("Unknown action '" + key + "' in --mix");
+    }
+}
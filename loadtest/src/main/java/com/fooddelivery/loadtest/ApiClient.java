@@ -0,0 +1,79 @@
+package com.fooddelivery.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/** Asynchronous JSON calls against the API, each timed into {@link LatencyStats} under an endpoint template. */
+final class ApiClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final URI baseUrl;
+    private final LatencyStats stats;
+
+    ApiClient(URI baseUrl, LatencyStats stats) {
+        this.baseUrl = baseUrl;
+        this.stats = stats;
+    }
+
+    /**
+     * Sends the request and completes with the parsed body, or with null on an error status or I/O failure
+     * (both are counted as errors for the endpoint). intendedStart is the System.nanoTime() the arrival was
+     * scheduled for.
+     */
+    CompletableFuture<JsonNode> call(String endpoint, String method, String path, String token, Object body,
+                                     long intendedStart) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json");
+        if (token != null) request.header("Authorization", "Bearer " + token);
+        if (body != null) {
+            request.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofString(toJson(body)));
+        } else {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+
+        return http.sendAsync(request.build(), HttpResponse.BodyHandlers.ofString())
+                .handle((response, error) -> {
+                    long micros = (System.nanoTime() - intendedStart) / 1000;
+                    if (error != null) {
+                        stats.record(endpoint, micros, 0);
+                        return null;
+                    }
+                    stats.record(endpoint, micros, response.statusCode());
+                    if (response.statusCode() >= 400) return null;
+                    return parse(response.body());
+                });
+    }
+
+    private JsonNode parse(String body) {
+        if (body == null || body.isEmpty()) return mapper.nullNode();
+        try {
+            return mapper.readTree(body);
+        } catch (JsonProcessingException e) {
+            return mapper.nullNode();
+        }
+    }
+
+    private String toJson(Object body) {
+        try {
+            return mapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Request body is not serializable", e);
+        }
+    }
+}
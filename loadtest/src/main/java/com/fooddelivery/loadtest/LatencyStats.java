@@ -0,0 +1,132 @@
+package com.fooddelivery.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint latency histograms in microseconds. Latency is measured from the arrival's scheduled
+ * time rather than the moment the request was sent, so a backed-up client or server shows up in the
+ * percentiles instead of being hidden by coordinated omission.
+ */
+final class LatencyStats {
+
+    static final String TOTAL = "TOTAL";
+    private static final long MAX_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private static final class Endpoint {
+        final ConcurrentHistogram histogram = new ConcurrentHistogram(MAX_MICROS, 3);
+        final Map<String, LongAdder> errorsByStatus = new ConcurrentHashMap<>();
+    }
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    // status is the HTTP status, or 0 when no response arrived
+    void record(String endpoint, long micros, int status) {
+        long value = Math.max(1, Math.min(micros, MAX_MICROS));
+        for (String key : new String[]{endpoint, TOTAL}) {
+            Endpoint e = endpoints.computeIfAbsent(key, k -> new Endpoint());
+            e.histogram.recordValue(value);
+            if (status == 0 || status >= 400) {
+                e.errorsByStatus.computeIfAbsent(status == 0 ? "io" : String.valueOf(status), k -> new LongAdder()).increment();
+            }
+        }
+    }
+
+    long errors() {
+        Endpoint total = endpoints.get(TOTAL);
+        return total == null ? 0 : total.errorsByStatus.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    long count() {
+        Endpoint total = endpoints.get(TOTAL);
+        return total == null ? 0 : total.histogram.getTotalCount();
+    }
+
+    void reset() {
+        endpoints.clear();
+    }
+
+    /** Endpoints in name order with the total last, so two summaries diff line by line. */
+    ObjectNode toJson(double seconds) {
+        ObjectNode result = JsonNodeFactory.instance.objectNode();
+        Map<String, Endpoint> sorted = new TreeMap<>(endpoints);
+        sorted.remove(TOTAL);
+        sorted.forEach((name, e) -> result.set(name, endpointJson(e, seconds)));
+        Endpoint total = endpoints.get(TOTAL);
+        if (total != null) result.set(TOTAL, endpointJson(total, seconds));
+        return result;
+    }
+
+    private static ObjectNode endpointJson(Endpoint e, double seconds) {
+        Histogram h = e.histogram.copy();
+        ObjectNode node = JsonNodeFactory.instance.objectNode();
+        node.put("count", h.getTotalCount());
+        node.put("throughput", round(h.getTotalCount() / seconds));
+        long errors = e.errorsByStatus.values().stream().mapToLong(LongAdder::sum).sum();
+        node.put("errors", errors);
+        ObjectNode byStatus = node.putObject("errorsByStatus");
+        new TreeMap<>(e.errorsByStatus).forEach((status, count) -> byStatus.put(status, count.sum()));
+        node.put("meanMs", millis(h.getMean()));
+        node.put("p50Ms", millis(h.getValueAtPercentile(50)));
+        node.put("p90Ms", millis(h.getValueAtPercentile(90)));
+        node.put("p99Ms", millis(h.getValueAtPercentile(99)));
+        node.put("p999Ms", millis(h.getValueAtPercentile(99.9)));
+        node.put("maxMs", millis(h.getMaxValue()));
+        return node;
+    }
+
+    static String table(JsonNode endpoints) {
+        StringBuilder out = new StringBuilder(String.format("%-36s %8s %8s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "req/s", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        endpoints.fields().forEachRemaining(entry -> {
+            JsonNode e = entry.getValue();
+            out.append(String.format("%-36s %8d %8.1f %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n", entry.getKey(),
+                    e.get("count").asLong(), e.get("throughput").asDouble(), e.get("errors").asLong(),
+                    e.get("p50Ms").asDouble(), e.get("p90Ms").asDouble(), e.get("p99Ms").asDouble(),
+                    e.get("p999Ms").asDouble(), e.get("maxMs").asDouble()));
+        });
+        return out.toString();
+    }
+
+    /** Side-by-side view of two summaries; positive latency deltas are regressions. */
+    static String compare(JsonNode baseline, JsonNode current) {
+        StringBuilder out = new StringBuilder(String.format("%-36s %21s %21s %19s %13s%n",
+                "endpoint", "p50 ms (delta)", "p99 ms (delta)", "req/s (delta)", "errors"));
+        current.fields().forEachRemaining(entry -> {
+            JsonNode now = entry.getValue();
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                out.append(String.format("%-36s %s%n", entry.getKey(), "(not in baseline)"));
+                return;
+            }
+            out.append(String.format("%-36s %21s %21s %19s %13s%n", entry.getKey(),
+                    delta(before.get("p50Ms").asDouble(), now.get("p50Ms").asDouble()),
+                    delta(before.get("p99Ms").asDouble(), now.get("p99Ms").asDouble()),
+                    delta(before.get("throughput").asDouble(), now.get("throughput").asDouble()),
+                    before.get("errors").asLong() + " -> " + now.get("errors").asLong()));
+        });
+        return out.toString();
+    }
+
+    private static String delta(double before, double now) {
+        if (before == 0) return String.format("%.2f (n/a)", now);
+        return String.format("%.2f (%+.1f%%)", now, (now - before) * 100 / before);
+    }
+
+    private static double millis(double micros) {
+        return round(micros / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,156 @@
+package com.fooddelivery.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator for a running backend. Arrivals follow a Poisson process at --rate no
+ * matter how slowly the server answers, which is how real users behave; a closed loop of N workers
+ * would instead slow down with the server and under-report its latency.
+ *
+ * <pre>
+ * cd loadtest && mvn -q package
+ * java -jar target/loadtest.jar --rate=100 --duration=2m --label=$(git rev-parse --short HEAD)
+ * java -jar target/loadtest.jar --rate=100 --duration=2m --baseline=loadtest-summary.json --out=after.json
+ * </pre>
+ */
+public final class LoadTest {
+
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final long DRAIN_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 1 && (args[0].equals("--help") || args[0].equals("-h"))) {
+            System.out.print(LoadTestConfig.USAGE);
+            return;
+        }
+        LoadTestConfig config;
+        try {
+            config = LoadTestConfig.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(LoadTestConfig.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        LatencyStats stats = new LatencyStats();
+        ApiClient api = new ApiClient(config.baseUrl, stats);
+        Scenario scenario = new Scenario(api, config);
+        scenario.setUp();
+        System.out.printf("Target %s: %s; %.1f arrivals/s for %ds after %ds warm-up%n", config.baseUrl,
+                scenario.describe(), config.rate, config.duration.toSeconds(), config.warmup.toSeconds());
+
+        Action[] wheel = weightedWheel(config.mix);
+        SplittableRandom random = new SplittableRandom(config.seed);
+        AtomicInteger inFlight = new AtomicInteger();
+        long arrivals = 0;
+        long dropped = 0;
+        double meanGapNanos = 1e9 / config.rate;
+
+        long start = System.nanoTime();
+        long measureFrom = start + config.warmup.toNanos();
+        long end = measureFrom + config.duration.toNanos();
+        boolean measuring = config.warmup.isZero();
+        if (measuring) stats.reset();
+        long nextProgress = start + PROGRESS_INTERVAL_NANOS;
+        long next = start;
+
+        while (next < end) {
+            long now;
+            while ((now = System.nanoTime()) < next) {
+                LockSupport.parkNanos(next - now);
+            }
+            if (!measuring && next >= measureFrom) {
+                stats.reset();
+                arrivals = 0;
+                dropped = 0;
+                measuring = true;
+            }
+            if (now >= nextProgress) {
+                System.out.printf("  %3ds %s: %d requests, %d errors, %d in flight%n",
+                        (now - start) / 1_000_000_000, measuring ? "measuring" : "warm-up",
+                        stats.count(), stats.errors(), inFlight.get());
+                nextProgress += PROGRESS_INTERVAL_NANOS;
+            }
+
+            arrivals++;
+            if (inFlight.get() >= config.maxInFlight) {
+                // The client cannot keep the schedule; report it rather than silently slowing down
+                dropped++;
+            } else {
+                inFlight.incrementAndGet();
+                scenario.fire(wheel[random.nextInt(wheel.length)], next, random)
+                        .whenComplete((result, error) -> inFlight.decrementAndGet());
+            }
+            // Exponential inter-arrival gaps give a Poisson arrival process
+            next += (long) (-Math.log(1 - random.nextDouble()) * meanGapNanos);
+        }
+
+        long drainUntil = System.nanoTime() + DRAIN_TIMEOUT_NANOS;
+        while (inFlight.get() > 0 && System.nanoTime() < drainUntil) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+
+        double seconds = config.duration.toNanos() / 1e9;
+        ObjectNode summary = summary(config, stats.toJson(seconds), arrivals, dropped, inFlight.get());
+        System.out.println();
+        System.out.print(LatencyStats.table(summary.get("endpoints")));
+        if (dropped > 0 || inFlight.get() > 0) {
+            System.out.printf("%d arrivals dropped at --max-in-flight, %d requests still open after the drain%n",
+                    dropped, inFlight.get());
+        }
+
+        ObjectMapper mapper = new ObjectMapper()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+        mapper.writeValue(config.out.toFile(), summary);
+        System.out.println("Summary written to " + config.out);
+
+        if (config.baseline != null) {
+            JsonNode baseline = mapper.readTree(config.baseline.toFile());
+            System.out.println();
+            System.out.println("Compared with " + config.baseline + " (" + baseline.path("label").asText() + ")");
+            System.out.print(LatencyStats.compare(baseline.get("endpoints"), summary.get("endpoints")));
+        }
+        System.exit(0);
+    }
+
+    private static ObjectNode summary(LoadTestConfig config, ObjectNode endpoints, long arrivals, long dropped,
+                                      int unfinished) {
+        ObjectNode summary = new ObjectMapper().createObjectNode();
+        summary.put("label", config.label);
+        summary.put("startedAt", Instant.now().minus(config.duration).toString());
+        summary.put("baseUrl", config.baseUrl.toString());
+        summary.put("targetRate", config.rate);
+        summary.put("durationSeconds", config.duration.toSeconds());
+        summary.put("seed", config.seed);
+        ObjectNode mix = summary.putObject("mix");
+        config.mix.forEach((action, weight) -> mix.put(action.key, weight));
+        summary.put("arrivals", arrivals);
+        summary.put("dropped", dropped);
+        summary.put("unfinished", unfinished);
+        summary.set("endpoints", endpoints);
+        return summary;
+    }
+
+    private static Action[] weightedWheel(Map<Action, Integer> mix) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        Action[] wheel = new Action[total];
+        int i = 0;
+        for (Map.Entry<Action, Integer> entry : mix.entrySet()) {
+            for (int w = 0; w < entry.getValue(); w++) wheel[i++] = entry.getKey();
+        }
+        return wheel;
+    }
+}
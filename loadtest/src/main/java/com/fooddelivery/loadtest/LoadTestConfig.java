@@ -0,0 +1,101 @@
+package com.fooddelivery.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/** Command line options, all given as --name=value. */
+final class LoadTestConfig {
+
+    static final String USAGE = """
+            Usage: java -jar loadtest.jar [--option=value ...]
+
+              --base-url=http://localhost:8080   instance under test
+              --rate=50                          mean arrivals per second (Poisson, open model)
+              --duration=60s                     measured phase
+              --warmup=15s                       discarded phase before measuring
+              --mix=browse=30,menu=20,nearby=10,login=2,order=10,owner=20,agent=20
+              --dataset-customers=0              also log in customer0..N-1@example.com
+              --dataset-owners=0                 also log in owner0..N-1@example.com
+              --dataset-agents=0                 also log in agent0..N-1@example.com
+              --dataset-password=password123     password of the generated accounts
+              --max-in-flight=2000               arrivals beyond this are dropped and reported
+              --seed=1                           arrival schedule and request choices
+              --label=                           free text stored in the summary, e.g. build or commit
+              --out=loadtest-summary.json        summary written after the run
+              --baseline=                        earlier summary to compare against
+            """;
+
+    final URI baseUrl;
+    final double rate;
+    final Duration duration;
+    final Duration warmup;
+    final Map<Action, Integer> mix;
+    final int datasetCustomers;
+    final int datasetOwners;
+    final int datasetAgents;
+    final String datasetPassword;
+    final int maxInFlight;
+    final long seed;
+    final String label;
+    final Path out;
+    final Path baseline;
+
+    private LoadTestConfig(Map<String, String> options) {
+        baseUrl = URI.create(options.getOrDefault("base-url", "http://localhost:8080").replaceAll("/+$", ""));
+        rate = Double.parseDouble(options.getOrDefault("rate", "50"));
+        duration = parseDuration(options.getOrDefault("duration", "60s"));
+        warmup = parseDuration(options.getOrDefault("warmup", "15s"));
+        mix = parseMix(options.get("mix"));
+        datasetCustomers = Integer.parseInt(options.getOrDefault("dataset-customers", "0"));
+        datasetOwners = Integer.parseInt(options.getOrDefault("dataset-owners", "0"));
+        datasetAgents = Integer.parseInt(options.getOrDefault("dataset-agents", "0"));
+        datasetPassword = options.getOrDefault("dataset-password", "password123");
+        maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "2000"));
+        seed = Long.parseLong(options.getOrDefault("seed", "1"));
+        label = options.getOrDefault("label", "");
+        out = Path.of(options.getOrDefault("out", "loadtest-summary.json"));
+        baseline = options.containsKey("baseline") ? Path.of(options.get("baseline")) : null;
+        if (rate <= 0) throw new IllegalArgumentException("--rate must be positive");
+    }
+
+    static LoadTestConfig parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got '" + arg + "'");
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return new LoadTestConfig(options);
+    }
+
+    // 90s, 5m, 500ms or plain seconds
+    private static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        if (value.endsWith("s")) return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        if (value.endsWith("m")) return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    private static Map<Action, Integer> parseMix(String value) {
+        Map<Action, Integer> mix = new EnumMap<>(Action.class);
+        if (value == null) {
+            for (Action action : Action.values()) mix.put(action, action.defaultWeight);
+            return mix;
+        }
+        for (Action action : Action.values()) mix.put(action, 0);
+        for (String part : value.split(",")) {
+            String[] kv = part.split("=");
+            mix.put(Action.fromKey(kv[0].trim()), Integer.parseInt(kv[1].trim()));
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("--mix needs at least one positive weight");
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,199 @@
+package com.fooddelivery.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Customer, owner and agent traffic against the real API. Customers browse and order from restaurants
+ * whose owners are logged in; owners confirm and prepare those orders; agents pick them up and deliver.
+ * Every choice is made on the scheduling thread from its random source, so a seed replays the same
+ * sequence of requests against the same data.
+ */
+final class Scenario {
+
+    record Credentials(String email, String password) {}
+
+    record Session(long userId, String token) {}
+
+    record Restaurant(long id, Session owner, double lat, double lng, List<Long> menuItemIds) {}
+
+    private record Delivery(long orderId, Session owner, Session agent) {}
+
+    private final ApiClient api;
+    private final LoadTestConfig config;
+
+    private final List<Credentials> customerLogins = new ArrayList<>();
+    private final List<Session> customers = new ArrayList<>();
+    private final Map<Long, Session> agents = new HashMap<>();
+    private final List<Session> agentList = new ArrayList<>();
+    private final List<Restaurant> restaurants = new ArrayList<>();
+
+    // Orders waiting for their next lifecycle step
+    private final Queue<Delivery> placed = new ConcurrentLinkedQueue<>();
+    private final Queue<Delivery> confirmed = new ConcurrentLinkedQueue<>();
+    private final Queue<Delivery> ready = new ConcurrentLinkedQueue<>();
+    private final Queue<Delivery> pickedUp = new ConcurrentLinkedQueue<>();
+
+    Scenario(ApiClient api, LoadTestConfig config) {
+        this.api = api;
+        this.config = config;
+    }
+
+    void setUp() {
+        customerLogins.add(new Credentials("customer@food.com", "customer123"));
+        for (int i = 0; i < config.datasetCustomers; i++) {
+            customerLogins.add(new Credentials("customer" + i + "@example.com", config.datasetPassword));
+        }
+        for (Credentials credentials : customerLogins) {
+            customers.add(login(credentials));
+        }
+
+        List<Credentials> ownerLogins = new ArrayList<>(List.of(new Credentials("owner@food.com", "owner123")));
+        for (int i = 0; i < config.datasetOwners; i++) {
+            ownerLogins.add(new Credentials("owner" + i + "@example.com", config.datasetPassword));
+        }
+        for (Credentials credentials : ownerLogins) {
+            Session owner = login(credentials);
+            for (JsonNode r : get("/api/restaurants/my", owner.token())) {
+                if (!r.path("open").asBoolean() || r.path("latitude").isNull()) continue;
+                List<Long> items = new ArrayList<>();
+                for (JsonNode item : get("/api/menu/restaurant/" + r.get("id").asLong(), null)) {
+                    if (item.path("available").asBoolean()) items.add(item.get("id").asLong());
+                }
+                if (!items.isEmpty()) {
+                    restaurants.add(new Restaurant(r.get("id").asLong(), owner,
+                            r.get("latitude").asDouble(), r.get("longitude").asDouble(), items));
+                }
+            }
+        }
+        if (restaurants.isEmpty()) {
+            throw new IllegalStateException("No open restaurant with available items belongs to the logged-in owners");
+        }
+
+        List<Credentials> agentLogins = new ArrayList<>(List.of(new Credentials("agent@food.com", "agent123")));
+        for (int i = 0; i < config.datasetAgents; i++) {
+            agentLogins.add(new Credentials("agent" + i + "@example.com", config.datasetPassword));
+        }
+        for (Credentials credentials : agentLogins) {
+            Session agent = login(credentials);
+            agents.put(agent.userId(), agent);
+            agentList.add(agent);
+        }
+    }
+
+    String describe() {
+        return customers.size() + " customers, " + restaurants.size() + " restaurants, " + agentList.size() + " agents";
+    }
+
+    CompletableFuture<?> fire(Action action, long intendedStart, SplittableRandom random) {
+        return switch (action) {
+            case BROWSE -> browse(intendedStart);
+            case MENU -> api.call("GET /api/menu/restaurant/{id}", "GET",
+                    "/api/menu/restaurant/" + pick(restaurants, random).id(), null, null, intendedStart);
+            case NEARBY -> {
+                Restaurant near = pick(restaurants, random);
+                yield api.call("GET /api/restaurants/nearby", "GET",
+                        "/api/restaurants/nearby?lat=" + near.lat() + "&lng=" + near.lng(), null, null, intendedStart);
+            }
+            case LOGIN -> {
+                Credentials credentials = pick(customerLogins, random);
+                yield api.call("POST /api/auth/login", "POST", "/api/auth/login",
+                        null, Map.of("email", credentials.email(), "password", credentials.password()), intendedStart);
+            }
+            case PLACE_ORDER -> placeOrder(intendedStart, random);
+            case OWNER_ADVANCE -> ownerAdvance(intendedStart);
+            case AGENT_ADVANCE -> agentAdvance(intendedStart, random);
+        };
+    }
+
+    private CompletableFuture<?> browse(long intendedStart) {
+        return api.call("GET /api/restaurants", "GET", "/api/restaurants", null, null, intendedStart);
+    }
+
+    private CompletableFuture<?> placeOrder(long intendedStart, SplittableRandom random) {
+        Restaurant restaurant = pick(restaurants, random);
+        Session customer = pick(customers, random);
+        int lines = 1 + random.nextInt(Math.min(3, restaurant.menuItemIds().size()));
+        List<Map<String, Object>> items = new ArrayList<>();
+        int first = random.nextInt(restaurant.menuItemIds().size());
+        for (int i = 0; i < lines; i++) {
+            long itemId = restaurant.menuItemIds().get((first + i) % restaurant.menuItemIds().size());
+            items.add(Map.of("menuItemId", itemId, "quantity", 1 + random.nextInt(2)));
+        }
+        Map<String, Object> body = Map.of("restaurantId", restaurant.id(), "items", items,
+                "deliveryAddress", "Load test, " + customer.userId(), "paymentMethod", "UPI");
+        return api.call("POST /api/orders", "POST", "/api/orders", customer.token(), body, intendedStart)
+                .thenAccept(order -> {
+                    if (order != null) placed.add(new Delivery(order.get("id").asLong(), restaurant.owner(), null));
+                });
+    }
+
+    // Pushes the furthest-along order first so the pipeline drains instead of piling up at the front
+    private CompletableFuture<?> ownerAdvance(long intendedStart) {
+        Delivery next = confirmed.poll();
+        if (next != null) {
+            return advance(next, "PREPARING", next.owner(), intendedStart).thenAccept(order -> {
+                if (order != null) ready.add(new Delivery(next.orderId(), next.owner(), agentFor(order)));
+            });
+        }
+        Delivery pending = placed.poll();
+        if (pending == null) return browse(intendedStart);
+        return advance(pending, "CONFIRMED", pending.owner(), intendedStart).thenAccept(order -> {
+            if (order != null) confirmed.add(pending);
+        });
+    }
+
+    private CompletableFuture<?> agentAdvance(long intendedStart, SplittableRandom random) {
+        Delivery onTheWay = pickedUp.poll();
+        if (onTheWay != null) {
+            return advance(onTheWay, "DELIVERED", onTheWay.agent(), intendedStart);
+        }
+        Delivery waiting = ready.poll();
+        if (waiting == null) return browse(intendedStart);
+        // Dispatch may have picked an agent this run is not logged in as; only that agent may pick it up
+        if (waiting.agent() != null && waiting.agent().token() == null) return browse(intendedStart);
+        Session courier = waiting.agent() != null ? waiting.agent() : pick(agentList, random);
+        return advance(waiting, "OUT_FOR_DELIVERY", courier, intendedStart).thenAccept(order -> {
+            if (order != null) pickedUp.add(new Delivery(waiting.orderId(), waiting.owner(), courier));
+        });
+    }
+
+    private Session agentFor(JsonNode order) {
+        JsonNode agentId = order.path("deliveryAgentId");
+        if (agentId.isNull() || agentId.isMissingNode()) return null;
+        Session agent = agents.get(agentId.asLong());
+        return agent != null ? agent : new Session(-1, null);
+    }
+
+    private CompletableFuture<JsonNode> advance(Delivery delivery, String status, Session actor, long intendedStart) {
+        return api.call("PATCH /api/orders/{id}/status", "PATCH",
+                "/api/orders/" + delivery.orderId() + "/status?status=" + status, actor.token(), null, intendedStart);
+    }
+
+    private Session login(Credentials credentials) {
+        JsonNode response = api.call("POST /api/auth/login", "POST", "/api/auth/login", null,
+                Map.of("email", credentials.email(), "password", credentials.password()), System.nanoTime()).join();
+        if (response == null || !response.hasNonNull("token")) {
+            throw new IllegalStateException("Login failed for " + credentials.email());
+        }
+        return new Session(response.get("id").asLong(), response.get("token").asText());
+    }
+
+    private JsonNode get(String path, String token) {
+        JsonNode response = api.call("setup", "GET", path, token, null, System.nanoTime()).join();
+        if (response == null) throw new IllegalStateException("GET " + path + " failed during setup");
+        return response;
+    }
+
+    private static <T> T pick(List<T> values, SplittableRandom random) {
+        return values.get(random.nextInt(values.size()));
+    }
+}